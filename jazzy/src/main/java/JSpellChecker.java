@@ -146,7 +146,8 @@ public class JSpellChecker extends Applet {
   }
 
   public String getSuggestions(String word) {
-    return getSuggestionList(checker.getSuggestions(word, 0));
+    return getSuggestionList(checker.getSuggestions(word,
+      checker.getConfiguration().getSnapshot().getThreshold()));
   }
 
   public String getMisspelledWord() {
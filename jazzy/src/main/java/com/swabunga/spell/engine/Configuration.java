@@ -19,7 +19,9 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
 */
 package com.swabunga.spell.engine;
 
+import java.io.IOException;
 import java.security.AccessControlException;
+import java.util.Vector;
 
 
 /**
@@ -30,11 +32,24 @@ import java.security.AccessControlException;
  * Also includes SPELL_* constants that control how misspellings are detected, for example, how to handle
  * mixed-case words, etc.
  *
+ * <p/>
+ * Code that consults the settings often should work on a {@link #getSnapshot() snapshot}
+ * of them, and register a {@link ConfigurationListener} to learn about changes.
+ * Implementations must call {@link #fireConfigurationChanged(String)} from their setters.
+ * Setters change the settings in memory only, see {@link #persist()}.
+ *
  * @author aim4min
  * @see EditDistance
  */
 public abstract class Configuration {
 
+  /** The configuration shared by the engine classes that have none of their own */
+  private static Configuration sharedConfiguration;
+
+  private final Vector listeners = new Vector();
+  /** The snapshot of the current settings, null when they changed */
+  private volatile ConfigurationSnapshot snapshot;
+
   /** used by EditDistance: the cost of having to remove a character <br/>(integer greater than 0) */
   public static final String COST_REMOVE_CHAR = "EDIT_DEL1";
 
@@ -111,6 +126,71 @@ public abstract class Configuration {
    */
   public abstract void setBoolean(String key, boolean value);
 
+  /**
+   * Writes the settings to their permanent store. Changes made through the
+   * setters are kept in memory until this method is called.
+   * @throws IOException indicates problems writing the settings, or that
+   * this configuration has nowhere to write them
+   */
+  public void persist() throws IOException {
+    throw new IOException(getClass().getName() + " cannot persist its settings");
+  }
+
+  /**
+   * Returns the current settings as an immutable snapshot. The snapshot is
+   * kept until a setting changes, so calling this method is cheap.
+   * @return the snapshot of the settings
+   */
+  public ConfigurationSnapshot getSnapshot() {
+    ConfigurationSnapshot current = snapshot;
+    if (current == null) {
+      current = new ConfigurationSnapshot(this);
+      snapshot = current;
+    }
+    return current;
+  }
+
+  /**
+   * Registers a listener notified after each change of a setting.
+   * @param listener the listener to add
+   */
+  public void addConfigurationListener(ConfigurationListener listener) {
+    listeners.addElement(listener);
+  }
+
+  /**
+   * Removes a listener from the listeners list.
+   * @param listener the listener to remove
+   */
+  public void removeConfigurationListener(ConfigurationListener listener) {
+    listeners.removeElement(listener);
+  }
+
+  /**
+   * Discards the snapshot of the settings and notifies the listeners. To be
+   * called by the setters once the new value is in place.
+   * @param key the constant of the setting that changed
+   */
+  protected void fireConfigurationChanged(String key) {
+    snapshot = null;
+    Object[] current = listeners.toArray();
+    for (int i = 0; i < current.length; i++) {
+      ((ConfigurationListener) current[i]).configurationChanged(this, key);
+    }
+  }
+
+  /**
+   * Returns the configuration shared by the spell checkers and the engine
+   * classes that are not given one, such as {@link EditDistance}. It is
+   * created by {@link #getConfiguration()} on first use.
+   * @return the shared Configuration
+   */
+  public static synchronized Configuration getSharedConfiguration() {
+    if (sharedConfiguration == null)
+      sharedConfiguration = getConfiguration();
+    return sharedConfiguration;
+  }
+
   /**
    * gets a new default Configuration
    * @return Configuration
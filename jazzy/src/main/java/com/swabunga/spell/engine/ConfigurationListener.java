@@ -0,0 +1,36 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+/**
+ * Implementations of this interface are notified when a setting of a
+ * {@link Configuration} changes, for instance to check a document again.
+ *
+ * @see Configuration#addConfigurationListener(ConfigurationListener)
+ */
+public interface ConfigurationListener {
+
+  /**
+   * Called after a setting was changed.
+   * @param config the configuration that changed
+   * @param key the constant of the setting that changed
+   */
+  public void configurationChanged(Configuration config, String key);
+}
@@ -0,0 +1,147 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+/**
+ * The settings of a {@link Configuration}, read once and held as typed
+ * values. A snapshot never changes: code that consults the settings for
+ * every word takes a snapshot at the start of its run rather than parsing
+ * the settings again and again.
+ *
+ * @see Configuration#getSnapshot()
+ */
+public final class ConfigurationSnapshot {
+
+  private final int costOfRemovingChar;
+  private final int costOfInsertingChar;
+  private final int costOfSwappingChars;
+  private final int costOfChangingCase;
+  private final int costOfSubstitutingChars;
+  private final int threshold;
+  private final boolean ignoreUpperCase;
+  private final boolean ignoreMixedCase;
+  private final boolean ignoreInternetAddresses;
+  private final boolean ignoreDigitWords;
+  private final boolean ignoreMultipleWords;
+  private final boolean ignoreSentenceCapitalization;
+
+  /**
+   * Reads all the settings of a configuration.
+   * @param config the configuration
+   */
+  ConfigurationSnapshot(Configuration config) {
+    costOfRemovingChar = config.getInteger(Configuration.COST_REMOVE_CHAR);
+    costOfInsertingChar = config.getInteger(Configuration.COST_INSERT_CHAR);
+    costOfSwappingChars = config.getInteger(Configuration.COST_SWAP_CHARS);
+    costOfChangingCase = config.getInteger(Configuration.COST_CHANGE_CASE);
+    costOfSubstitutingChars = config.getInteger(Configuration.COST_SUBST_CHARS);
+    threshold = config.getInteger(Configuration.SPELL_THRESHOLD);
+    ignoreUpperCase = config.getBoolean(Configuration.SPELL_IGNOREUPPERCASE);
+    ignoreMixedCase = config.getBoolean(Configuration.SPELL_IGNOREMIXEDCASE);
+    ignoreInternetAddresses = config.getBoolean(Configuration.SPELL_IGNOREINTERNETADDRESSES);
+    ignoreDigitWords = config.getBoolean(Configuration.SPELL_IGNOREDIGITWORDS);
+    ignoreMultipleWords = config.getBoolean(Configuration.SPELL_IGNOREMULTIPLEWORDS);
+    ignoreSentenceCapitalization = config.getBoolean(Configuration.SPELL_IGNORESENTENCECAPITALIZATION);
+  }
+
+  /**
+   * @return the {@link Configuration#COST_REMOVE_CHAR} setting
+   */
+  public int getCostOfRemovingChar() {
+    return costOfRemovingChar;
+  }
+
+  /**
+   * @return the {@link Configuration#COST_INSERT_CHAR} setting
+   */
+  public int getCostOfInsertingChar() {
+    return costOfInsertingChar;
+  }
+
+  /**
+   * @return the {@link Configuration#COST_SWAP_CHARS} setting
+   */
+  public int getCostOfSwappingChars() {
+    return costOfSwappingChars;
+  }
+
+  /**
+   * @return the {@link Configuration#COST_CHANGE_CASE} setting
+   */
+  public int getCostOfChangingCase() {
+    return costOfChangingCase;
+  }
+
+  /**
+   * @return the {@link Configuration#COST_SUBST_CHARS} setting
+   */
+  public int getCostOfSubstitutingChars() {
+    return costOfSubstitutingChars;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_THRESHOLD} setting
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNOREUPPERCASE} setting
+   */
+  public boolean isIgnoreUpperCase() {
+    return ignoreUpperCase;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNOREMIXEDCASE} setting
+   */
+  public boolean isIgnoreMixedCase() {
+    return ignoreMixedCase;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNOREINTERNETADDRESSES} setting
+   */
+  public boolean isIgnoreInternetAddresses() {
+    return ignoreInternetAddresses;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNOREDIGITWORDS} setting
+   */
+  public boolean isIgnoreDigitWords() {
+    return ignoreDigitWords;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNOREMULTIPLEWORDS} setting
+   */
+  public boolean isIgnoreMultipleWords() {
+    return ignoreMultipleWords;
+  }
+
+  /**
+   * @return the {@link Configuration#SPELL_IGNORESENTENCECAPITALIZATION} setting
+   */
+  public boolean isIgnoreSentenceCapitalization() {
+    return ignoreSentenceCapitalization;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * The place where a {@link PropertyConfiguration} keeps its settings when it
+ * is {@link Configuration#persist() persisted}. Changes to a configuration
+ * stay in memory until then.
+ *
+ * @see FileConfigurationStore
+ */
+public interface ConfigurationStore {
+
+  /**
+   * Reads the stored settings.
+   * @return the settings, empty if none were stored
+   * @throws IOException indicates problems reading the settings
+   */
+  public Properties load() throws IOException;
+
+  /**
+   * Writes the settings, replacing the stored ones.
+   * @param properties the settings to store
+   * @throws IOException indicates problems writing the settings
+   */
+  public void store(Properties properties) throws IOException;
+}
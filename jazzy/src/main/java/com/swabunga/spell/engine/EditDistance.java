@@ -46,7 +46,7 @@ public class EditDistance {
   /**
    * Fetches the spell engine configuration properties.
    */
-  public static Configuration config = Configuration.getConfiguration();
+  public static Configuration config = Configuration.getSharedConfiguration();
 
   /**
    * get the weights for each possible operation
@@ -153,6 +153,24 @@ public class EditDistance {
     return matrix[a_size - 1][b_size - 1];
   }
 
+  /**
+   * Evaluates a cheap lower bound of the distance between two words of the
+   * specified lengths. Only insertions and deletions change the length of a
+   * word, so every character of difference costs at least the cheapest of
+   * the two operations.
+   *
+   * @param wordLength The length of one word
+   * @param similarLength The length of the other word
+   * @return a value never greater than {@link #getDistance(String, String)}
+   * for any two words of these lengths.
+   */
+  public static final int getLowerBound(int wordLength, int similarLength) {
+    int diff = wordLength - similarLength;
+    if (diff < 0)
+      diff = -diff;
+    return diff * Math.min(costOfDeletingSourceCharacter, costOfInsertingSourceCharacter);
+  }
+
   /**
    * checks to see if the two charactors are equal ignoring case. 
    * @param ch1
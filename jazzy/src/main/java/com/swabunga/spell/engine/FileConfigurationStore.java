@@ -0,0 +1,83 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Keeps the settings of a configuration in a properties file.
+ */
+public class FileConfigurationStore implements ConfigurationStore {
+
+  private final File file;
+
+  /**
+   * Constructs a store for a properties file.
+   * @param file the file holding the settings, created when they are first
+   * stored
+   */
+  public FileConfigurationStore(File file) {
+    if (file == null)
+      throw new IllegalArgumentException("file must be non-null");
+    this.file = file;
+  }
+
+  /**
+   * Returns the file holding the settings.
+   * @return the properties file
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * @see com.swabunga.spell.engine.ConfigurationStore#load()
+   */
+  public Properties load() throws IOException {
+    Properties properties = new Properties();
+    if (file.exists()) {
+      InputStream in = new FileInputStream(file);
+      try {
+        properties.load(in);
+      } finally {
+        in.close();
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * @see com.swabunga.spell.engine.ConfigurationStore#store(Properties)
+   */
+  public void store(Properties properties) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      properties.store(out, "HEADER");
+    } finally {
+      out.close();
+    }
+  }
+}
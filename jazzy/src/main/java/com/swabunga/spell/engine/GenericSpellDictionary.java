@@ -143,6 +143,7 @@ public class GenericSpellDictionary extends SpellDictionaryASpell {
    */
   protected void putWord(String word) {
     String code = getCode(word);
+    addToFingerprint(word);
     LinkedList list = (LinkedList) mainDictionary.get(code);
     if (list != null) {
       list.add(word);
@@ -153,6 +154,14 @@ public class GenericSpellDictionary extends SpellDictionaryASpell {
     }
   }
 
+  /**
+   * Returns the fingerprint of the words held by the dictionary.
+   * @return the fingerprint of the words
+   */
+  protected String getContentFingerprint() {
+    return getWordsFingerprint();
+  }
+
   /**
    * Returns a list of strings (words) for the code.
    * @param code The phonetic code we want to find words for
@@ -171,6 +171,19 @@ public class GenericTransformator implements Transformator {
   }
 
 
+  /**
+   * Returns a hash of the transformation rules, which changes whenever the
+   * phonetic file they were read from changes.
+   * @return the hash of the rules
+   */
+  int getRulesHashCode() {
+    int hash = 0;
+    if (ruleArray != null)
+      for (int i = 0; i < ruleArray.length; i++)
+        hash = 31 * hash + ruleArray[i].toString().hashCode();
+    return hash;
+  }
+
   /**
    * Takes out all single character replacements and put them in a char array.
    * This array can later be used for adding or changing letters in getSuggestion().
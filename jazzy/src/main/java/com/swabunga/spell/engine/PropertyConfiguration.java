@@ -26,12 +26,24 @@ import java.util.Properties;
 
 /**
  * Implementation class to read the properties controlling the spell engine. 
- * The properties are read form the <code>configuration.properties</code> file.
+ * The default properties are read form the <code>configuration.properties</code> file,
+ * once for all the instances.
+ * <p/>
+ * Changes are made in memory only. They are written by {@link #persist()} to the
+ * {@link ConfigurationStore} of the configuration, if any, else to the
+ * <code>configuration.properties</code> file when it is not inside an archive.
  *
  * @author aim4min
  */
 public class PropertyConfiguration extends Configuration {
 
+  /** The resource holding the default properties */
+  private static final String DEFAULTS_RESOURCE = "com/swabunga/spell/engine/configuration.properties";
+  /** The default properties, read on first use */
+  private static Properties defaults;
+  /** The location of the default properties */
+  private static URL defaultsURL;
+
   /**
    * The persistent set of properties supported by the spell engine
    */
@@ -40,19 +52,52 @@ public class PropertyConfiguration extends Configuration {
    * The name of the file containing spell engine properties
    */
   public URL filename;
+  /**
+   * The store the properties are persisted to, null for the default file
+   */
+  private ConfigurationStore store;
 
   /**
-   * Constructs and loads spell engine properties configuration.
+   * Constructs the spell engine properties configuration from the defaults.
    */
   public PropertyConfiguration() {
     prop = new Properties();
-    try {
-      filename = getClass().getClassLoader().getResource("com/swabunga/spell/engine/configuration.properties");
-      InputStream in = filename.openStream();
-      prop.load(in);
-    } catch (Exception e) {
-      System.out.println("Could not load Properties file :\n" + e);
+    prop.putAll(getDefaults());
+    filename = defaultsURL;
+  }
+
+  /**
+   * Constructs the spell engine properties configuration from the defaults,
+   * overridden by the settings of a store.
+   * @param store the store the settings are read from and persisted to
+   * @throws IOException indicates problems reading the store
+   */
+  public PropertyConfiguration(ConfigurationStore store) throws IOException {
+    this();
+    this.store = store;
+    prop.putAll(store.load());
+  }
+
+  /**
+   * Reads the default properties the first time they are needed.
+   * @return the default properties
+   */
+  private static synchronized Properties getDefaults() {
+    if (defaults == null) {
+      defaults = new Properties();
+      try {
+        defaultsURL = PropertyConfiguration.class.getClassLoader().getResource(DEFAULTS_RESOURCE);
+        InputStream in = defaultsURL.openStream();
+        try {
+          defaults.load(in);
+        } finally {
+          in.close();
+        }
+      } catch (Exception e) {
+        System.out.println("Could not load Properties file :\n" + e);
+      }
     }
+    return defaults;
   }
 
   /**
@@ -80,7 +125,7 @@ public class PropertyConfiguration extends Configuration {
       string = "false";
 
     prop.setProperty(key, string);
-    save();
+    fireConfigurationChanged(key);
   }
 
   /**
@@ -88,19 +133,49 @@ public class PropertyConfiguration extends Configuration {
    */
   public void setInteger(String key, int value) {
     prop.setProperty(key, Integer.toString(value));
-    save();
+    fireConfigurationChanged(key);
+  }
+
+  /**
+   * Sets the store the properties are persisted to.
+   * @param store the store, or null for the default file
+   */
+  public void setStore(ConfigurationStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Returns the store the properties are persisted to.
+   * @return the store, or null for the default file
+   */
+  public ConfigurationStore getStore() {
+    return store;
+  }
+
+  /**
+   * Writes the property list (key and element pairs) to the store, or to
+   * the PropertyConfiguration file if no store is set.
+   * @see com.swabunga.spell.engine.Configuration#persist()
+   */
+  public void persist() throws IOException {
+    ConfigurationStore target = store;
+    if (target == null) {
+      if (filename == null || !"file".equals(filename.getProtocol()))
+        throw new IOException("No writable configuration file: " + filename);
+      target = new FileConfigurationStore(new File(filename.getFile()));
+    }
+    target.store(prop);
   }
 
   /**
    * Writes the property list (key and element pairs) in the 
-   * PropertyConfiguration file.
+   * PropertyConfiguration file, ignoring errors.
+   * @deprecated use {@link #persist()}, which reports errors
    */
+  @Deprecated
   public void save() {
     try {
-      File file = new File(filename.getFile());
-      FileOutputStream fout = new FileOutputStream(file);
-      prop.store(fout, "HEADER");
-    } catch (FileNotFoundException e) {
+      persist();
     } catch (IOException e) {
     }
   }
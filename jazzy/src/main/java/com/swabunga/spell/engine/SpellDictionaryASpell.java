@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.security.InvalidParameterException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Container for various methods that any <code>SpellDictionary</code> will use.
@@ -63,6 +64,21 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
   /** The reference to a Transformator, used to transform a word into it's phonetic code. */
   protected Transformator tf;
 
+  /** The maximum number of candidates scored for one word, zero for no limit */
+  private volatile int maxSuggestionCandidates = 0;
+  /** The maximum time spent on suggestions for one word, zero for no limit */
+  private volatile long maxSuggestionMillis = 0;
+
+  /** The order independent hash of the words added through addToFingerprint */
+  private final AtomicLong wordsHash = new AtomicLong();
+  /** The number of words added through addToFingerprint */
+  private final AtomicLong wordsCount = new AtomicLong();
+
+  /** The number of suggestion requests served */
+  private final AtomicLong suggestionRequests = new AtomicLong();
+  /** The number of suggestion requests cut short by the budget */
+  private final AtomicLong truncatedSuggestionRequests = new AtomicLong();
+
   /**
    * Constructs a new SpellDictionaryASpell
    * @param phonetic The file to use for phonetic transformation of the 
@@ -136,19 +152,62 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
    * @return Vector a List of suggestions
    */
   public List getSuggestions(String word, int threshold, int[][] matrix) {
+    return getSuggestions(word, threshold, 0, matrix);
+  }
+
+  /**
+   * Returns a list of at most <code>maxSuggestions</code> Word objects that
+   * are the best suggestions to an incorrect word.
+   * @param word Suggestions for given misspelt word
+   * @param threshold The lower boundary of similarity to misspelt word
+   * @param maxSuggestions The maximum number of suggestions to return, zero
+   * or less for no limit
+   * @return Vector a List of suggestions
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions) {
+    return getSuggestions(word, threshold, maxSuggestions, null);
+  }
+
+  /**
+   * Returns a list of at most <code>maxSuggestions</code> Word objects that
+   * are the best suggestions to an incorrect word. The list is the head of
+   * the list returned without a limit: phonetic matches come first, and
+   * scoring stops as soon as the remaining candidates cannot beat the
+   * suggestions already found.
+   * <p>
+   * @param word Suggestions for given misspelt word
+   * @param threshold The lower boundary of similarity to misspelt word
+   * @param maxSuggestions The maximum number of suggestions to return, zero
+   * or less for no limit
+   * @param matrix Two dimensional int array used to calculate
+   * edit distance. Allocating this memory outside of the function will greatly improve efficiency. 
+   * @return Vector a List of suggestions
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions, int[][] matrix) {
 
   	int i;
   	int j;
   	
   	if(matrix == null)
   		matrix = new int[0][0];
+
+    suggestionRequests.incrementAndGet();
+    Budget budget = new Budget(maxSuggestionCandidates, maxSuggestionMillis);
   	
     Hashtable nearmisscodes = new Hashtable();
     String code = getCode(word);
 
     // add all words that have the same phonetics
     nearmisscodes.put(code, code);
-    Vector phoneticList = getWordsFromCode(word, nearmisscodes);
+    Vector phoneticList = getWordsFromCode(word, nearmisscodes, threshold, maxSuggestions, budget);
+
+    // a list whose scan ran out of budget may miss better matches
+    if (budget.isExhausted())
+      return truncated(phoneticList);
+    // phonetic matches are always listed along the top, so the others
+    // cannot make it into a list that is already full
+    if (maxSuggestions > 0 && phoneticList.size() >= maxSuggestions)
+      return phoneticList;
 
     // do some tranformations to pick up more results
     //interchange
@@ -157,7 +216,7 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
     char a;
     char b ;
     
-    for (i = 0; i < word.length() - 1; i++) {
+    for (i = 0; i < word.length() - 1 && !budget.isExhausted(); i++) {
       a = charArray[i];
       b = charArray[i + 1];
       charArray[i] = b;
@@ -173,7 +232,7 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
     //change
     charArray = word.toCharArray();
     char original; 
-    for (i = 0; i < word.length(); i++) {
+    for (i = 0; i < word.length() && !budget.isExhausted(); i++) {
       original = charArray[i];
       for (j = 0; j < replacelist.length; j++) {
         charArray[i] = replacelist[j];
@@ -192,7 +251,7 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
         String s = getCode(new String(charArray));
         nearmisscodes.put(s, s);
       }
-      if (iy == 0)
+      if (iy == 0 || budget.isExhausted())
         break;
       charArray[iy] = charArray[iy - 1];
       --iy;
@@ -211,7 +270,7 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
     while (true) {
       String s = getCode(new String(charArray));
       nearmisscodes.put(s, s);
-      if (ii == 0)
+      if (ii == 0 || budget.isExhausted())
         break;
       b = a;
       a = charArray2[ii - 1];
@@ -221,22 +280,158 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
 
     nearmisscodes.remove(code); //already accounted for in phoneticList
 
-    Vector wordlist = getWordsFromCode(word, nearmisscodes);
+    int remaining = maxSuggestions > 0 ? maxSuggestions - phoneticList.size() : 0;
+    Vector wordlist = getWordsFromCode(word, nearmisscodes, threshold, remaining, budget);
 
-    if (wordlist.size() == 0 && phoneticList.size() == 0)
+    if (wordlist.size() == 0 && phoneticList.size() == 0 && !budget.isExhausted()) {
       addBestGuess(word, phoneticList, matrix);
+      if (maxSuggestions > 0 && phoneticList.size() > maxSuggestions)
+        phoneticList.setSize(maxSuggestions);
+    }
+
+    // Both lists come out of getWordsFromCode already sorted by cost.
+    phoneticList.addAll(wordlist); //the non-phonetic matches are listed below
+    if (budget.isExhausted())
+      return truncated(phoneticList);
+    return phoneticList;
+  }
+
+  /**
+   * Returns a fingerprint of everything the suggestions of this dictionary
+   * depend on: its words, its phonetic transformation, the cost
+   * configuration and the threshold. Two dictionaries with the same
+   * fingerprint produce the same suggestions, so the fingerprint can be used
+   * to tell if suggestions computed in a previous run are still valid.
+   * @param threshold the threshold the suggestions are asked for with
+   * @return the fingerprint, or null if the content of the dictionary
+   * cannot be fingerprinted
+   * @see #getContentFingerprint()
+   */
+  public String getFingerprint(int threshold) {
+    String content = getContentFingerprint();
+    if (content == null)
+      return null;
+    StringBuffer buf = new StringBuffer(getClass().getName());
+    buf.append('|').append(tf.getClass().getName());
+    buf.append('|').append(tf.getReplaceList());
+    if (tf instanceof GenericTransformator)
+      buf.append('|').append(((GenericTransformator) tf).getRulesHashCode());
+    buf.append('|').append(EditDistance.costOfDeletingSourceCharacter);
+    buf.append(',').append(EditDistance.costOfInsertingSourceCharacter);
+    buf.append(',').append(EditDistance.costOfSubstitutingLetters);
+    buf.append(',').append(EditDistance.costOfSwappingLetters);
+    buf.append(',').append(EditDistance.costOfChangingCase);
+    buf.append(',').append(threshold);
+    buf.append('|').append(content);
+    return buf.toString();
+  }
 
+  /**
+   * Returns a fingerprint of the words held by the dictionary. The default
+   * implementation returns null, meaning that the content is unknown;
+   * dictionaries that hold their words in memory call
+   * {@link #addToFingerprint(String)} for each word and return
+   * {@link #getWordsFingerprint()}.
+   * @return the fingerprint of the words, or null if unknown
+   */
+  protected String getContentFingerprint() {
+    return null;
+  }
+
+  /**
+   * Accounts for a word added to the dictionary in the words fingerprint.
+   * The fingerprint does not depend on the order the words are added in.
+   * @param word the word added
+   */
+  protected void addToFingerprint(String word) {
+    // 64 bit FNV-1a followed by a final mix, summed over the words
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < word.length(); i++) {
+      h ^= word.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    wordsHash.addAndGet(h);
+    wordsCount.incrementAndGet();
+  }
 
-    // We sort a Vector at the end instead of maintaining a
-    // continously sorted TreeSet because everytime you add a collection
-    // to a treeset it has to be resorted. It's better to do this operation
-    // once at the end.
+  /**
+   * Returns the fingerprint of the words accounted for by
+   * {@link #addToFingerprint(String)}.
+   * @return the fingerprint of the words
+   */
+  protected String getWordsFingerprint() {
+    return Long.toHexString(wordsHash.get()) + "/" + wordsCount.get();
+  }
 
-    Collections.sort(phoneticList, new Word()); //always sort phonetic matches along the top
-    Collections.sort(wordlist, new Word()); //the non-phonetic matches can be listed below
+  /**
+   * Returns a count that changes whenever a word is added to the
+   * dictionary, so that users can tell if results they remember are still
+   * valid. Dictionaries that do not call {@link #addToFingerprint(String)}
+   * always return 0.
+   * @return the number of words added so far
+   */
+  public long getModificationCount() {
+    return wordsCount.get();
+  }
 
-    phoneticList.addAll(wordlist);
-    return phoneticList;
+  /**
+   * Flags the best suggestions found before the budget ran out.
+   */
+  private List truncated(List suggestions) {
+    truncatedSuggestionRequests.incrementAndGet();
+    return new SuggestionList(suggestions, true);
+  }
+
+  /**
+   * Limits the work done by a single suggestion request. Long tokens, such
+   * as joined identifiers or encoded data, generate a very large number of
+   * near miss codes and candidates; once the budget runs out, the best
+   * suggestions found so far are returned in a truncated
+   * {@link SuggestionList}.
+   * @param maxCandidates the maximum number of candidates scored for one
+   * word, zero for no limit
+   * @param maxMillis the maximum time, in milliseconds, spent on one word,
+   * zero for no limit
+   */
+  public void setSuggestionBudget(int maxCandidates, long maxMillis) {
+    this.maxSuggestionCandidates = Math.max(0, maxCandidates);
+    this.maxSuggestionMillis = Math.max(0, maxMillis);
+  }
+
+  /**
+   * Returns the maximum number of candidates scored for one word.
+   * @return the candidate budget, zero for no limit
+   */
+  public int getMaxSuggestionCandidates() {
+    return maxSuggestionCandidates;
+  }
+
+  /**
+   * Returns the maximum time spent on suggestions for one word.
+   * @return the time budget in milliseconds, zero for no limit
+   */
+  public long getMaxSuggestionMillis() {
+    return maxSuggestionMillis;
+  }
+
+  /**
+   * Returns the number of suggestion requests served by this dictionary.
+   * @return the request count
+   */
+  public long getSuggestionRequestCount() {
+    return suggestionRequests.get();
+  }
+
+  /**
+   * Returns the number of suggestion requests that were cut short because
+   * the budget ran out.
+   * @return the truncated request count
+   */
+  public long getTruncatedSuggestionCount() {
+    return truncatedSuggestionRequests.get();
   }
 
   /**
@@ -293,28 +488,142 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
 
   }
 
-  private Vector getWordsFromCode(String word, Hashtable codes) {
-    Configuration config = Configuration.getConfiguration();
-    Vector result = new Vector();
+  /**
+   * Scores the words of the given phonetic codes against the misspelt word
+   * and returns those under the threshold, sorted by cost.
+   * <p>
+   * When <code>maxSuggestions</code> is positive, only the best ones are
+   * kept. The candidates are then scored by increasing lower bound of their
+   * distance, so that scoring stops as soon as none of the remaining ones can
+   * beat the worst suggestion kept. Words of equal cost keep the order they
+   * have in the dictionary.
+   * @param word the misspelt word
+   * @param codes the phonetic codes to look up
+   * @param threshold the cost value above which any suggestions are thrown away
+   * @param maxSuggestions the maximum number of words to return, zero or
+   * less for no limit
+   * @param budget the budget of the request, scoring stops when it runs out
+   * @return Vector the sorted suggestions
+   */
+  private Vector getWordsFromCode(String word, Hashtable codes, int threshold, int maxSuggestions, Budget budget) {
     int[][] matrix = new int[0][0]; 
-    final int configDistance = config.getInteger(Configuration.SPELL_THRESHOLD);
-
-    for (Enumeration i = codes.keys(); i.hasMoreElements();) {
-      String code = (String) i.nextElement();
+    final int length = word.length();
+    SuggestionQueue queue = new SuggestionQueue(maxSuggestions);
+
+    if (maxSuggestions <= 0) {
+      for (Enumeration i = codes.keys(); i.hasMoreElements() && !budget.isExhausted();) {
+        String code = (String) i.nextElement();
+
+        List simwordlist = getWords(code);
+        for (Iterator iter = simwordlist.iterator(); iter.hasNext();) {
+          String similar = (String) iter.next();
+          if (EditDistance.getLowerBound(length, similar.length()) >= threshold)
+            continue;
+          if (!budget.spend())
+            break;
+          int distance = EditDistance.getDistance(word, similar, matrix);
+          if (distance < threshold)
+            queue.offer(new Word(similar, distance));
+        }
+      }
+    } else {
+      ArrayList candidates = new ArrayList();
+      for (Enumeration i = codes.keys(); i.hasMoreElements();) {
+        String code = (String) i.nextElement();
+
+        List simwordlist = getWords(code);
+        for (Iterator iter = simwordlist.iterator(); iter.hasNext();) {
+          String similar = (String) iter.next();
+          if (EditDistance.getLowerBound(length, similar.length()) < threshold)
+            candidates.add(similar);
+        }
+      }
 
-      List simwordlist = getWords(code);
-      for (Iterator iter = simwordlist.iterator(); iter.hasNext();) {
-        String similar = (String) iter.next();
+      int[] order = orderByLengthDifference(length, candidates);
+      for (int k = 0; k < order.length; k++) {
+        String similar = (String) candidates.get(order[k]);
+        int lowerBound = EditDistance.getLowerBound(length, similar.length());
+        if (lowerBound > queue.worstCost())
+          break; // every remaining candidate is at least as far away
+        if (!queue.accepts(lowerBound, order[k]))
+          continue;
+        if (!budget.spend())
+          break;
         int distance = EditDistance.getDistance(word, similar, matrix);
-        if (distance < configDistance) {
-          Word w = new Word(similar, distance);
-          result.addElement(w);
-        }
+        if (distance < threshold)
+          queue.offer(new Word(similar, distance), order[k]);
       }
     }
+
+    Vector result = new Vector(queue.size());
+    queue.drainTo(result);
     return result;
   }
 
+  /**
+   * The work allowed for a single suggestion request.
+   */
+  private static final class Budget {
+    private final long deadline;
+    private int candidatesLeft;
+    private boolean exhausted = false;
+
+    Budget(int maxCandidates, long maxMillis) {
+      candidatesLeft = maxCandidates > 0 ? maxCandidates : -1;
+      deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1000000L : 0;
+    }
+
+    /**
+     * Indicates if the budget ran out.
+     */
+    boolean isExhausted() {
+      if (!exhausted && deadline != 0 && System.nanoTime() - deadline >= 0)
+        exhausted = true;
+      return exhausted;
+    }
+
+    /**
+     * Spends one candidate.
+     * @return false if the candidate may not be scored
+     */
+    boolean spend() {
+      if (candidatesLeft == 0)
+        exhausted = true;
+      else if (candidatesLeft > 0)
+        candidatesLeft--;
+      return !isExhausted();
+    }
+  }
+
+  /**
+   * Returns the indexes of the candidate words ordered by increasing length
+   * difference with the misspelt word, which is also the order of their
+   * distance lower bound. Candidates with the same difference keep their
+   * relative order.
+   * @param length the length of the misspelt word
+   * @param candidates the candidate words
+   * @return the ordered indexes into <code>candidates</code>
+   */
+  private static int[] orderByLengthDifference(int length, List candidates) {
+    int size = candidates.size();
+    int[] diff = new int[size];
+    int maxDiff = 0;
+    for (int i = 0; i < size; i++) {
+      diff[i] = Math.abs(length - ((String) candidates.get(i)).length());
+      if (diff[i] > maxDiff)
+        maxDiff = diff[i];
+    }
+    int[] start = new int[maxDiff + 2];
+    for (int i = 0; i < size; i++)
+      start[diff[i] + 1]++;
+    for (int d = 0; d <= maxDiff; d++)
+      start[d + 1] += start[d];
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++)
+      order[start[diff[i]]++] = i;
+    return order;
+  }
+
   /**
    * Returns the phonetic code representing the word.
    * @param word The word we want the phonetic code.
@@ -344,4 +653,18 @@ public abstract class SpellDictionaryASpell implements SpellDictionary {
       return true;
     return false;
   }
+
+  /**
+   * Evaluates if the word held by a range of characters is correctly spelled
+   * against the dictionary, as {@link #isCorrect(String)} does. The word is
+   * copied into a String, dictionaries that can look it up in place without
+   * creating one override this.
+   * @param text The characters holding the word.
+   * @param start The index of the first character of the word.
+   * @param end The index after the last character of the word.
+   * @return Indicates if the word is present in the dictionary.
+   */
+  public boolean isCorrect(CharSequence text, int start, int end) {
+    return isCorrect(text.subSequence(start, end).toString());
+  }
 }
@@ -42,6 +42,9 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
   /** dictionary and phonetic file encoding */
   private String encoding = null;
 
+  /** Holds the dictionary file name, for fingerprinting */
+  private File wordListFile = null;
+
   /**
    * Dictionary convenience Constructor.
    * @param wordList The file containing the words list for the dictionary
@@ -54,6 +57,7 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
     throws FileNotFoundException, IOException {
     super((File) null);
     dictFile = new RandomAccessFile(wordList, "r");
+    wordListFile = wordList;
   }
 
   /**
@@ -70,6 +74,7 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
     super((File) null);
     this.encoding = encoding;
     dictFile = new RandomAccessFile(wordList, "r");
+    wordListFile = wordList;
   }
 
   /**
@@ -87,6 +92,7 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
     throws FileNotFoundException, IOException {
     super(phonetic);
     dictFile = new RandomAccessFile(wordList, "r");
+    wordListFile = wordList;
   }
   
   /**
@@ -106,6 +112,7 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
     super(phonetic, encoding);
     this.encoding = encoding;
     dictFile = new RandomAccessFile(wordList, "r");
+    wordListFile = wordList;
   }
   
   /**
@@ -117,6 +124,15 @@ public class SpellDictionaryDichoDisk extends SpellDictionaryASpell {
     System.err.println("error: addWord is not implemented for SpellDictionaryDichoDisk");
   }
 
+  /**
+   * Returns a fingerprint of the dictionary file, based on its path, length
+   * and modification time.
+   * @return the fingerprint of the dictionary file
+   */
+  protected String getContentFingerprint() {
+    return wordListFile.getAbsolutePath() + "," + wordListFile.length() + "," + wordListFile.lastModified();
+  }
+
   /**
     * Search the dictionary file for the words corresponding to the code
     * within positions p1 - p2
@@ -194,6 +194,22 @@ public class SpellDictionaryDisk extends SpellDictionaryASpell {
     return words;
   }
 
+  /**
+   * Returns a fingerprint of the words list files, based on their names,
+   * lengths and modification times.
+   * @return the fingerprint of the words list files
+   */
+  protected String getContentFingerprint() {
+    File[] wordFiles = words.listFiles();
+    if (wordFiles == null)
+      return null;
+    List names = new ArrayList();
+    for (int i = 0; i < wordFiles.length; i++)
+      names.add(wordFiles[i].getName() + "," + wordFiles[i].length() + "," + wordFiles[i].lastModified());
+    Collections.sort(names);
+    return words.getAbsolutePath() + names;
+  }
+
   /**
    * Indicates if the initial preparation or loading of the on disk dictionary
    * is complete.
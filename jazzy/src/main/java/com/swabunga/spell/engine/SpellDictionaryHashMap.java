@@ -27,6 +27,7 @@ package com.swabunga.spell.engine;
 import java.io.*;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Locale;
 import java.util.Vector;
 
 /**
@@ -56,6 +57,13 @@ public class SpellDictionaryHashMap extends SpellDictionaryASpell {
    */
   protected Hashtable mainDictionary = new Hashtable(INITIAL_CAPACITY);
 
+  /**
+   * The words of the main dictionary, which can be looked up in place.
+   * A word is always found under its own code, so the set tells if it is
+   * correct without computing the code.
+   */
+  private final WordSet words = new WordSet();
+
   /** Holds the dictionary file for appending*/
   private File dictFile = null;
 
@@ -246,6 +254,8 @@ public class SpellDictionaryHashMap extends SpellDictionaryASpell {
    */
   protected void putWord(String word) {
     String code = getCode(word);
+    addToFingerprint(word);
+    words.add(word);
     Vector list = (Vector) mainDictionary.get(code);
     if (list != null) {
       list.addElement(word);
@@ -278,11 +288,16 @@ public class SpellDictionaryHashMap extends SpellDictionaryASpell {
         }
       }
 
-      if (!isAlready)
+      if (!isAlready) {
         list.addElement(word);
+        addToFingerprint(word);
+        words.add(word);
+      }
 
     } else {
 
+      addToFingerprint(word);
+      words.add(word);
       list = new Vector();
       list.addElement(word);
       mainDictionary.put(code, list);
@@ -290,6 +305,24 @@ public class SpellDictionaryHashMap extends SpellDictionaryASpell {
     }
   }
 
+  /**
+   * Returns the fingerprint of the words held by the dictionary.
+   */
+  protected String getContentFingerprint() {
+    return getWordsFingerprint();
+  }
+
+  /**
+   * Returns a list of Word objects that are the suggestions to an incorrect
+   * word. An empty dictionary, such as the default user dictionary of a
+   * spell checker, has none, so the near miss codes are not even computed.
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions, int[][] matrix) {
+    if (mainDictionary.isEmpty())
+      return new Vector();
+    return super.getSuggestions(word, threshold, maxSuggestions, matrix);
+  }
+
   /**
    * Returns a list of strings (words) for the code.
    */
@@ -322,4 +355,34 @@ public class SpellDictionaryHashMap extends SpellDictionaryASpell {
     // rls System.out.println("## SpellDictionaryHashMap [lowercase] word: " + word + "  ; NOT FOUND"); //rls
     return false;
   }
+
+  /**
+   * Returns true if the word held by the range of characters is correctly
+   * spelled against the current word list, looking it up in place. The
+   * phonetic codes ignore case, so a word in lower case is found under the
+   * code of the word as given. Words that String.toLowerCase() may change
+   * differently from one character at a time are copied and checked as
+   * before.
+   */
+  public boolean isCorrect(CharSequence text, int start, int end) {
+    if (words.contains(text, start, end))
+      return true;
+    if (!lowerCasesAlone(text, start, end))
+      return isCorrect(text.subSequence(start, end).toString());
+    return words.containsLowerCase(text, start, end);
+  }
+
+  /**
+   * Indicates if the characters of a range change to lower case one at a
+   * time as they do within a String: ASCII letters, outside of the locales
+   * with a dotless i.
+   */
+  private static boolean lowerCasesAlone(CharSequence text, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (text.charAt(i) >= 128)
+        return false;
+    }
+    String language = Locale.getDefault().getLanguage();
+    return !language.equals("tr") && !language.equals("az");
+  }
 }
@@ -0,0 +1,85 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A list of suggested Word objects that knows if it was cut short.
+ * <p/>
+ * A dictionary returns such a list when the budget allowed for a single
+ * suggestion request ran out before every candidate could be scored. The
+ * list then holds the best suggestions found so far.
+ *
+ * @see SpellDictionaryASpell#setSuggestionBudget(int, long)
+ */
+public class SuggestionList extends ArrayList {
+
+  private static final long serialVersionUID = 1L;
+
+  private boolean truncated;
+
+  /**
+   * Constructs an empty SuggestionList.
+   * @param initialCapacity the initial capacity of the list
+   */
+  public SuggestionList(int initialCapacity) {
+    super(initialCapacity);
+  }
+
+  /**
+   * Constructs a SuggestionList holding the given suggestions.
+   * @param suggestions the Word objects of the list
+   * @param truncated true if the suggestions are not all the ones the
+   * dictionary could have found
+   */
+  public SuggestionList(Collection suggestions, boolean truncated) {
+    super(suggestions);
+    this.truncated = truncated;
+  }
+
+  /**
+   * Indicates if the list was cut short because the suggestion budget ran
+   * out.
+   * @return true if the list may miss some suggestions
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Flags the list as cut short, or not.
+   * @param truncated true if the list may miss some suggestions
+   */
+  public void setTruncated(boolean truncated) {
+    this.truncated = truncated;
+  }
+
+  /**
+   * Indicates if any list of suggestions was cut short.
+   * @param suggestions a list returned by a dictionary or a spell checker
+   * @return true if the list is a truncated SuggestionList
+   */
+  public static boolean isTruncated(List suggestions) {
+    return suggestions instanceof SuggestionList && ((SuggestionList) suggestions).isTruncated();
+  }
+}
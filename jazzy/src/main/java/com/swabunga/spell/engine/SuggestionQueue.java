@@ -0,0 +1,167 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the best scored suggestions of a single suggestion pass.
+ * <p/>
+ * When a capacity is given, only that many Word objects are kept in a
+ * bounded heap whose head is the worst retained suggestion. Words of equal
+ * cost keep the order in which they were offered, so the result is the same
+ * as the head of a stable sort of every offered word.
+ * <p/>
+ * A capacity of zero or less means no bound at all.
+ */
+final class SuggestionQueue {
+
+  private final int capacity;
+  private final PriorityQueue heap;
+  private int sequence = 0;
+
+  /**
+   * Orders the heap with the worst candidate at its head: highest cost
+   * first, and for equal costs the one offered last.
+   */
+  private static final Comparator WORST_FIRST = new Comparator() {
+    public int compare(Object o1, Object o2) {
+      Candidate c1 = (Candidate) o1;
+      Candidate c2 = (Candidate) o2;
+      if (c1.word.getCost() != c2.word.getCost())
+        return c1.word.getCost() > c2.word.getCost() ? -1 : 1;
+      return c1.sequence > c2.sequence ? -1 : (c1.sequence == c2.sequence ? 0 : 1);
+    }
+  };
+
+  /**
+   * Constructs a new SuggestionQueue
+   * @param capacity the maximum number of suggestions to retain, zero or
+   * less to retain all of them
+   */
+  SuggestionQueue(int capacity) {
+    this.capacity = capacity;
+    this.heap = new PriorityQueue(capacity > 0 ? capacity + 1 : 16, WORST_FIRST);
+  }
+
+  /**
+   * Indicates if the queue holds as many suggestions as it may retain.
+   * @return true if the queue is bounded and full
+   */
+  boolean isFull() {
+    return capacity > 0 && heap.size() >= capacity;
+  }
+
+  /**
+   * Indicates if a word with a cost of at least <code>lowerBound</code>,
+   * ranked at position <code>order</code> among equally scored words, could
+   * still make it into the queue.
+   * @param lowerBound the smallest cost the word can have
+   * @param order the rank of the word among equally scored words
+   * @return false if scoring the word is pointless
+   */
+  boolean accepts(int lowerBound, int order) {
+    if (!isFull())
+      return true;
+    Candidate worst = (Candidate) heap.peek();
+    if (lowerBound != worst.word.getCost())
+      return lowerBound < worst.word.getCost();
+    return order < worst.sequence;
+  }
+
+  /**
+   * Offers a word to the queue, evicting the worst retained one if the queue
+   * is full.
+   * @param word the scored suggestion
+   */
+  void offer(Word word) {
+    offer(word, sequence++);
+  }
+
+  /**
+   * Offers a word that was encountered at position <code>order</code> of
+   * the original candidate order. Used when candidates are scored in an
+   * order other than the one in which they should rank on equal cost.
+   * @param word the scored suggestion
+   * @param order the rank of the word among equally scored words
+   */
+  void offer(Word word, int order) {
+    heap.add(new Candidate(word, order));
+    if (capacity > 0 && heap.size() > capacity)
+      heap.poll();
+  }
+
+  /**
+   * Returns the cost of the worst retained word when the queue is full.
+   * @return the cost any new word has to beat, or
+   * <code>Integer.MAX_VALUE</code> while the queue is not full
+   */
+  int worstCost() {
+    if (!isFull())
+      return Integer.MAX_VALUE;
+    return ((Candidate) heap.peek()).word.getCost();
+  }
+
+  /**
+   * Returns the number of retained suggestions.
+   * @return the size of the queue
+   */
+  int size() {
+    return heap.size();
+  }
+
+  /**
+   * Drains the queue into a list sorted from the best to the worst
+   * suggestion.
+   * @param result the list that receives the Word objects
+   * @return the <code>result</code> list
+   */
+  List drainTo(List result) {
+    int size = heap.size();
+    Object[] ordered = new Object[size];
+    for (int i = size - 1; i >= 0; i--)
+      ordered[i] = ((Candidate) heap.poll()).word;
+    for (int i = 0; i < size; i++)
+      result.add(ordered[i]);
+    return result;
+  }
+
+  /**
+   * Drains the queue into a new list sorted from the best to the worst
+   * suggestion.
+   * @return the sorted suggestions
+   */
+  List drain() {
+    return drainTo(new ArrayList(heap.size()));
+  }
+
+  private static final class Candidate {
+    final Word word;
+    final int sequence;
+
+    Candidate(Word word, int sequence) {
+      this.word = word;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -75,6 +75,15 @@ public class Word implements Comparator {
       return(((Word)o).getWord().equals(getWord()));
     return false;
   }
+
+  /**
+   * Returns a hash code consistent with {@link #equals(Object)}, so that
+   * suggestions can be deduplicated through hash based collections.
+   * @return the hash code of the word text
+   */
+  public int hashCode() {
+    return getWord().hashCode();
+  }
   
   /**
    * gets suggested spelling
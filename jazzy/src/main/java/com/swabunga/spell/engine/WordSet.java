@@ -0,0 +1,165 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.engine;
+
+/**
+ * A set of words that can be probed with a range of characters, hashing
+ * and comparing them in place, so that no String is created for the word
+ * looked up. The hash codes are those of <code>String</code>.
+ * <p/>
+ * This class is thread safe. The words are added under a lock, but looked
+ * up without one, so that the threads checking a text in parallel do not
+ * wait for each other: a lookup made while a word is being added may not
+ * find that word yet.
+ */
+class WordSet {
+
+  /** Small, an empty user dictionary is created with every session */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The slots, replaced as a whole when they grow */
+  private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+  private int size = 0;
+
+  /** The words, in open addressing slots, with their hash codes */
+  private static final class Slots {
+    final String[] words;
+    final int[] hashes;
+
+    Slots(int capacity) {
+      words = new String[capacity];
+      hashes = new int[capacity];
+    }
+  }
+
+  /**
+   * Adds a word to the set, if it is not already there.
+   * @param word the word to add
+   */
+  public synchronized void add(String word) {
+    int hash = word.hashCode();
+    String[] words = slots.words;
+    int[] hashes = slots.hashes;
+    int mask = words.length - 1;
+    for (int slot = firstSlot(hash, mask); words[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && words[slot].equals(word))
+        return;
+    }
+    if (2 * (size + 1) > words.length)
+      grow();
+    put(slots, word, hash);
+    size++;
+  }
+
+  /**
+   * Indicates if the set holds the word in a range of characters.
+   * @param text the characters holding the word
+   * @param start the index of the first character of the word
+   * @param end the index after the last character of the word
+   * @return true if the word is in the set
+   */
+  public boolean contains(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++)
+      hash = 31 * hash + text.charAt(i);
+    Slots slots = this.slots;
+    String[] words = slots.words;
+    int[] hashes = slots.hashes;
+    int mask = words.length - 1;
+    for (int slot = firstSlot(hash, mask); words[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && matches(words[slot], text, start, end, false))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Indicates if the set holds the word in a range of characters, once
+   * changed to lower case one character at a time.
+   * @param text the characters holding the word
+   * @param start the index of the first character of the word
+   * @param end the index after the last character of the word
+   * @return true if the word in lower case is in the set
+   */
+  public boolean containsLowerCase(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++)
+      hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+    Slots slots = this.slots;
+    String[] words = slots.words;
+    int[] hashes = slots.hashes;
+    int mask = words.length - 1;
+    for (int slot = firstSlot(hash, mask); words[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && matches(words[slot], text, start, end, true))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of words in the set.
+   * @return the size of the set
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private static int firstSlot(int hash, int mask) {
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private static boolean matches(String word, CharSequence text, int start, int end, boolean lowerCase) {
+    if (word.length() != end - start)
+      return false;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (lowerCase)
+        c = Character.toLowerCase(c);
+      if (word.charAt(i - start) != c)
+        return false;
+    }
+    return true;
+  }
+
+  private void grow() {
+    Slots oldSlots = slots;
+    Slots newSlots = new Slots(2 * oldSlots.words.length);
+    for (int slot = 0; slot < oldSlots.words.length; slot++) {
+      if (oldSlots.words[slot] != null)
+        put(newSlots, oldSlots.words[slot], oldSlots.hashes[slot]);
+    }
+    slots = newSlots;
+  }
+
+  /**
+   * Puts a word in a free slot. The hash code is set before the word, for
+   * the lookups made meanwhile; one that still sees the word without it
+   * only misses that word.
+   */
+  private static void put(Slots slots, String word, int hash) {
+    String[] words = slots.words;
+    int mask = words.length - 1;
+    int slot = firstSlot(hash, mask);
+    while (words[slot] != null)
+      slot = (slot + 1) & mask;
+    slots.hashes[slot] = hash;
+    words[slot] = word;
+  }
+}
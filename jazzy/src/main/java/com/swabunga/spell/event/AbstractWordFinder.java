@@ -35,12 +35,32 @@ public abstract class AbstractWordFinder implements WordFinder {
   protected Word currentWord;
   /** The word following the current one */
   protected Word nextWord;
-  /** Indicate if the current word starts a new sentence */
+  /** Indicate if the current word starts a new sentence, once the
+   * sentences have been followed up to it */
   protected boolean startsSentence;
-  /** Holds the text to analyze */
+  /** Holds the text to analyze. The finders of this package read the
+   * characters instead, and leave it null once they differ from it */
   protected String text;
-  /** An iterator to work through the sentence */
+  /** Holds the characters to analyze, edited in place once words are
+   * replaced */
+  CharSequence chars;
+  /** An iterator to work through the sentence, created when first needed
+   * and kept when the text changes */
   protected BreakIterator sentenceIterator;
+  /** The text once words have been replaced */
+  private PieceTable pieces;
+  /** Indicates if the text must follow the characters, for subclasses
+   * outside this package which may read it */
+  private final boolean keepsText = !isOwnFinder(getClass());
+
+  /** The maximum number of words whose sentence starts can be pending */
+  private static final int MAX_PENDING_WORDS = 1024;
+  /** The start and end of the words found since the sentences were last
+   * followed */
+  private int[] pendingWords = new int[64];
+  private int pendingCount = 0;
+  /** Indicates if the sentence iterator works on the current text */
+  private boolean sentenceTextSet = false;
 
   //~ Constructors ..........................................................
 
@@ -51,6 +71,7 @@ public abstract class AbstractWordFinder implements WordFinder {
    */
   public AbstractWordFinder(String inText) {
     text = inText;
+    chars = inText;
     setup();
   }
 
@@ -59,6 +80,7 @@ public abstract class AbstractWordFinder implements WordFinder {
    */
   public AbstractWordFinder() {
     text = "";
+    chars = text;
     setup();
   }
   //~ Methods ...............................................................
@@ -79,7 +101,7 @@ public abstract class AbstractWordFinder implements WordFinder {
    */
   public String getText() {
 
-    return text;
+    return chars.toString();
   }
   
   /**
@@ -88,6 +110,18 @@ public abstract class AbstractWordFinder implements WordFinder {
    */
   public void setText(String newText) {
     text = newText;
+    chars = newText;
+    setup();
+  }
+
+  /**
+   * Defines the text to search as characters held elsewhere, such as the
+   * bytes of a mapped file, which must not change while they are searched.
+   * @param newText The text to be analyzed
+   */
+  public void setText(CharSequence newText) {
+    chars = newText;
+    text = keepsText ? newText.toString() : null;
     setup();
   }
 
@@ -128,18 +162,25 @@ public abstract class AbstractWordFinder implements WordFinder {
       throw new WordNotFoundException("No Words in current String");
     }
 
-    StringBuffer sb = new StringBuffer(text.substring(0, currentWord.getStart()));
-    sb.append(newWord);
-    sb.append(text.substring(currentWord.getEnd()));
-    int diff = newWord.length() - currentWord.getText().length();
+    followSentences();
+    // the next word may still refer to the characters about to change
+    if (nextWord != null)
+      nextWord.getText();
+    if (pieces == null) {
+      pieces = new PieceTable(chars.toString());
+      chars = pieces;
+    }
+    pieces.replace(currentWord.getStart(), currentWord.getEnd(), newWord);
+    text = keepsText ? pieces.toString() : null;
+    int diff = newWord.length() - currentWord.length();
     currentWord.setText(newWord);
     /* Added Conditional to ensure a NullPointerException is avoided (11 Feb 2003) */
     if (nextWord != null) {
       nextWord.setStart(nextWord.getStart() + diff);
     }
-    text = sb.toString();
 
-    sentenceIterator.setText(text);
+    // The iterator reads the pieces, and only looks around the word
+    sentenceIterator.setText(pieces.getCharacterIterator());
     int start = currentWord.getStart();
     sentenceIterator.following(start);
     startsSentence = sentenceIterator.current() == start;
@@ -156,6 +197,7 @@ public abstract class AbstractWordFinder implements WordFinder {
       throw new WordNotFoundException("No Words in current String");
     }
 
+    followSentences();
     return startsSentence;
   }
 
@@ -167,26 +209,81 @@ public abstract class AbstractWordFinder implements WordFinder {
    */
   public String toString() {
 
-    return text;
+    return chars.toString();
+  }
+
+  /**
+   * Returns a part of the text being searched.
+   *
+   * @param start the position of the first character.
+   * @param end the position after the last character.
+   * @return the characters between the two positions.
+   */
+  protected String substring(int start, int end) {
+
+    return chars.subSequence(start, end).toString();
   }
 
   /**
    * Adjusts the sentence iterator and the startSentence flag according to the
-   * currentWord.
+   * currentWord. The sentences are only followed when a caller asks if a
+   * word starts one, until then the words are noted.
    * @param wd the wd parameter is not presently used.
    */
   protected void setSentenceIterator(Word wd) {
-    int current = sentenceIterator.current();
+    if (pendingCount == pendingWords.length) {
+      if (pendingCount == 2 * MAX_PENDING_WORDS) {
+        followSentences();
+      } else {
+        int[] newPendingWords = new int[pendingCount * 2];
+        System.arraycopy(pendingWords, 0, newPendingWords, 0, pendingCount);
+        pendingWords = newPendingWords;
+      }
+    }
+    pendingWords[pendingCount++] = currentWord.getStart();
+    pendingWords[pendingCount++] = currentWord.getEnd();
+  }
+
+  /**
+   * Moves the sentence iterator over the words noted since it was last
+   * moved, and sets the startSentence flag for the last of them.
+   */
+  private void followSentences() {
+    if (!sentenceTextSet) {
+      if (sentenceIterator == null)
+        sentenceIterator = BreakIterator.getSentenceInstance();
+      if (pieces != null)
+        sentenceIterator.setText(pieces.getCharacterIterator());
+      else
+        sentenceIterator.setText(chars.toString());
+      sentenceTextSet = true;
+    }
+
+    for (int i = 0; i < pendingCount; i += 2) {
+      int current = sentenceIterator.current();
 
-    if (current == currentWord.getStart())
-      startsSentence = true;
-    else {
-      startsSentence = false;
+      if (current == pendingWords[i])
+        startsSentence = true;
+      else {
+        startsSentence = false;
 
-      if (currentWord.getEnd() > current) {
-        sentenceIterator.next();
+        if (pendingWords[i + 1] > current) {
+          sentenceIterator.next();
+        }
       }
     }
+    pendingCount = 0;
+  }
+
+  /**
+   * Indicates if the sentence iterator, once it has followed the words
+   * found so far, is at the end of the text. The sentence starts of the
+   * words of a following text are then found as if it was on its own.
+   * @return true if the sentences have been followed to the end.
+   */
+  boolean followsSentencesToEnd() {
+    followSentences();
+    return sentenceIterator.current() == chars.length();
   }
 
   /**
@@ -201,14 +298,14 @@ public abstract class AbstractWordFinder implements WordFinder {
   protected boolean isWordChar(int posn) {
     boolean out = false;
 
-    char curr = text.charAt(posn);
+    char curr = chars.charAt(posn);
 
-    if ((posn == 0) || (posn == text.length() - 1)) {
+    if ((posn == 0) || (posn == chars.length() - 1)) {
       return Character.isLetterOrDigit(curr);
     }
 
-    char prev = text.charAt(posn - 1);
-    char next = text.charAt(posn + 1);
+    char prev = chars.charAt(posn - 1);
+    char next = chars.charAt(posn + 1);
 
 
     switch (curr) {
@@ -292,13 +389,13 @@ public abstract class AbstractWordFinder implements WordFinder {
   protected int ignore(int index, Character startIgnore, Character endIgnore) {
     int newIndex = index;
 
-    if (newIndex < text.length()) {
-      Character curChar = new Character(text.charAt(newIndex));
+    if (newIndex < chars.length()) {
+      Character curChar = new Character(chars.charAt(newIndex));
 
       if (curChar.equals(startIgnore)) {
         newIndex++;
-        while (newIndex < text.length()) {
-          curChar = new Character(text.charAt(newIndex));
+        while (newIndex < chars.length()) {
+          curChar = new Character(chars.charAt(newIndex));
           if (endIgnore != null && curChar.equals(endIgnore)){
             newIndex++;
             break;
@@ -329,24 +426,24 @@ public abstract class AbstractWordFinder implements WordFinder {
 
     //{{{
     int newIndex = index;
-    int len = text.length();
+    int len = chars.length();
     int slen = startIgnore.length();
     int elen = endIgnore.length();
 
     if (!((newIndex + slen) >= len)) {
-      String seg = text.substring(newIndex, newIndex + slen);
+      String seg = substring(newIndex, newIndex + slen);
 
       //            System.out.println(seg + ":" + seg.length()+ ":" + startIgnore + ":" + slen);
       if (seg.equals(startIgnore)) {
         newIndex += slen;
         cycle:          while (true) {
 
-          if (newIndex == (text.length() - elen)) {
+          if (newIndex == (chars.length() - elen)) {
 
             break cycle;
           }
 
-          String ss = text.substring(newIndex, newIndex + elen);
+          String ss = substring(newIndex, newIndex + elen);
 
           if (ss.equals(endIgnore)) {
             newIndex += elen;
@@ -363,17 +460,30 @@ public abstract class AbstractWordFinder implements WordFinder {
   } //}}}
 
   /**
-   * Initializes the sentenseIterator
+   * Indicates if a finder class belongs to this package, whose finders read
+   * the characters rather than the text.
+   */
+  private static boolean isOwnFinder(Class finderClass) {
+    String name = finderClass.getName();
+    String own = AbstractWordFinder.class.getName();
+    int dot = own.lastIndexOf('.');
+    return name.lastIndexOf('.') == dot && name.regionMatches(0, own, 0, dot);
+  }
+
+  /**
+   * Initializes the sentenseIterator, which is given the text only when a
+   * caller asks if a word starts a sentence
    */
   protected void init() {
-    sentenceIterator = BreakIterator.getSentenceInstance();
-    sentenceIterator.setText(text);
+    sentenceTextSet = false;
+    pendingCount = 0;
   }
   
   /**
    * Defines the starting positions for text analysis
    */
   private void setup() {
+    pieces = null;
     currentWord = new Word("", 0);
     nextWord = new Word("", 0);
     startsSentence = true;
@@ -33,7 +33,7 @@ import java.text.BreakIterator;
  * @author Jason Height(jheight@chariot.net.au)
  * @author Anthony Roy  (ajr@antroy.co.uk)
  */
-public abstract class AbstractWordTokenizer implements WordTokenizer {
+public abstract class AbstractWordTokenizer implements WordRangeTokenizer {
 
   //~ Instance/static variables ...............................................
 
@@ -132,6 +132,73 @@ public abstract class AbstractWordTokenizer implements WordTokenizer {
     return currentWord.getText();
   }
 
+  /**
+   * Moves to the next word in the text, without creating its String.
+   *
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public void nextRange() {
+    currentWord = finder.next();
+  }
+
+  /**
+   * Returns the text searched by the word finder, in which the range of the
+   * current word is given.
+   *
+   * @return the text being tokenized.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public CharSequence getRangeText() {
+
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+
+    return finder.getText();
+  }
+
+  /**
+   * Returns the index of the start of the current word in the text
+   *
+   * @return index in string of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeStart() {
+
+    return getCurrentWordPosition();
+  }
+
+  /**
+   * Returns the end of the current word in the text
+   *
+   * @return index in string of the end of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeEnd() {
+
+    return getCurrentWordEnd();
+  }
+
+  /**
+   * Restarts the tokenizer on a new text, reusing its word finder, so
+   * that a tokenizer can check many short texts one after the other.
+   *
+   * @param text the text to process.
+   */
+  public void setText(String text) {
+    finder.setText(text);
+    currentWord = null;
+    wordCount = 0;
+  }
+
+  /**
+   * Restarts the tokenizer from the start of its text, including any
+   * changes that have been made.
+   */
+  public void reset() {
+    setText(finder.getText());
+  }
+
   /**
    * Replaces the current word token
    *
@@ -30,6 +30,14 @@ class BasicSpellCheckEvent implements SpellCheckEvent {
 
   /**The list holding the suggested Word objects for the misspelt word*/
   private List suggestions;
+  /**The session computing the suggestions on demand, null once they are known*/
+  private SpellCheckSession checker;
+  /**The cost value above which suggestions are thrown away*/
+  private int threshold;
+  /**The maximum number of suggestions, zero or less for no limit*/
+  private int maxSuggestions;
+  /**Indicates if the suggestions are to be capitalized*/
+  private boolean capitalize;
   /**The misspelt word*/
   private String invalidWord;
   /**The action to be done when the event returns*/
@@ -54,10 +62,34 @@ class BasicSpellCheckEvent implements SpellCheckEvent {
     this.startPosition = tokenizer.getCurrentWordPosition();
   }
 
-  /** Returns the list of suggested Word objects
+  /**Constructs the SpellCheckEvent with suggestions that are only computed
+   * the first time a listener asks for them.
+   * @param invalidWord The word that is misspelt
+   * @param checker The session that computes the suggestions
+   * @param threshold The cost value above which suggestions are thrown away
+   * @param maxSuggestions The maximum number of suggestions, zero or less
+   * for no limit
+   * @param capitalize Indicates if the suggestions are to be capitalized
+   * @param tokenizer The reference to the tokenizer that caused this
+   * event to fire.
+   */
+  public BasicSpellCheckEvent(String invalidWord, SpellCheckSession checker, int threshold, int maxSuggestions, boolean capitalize, WordTokenizer tokenizer) {
+    this(invalidWord, (List) null, tokenizer);
+    this.checker = checker;
+    this.threshold = threshold;
+    this.maxSuggestions = maxSuggestions;
+    this.capitalize = capitalize;
+  }
+
+  /** Returns the list of suggested Word objects. When the event was
+   * constructed without them, they are computed on the first call.
    * @return A list of words phonetically close to the misspelt word
    */
   public List getSuggestions() {
+    if (checker != null) {
+      suggestions = checker.getSuggestions(invalidWord, threshold, maxSuggestions, capitalize);
+      checker = null;
+    }
     return suggestions;
   }
 
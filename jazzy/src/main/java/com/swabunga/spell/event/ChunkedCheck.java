@@ -0,0 +1,239 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.text.BreakIterator;
+
+
+/**
+ * Checks a long text on several threads. The text is cut into chunks at
+ * sentence boundaries that follow a space, the threads check the chunks
+ * as they come with one word finder each, and the errors are passed to
+ * the sink in text order once all the chunks are checked.
+ * <p/>
+ * Words are never cut, but the sentence iterator of the whole text may
+ * not be at the start of a chunk when it gets there: it moves on one
+ * boundary per word, and lags behind after a sentence without words. When
+ * the sentence starts matter to the check, a chunk following one whose
+ * iterator did not reach its end is checked again, with the chunks before
+ * it since the last one in step.
+ *
+ * @see SpellCheckSession#checkSpelling(String, WordFinder[], SpellingErrorSink, int)
+ */
+class ChunkedCheck {
+
+  //~ Instance/static variables ...............................................
+
+  /** The number of characters after which a chunk is cut, by default */
+  static final int CHUNK_SIZE = 64 * 1024;
+
+  private final SpellCheckSession session;
+  private final String text;
+  private final int options;
+  /** True if the check asks the tokenizer for the sentence starts */
+  private final boolean sentences;
+  /** The start of each chunk, followed by the length of the text */
+  private final int[] cuts;
+  private final Result[] results;
+  private int nextChunk = 0;
+  private Throwable failure;
+
+  /** The outcome of the check of some chunks */
+  private static class Result {
+    SpellingErrorBuffer errors = new SpellingErrorBuffer();
+    /** The number of errors, including the words replaced */
+    int count;
+    /** The change of length of the chunks from the words replaced */
+    int delta;
+    /** True if the chunk after these can be checked on its own */
+    boolean inStep;
+  }
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new ChunkedCheck object.
+   *
+   * @param session the session checking the text
+   * @param text the text to check
+   * @param options the options of the check
+   * @param sentences true if the check asks for the sentence starts
+   * @param chunkSize the number of characters after which a chunk is cut
+   */
+  ChunkedCheck(SpellCheckSession session, String text, int options, boolean sentences, int chunkSize) {
+    this.session = session;
+    this.text = text;
+    this.options = options;
+    this.sentences = sentences;
+    this.cuts = cut(text, chunkSize);
+    this.results = new Result[cuts.length - 1];
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Finds the chunks of a text: each ends at the first sentence boundary
+   * following a space after chunkSize characters.
+   *
+   * @param text the text to cut
+   * @param chunkSize the number of characters after which a chunk is cut
+   * @return the start of each chunk, followed by the length of the text
+   */
+  private static int[] cut(String text, int chunkSize) {
+    int[] cuts = new int[text.length() / chunkSize + 2];
+    int count = 1;
+    BreakIterator sentenceIterator = BreakIterator.getSentenceInstance();
+    sentenceIterator.setText(text);
+    int boundary = 0;
+    while (text.length() - boundary > chunkSize) {
+      boundary = sentenceIterator.following(boundary + chunkSize);
+      while (boundary != BreakIterator.DONE && boundary < text.length()
+             && !Character.isWhitespace(text.charAt(boundary - 1)))
+        boundary = sentenceIterator.next();
+      if (boundary == BreakIterator.DONE || boundary >= text.length())
+        break;
+      cuts[count++] = boundary;
+    }
+    cuts[count++] = text.length();
+    int[] trimmed = new int[count];
+    System.arraycopy(cuts, 0, trimmed, 0, count);
+    return trimmed;
+  }
+
+  /**
+   * Checks the text, passing its errors to the sink.
+   *
+   * @param finders one finder for each thread
+   * @param sink receives the errors
+   * @return the number of errors found
+   */
+  int check(WordFinder[] finders, SpellingErrorSink sink) {
+    Thread[] threads = new Thread[finders.length - 1];
+    for (int i = 0; i < threads.length; i++) {
+      final WordFinder finder = finders[i + 1];
+      threads[i] = new Thread("SpellCheck-" + (i + 1)) {
+        public void run() {
+          checkChunks(finder);
+        }
+      };
+      threads[i].start();
+    }
+    checkChunks(finders[0]);
+    for (int i = 0; i < threads.length; i++) {
+      try {
+        threads[i].join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("interrupted while checking", e);
+      }
+    }
+    if (failure instanceof RuntimeException)
+      throw (RuntimeException) failure;
+    if (failure instanceof Error)
+      throw (Error) failure;
+    return merge(finders[0], sink);
+  }
+
+  /**
+   * Checks the chunks not taken by another thread yet.
+   *
+   * @param finder the finder of the thread
+   */
+  private void checkChunks(WordFinder finder) {
+    try {
+      for (int chunk = takeChunk(); chunk != -1; chunk = takeChunk())
+        results[chunk] = check(finder, cuts[chunk], cuts[chunk + 1]);
+    } catch (Throwable e) {
+      fail(e);
+    }
+  }
+
+  private synchronized int takeChunk() {
+    if (failure != null || nextChunk == results.length)
+      return -1;
+    return nextChunk++;
+  }
+
+  private synchronized void fail(Throwable e) {
+    if (failure == null)
+      failure = e;
+  }
+
+  /**
+   * Checks a part of the text on its own.
+   *
+   * @param finder the finder to use
+   * @param start the start of the part
+   * @param end the end of the part
+   * @return the errors of the part
+   */
+  private Result check(WordFinder finder, int start, int end) {
+    Result result = new Result();
+    String part = text.substring(start, end);
+    StringWordTokenizer tokenizer = new StringWordTokenizer(part, finder);
+    result.count = session.checkSpelling(tokenizer, result.errors, options);
+    if ((options & SpellChecker.AUTO_REPLACE) != 0)
+      result.delta = tokenizer.getContext().length() - part.length();
+    result.inStep = !sentences ||
+      (finder instanceof AbstractWordFinder && ((AbstractWordFinder) finder).followsSentencesToEnd());
+    return result;
+  }
+
+  /**
+   * Passes the errors of the chunks to the sink, checking again the chunks
+   * that follow one out of step.
+   *
+   * @param finder the finder to check again with
+   * @param sink receives the errors
+   * @return the number of errors found
+   */
+  private int merge(WordFinder finder, SpellingErrorSink sink) {
+    int count = 0;
+    int shift = 0;
+    int runStart = 0;
+    Result run = results[0];
+    for (int chunk = 1; chunk < results.length; chunk++) {
+      if (run.inStep) {
+        count += pass(run, cuts[runStart] + shift, sink);
+        shift += run.delta;
+        runStart = chunk;
+        run = results[chunk];
+      } else
+        run = check(finder, cuts[runStart], cuts[chunk + 1]);
+    }
+    return count + pass(run, cuts[runStart] + shift, sink);
+  }
+
+  /**
+   * Passes the errors of some chunks to the sink.
+   *
+   * @param run the errors of the chunks
+   * @param offset the offset of the first chunk, words replaced before it
+   * included
+   * @param sink receives the errors
+   * @return the number of errors of the chunks
+   */
+  private static int pass(Result run, int offset, SpellingErrorSink sink) {
+    SpellingErrorBuffer errors = run.errors;
+    for (int i = 0; i < errors.size(); i++)
+      sink.spellingError(errors.getKind(i), offset + errors.getOffset(i), errors.getLength(i), errors.getWord(i));
+    return run.count;
+  }
+}
@@ -21,6 +21,13 @@ package com.swabunga.spell.event;
 
 /**
  * A basic word finder, which searches text for sequences of letters.
+ *
+ * <p>
+ * The text is scanned once, forward, each character being classified
+ * through a table for the ASCII range. A word is a sequence of letters or
+ * digits, possibly joined by one of <code>' @ . _</code>; a word starting
+ * with an Internet address prefix extends to the next space.
+ * </p>
  * 
  * @author Anthony Roy  (ajr@antroy.co.uk)
  */
@@ -28,6 +35,32 @@ public class DefaultWordFinder extends AbstractWordFinder {
 
   //~ Instance/static variables ...............................................
 
+  private static final byte OTHER = 0;
+  private static final byte LETTER_OR_DIGIT = 1;
+  /** The characters joining letters or digits in a word */
+  private static final byte JOINER = 2;
+  private static final byte SPACE = 3;
+  private static final byte LINE_END = 4;
+
+  /** The class of each ASCII character */
+  private static final byte[] ASCII_CLASSES = new byte[128];
+
+  /** The prefixes of the Internet addresses, in lower case */
+  private static final String[] INTERNET_PREFIXES = {"http://", "www.", "ftp://", "https://", "ftps://"};
+
+  static {
+    for (char c = 0; c < ASCII_CLASSES.length; c++) {
+      if (Character.isLetterOrDigit(c))
+        ASCII_CLASSES[c] = LETTER_OR_DIGIT;
+      else if (c == '\'' || c == '@' || c == '.' || c == '_')
+        ASCII_CLASSES[c] = JOINER;
+      else if (c == '\r' || c == '\n')
+        ASCII_CLASSES[c] = LINE_END;
+      else if (Character.isSpaceChar(c))
+        ASCII_CLASSES[c] = SPACE;
+    }
+  }
+
   //~ Constructors ............................................................
 
   /**
@@ -62,55 +95,119 @@ public class DefaultWordFinder extends AbstractWordFinder {
     currentWord.copy(nextWord);
     setSentenceIterator(currentWord);
 
+    int length = chars.length();
     int i = currentWord.getEnd();
-    boolean finished = false;
-
-    while (i < text.length() && !finished) {
-      if (isWordChar(i)) {
-        nextWord.setStart(i);
-        int end = getNextWordEnd(text, i);
-        nextWord.setText(text.substring(i, end));
-        finished = true;
+    boolean previousIsLetterOrDigit = i > 0 && classOf(chars.charAt(i - 1)) == LETTER_OR_DIGIT;
+
+    while (i < length) {
+      byte type = classOf(chars.charAt(i));
+      if (type == LETTER_OR_DIGIT || (type == JOINER && isJoining(i, length, previousIsLetterOrDigit))) {
+        nextWord.setText(chars, i, getNextWordEnd(i, length));
+        return currentWord;
       }
-      i++;
+      previousIsLetterOrDigit = false;
+      int end = type == OTHER ? skipIgnored(i) : i;
+      i = end > i ? end : i + 1;
     }
-    if (!finished)
-      nextWord = null;
+    nextWord = null;
 
     return currentWord;
   }
 
+  /**
+   * Skips the text to ignore starting at a position between words, such as
+   * markup. Only called at characters that are neither letters, digits,
+   * joiners nor spaces. This finder ignores nothing.
+   *
+   * @param index the position in the text
+   * @return the position after the text ignored, <code>index</code> if none
+   */
+  protected int skipIgnored(int index) {
+    return index;
+  }
+
   /**
    * Returns the position in the string <em>after</em> the end of the next word.
    * Note that this return value should not be used as an index into the string
    * without checking first that it is in range, since it is possible for the
    * value <code>text.length()</code> to be returned by this method.
    */
-  private int getNextWordEnd(String text, int startPos) {
+  private int getNextWordEnd(int startPos, int length) {
+    boolean previousIsLetterOrDigit = startPos > 0 && classOf(chars.charAt(startPos - 1)) == LETTER_OR_DIGIT;
+
     // If we're dealing with a possible 'internet word' we need to provide
     // some special handling
-    if (SpellChecker.isINETWord(text.substring(startPos))) {
-      for (int i = startPos; i < text.length(); i++) {
-        char ch = text.charAt(i);
-        if (Character.isLetterOrDigit(ch))
+    if (startsInternetAddress(startPos, length)) {
+      for (int i = startPos; i < length; i++) {
+        byte type = classOf(chars.charAt(i));
+        if (type == LETTER_OR_DIGIT) {
+          previousIsLetterOrDigit = true;
           continue;
+        }
 
-        if (ch == '\r' || ch == '\n')
+        if (type == LINE_END)
           return i;
         // Chop off any characters that might be enclosing the 'internet word'. eg ',",),]
-        if (Character.isSpaceChar(ch))
-          if (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1)))
+        if (type == SPACE)
+          if (previousIsLetterOrDigit)
             return i;
           else
             return i - 1;
+        previousIsLetterOrDigit = false;
       }
-      return text.length();
+      return length;
     } else {
-      for (int i = startPos; i < text.length(); i++) {
-        if (!isWordChar(i))
+      for (int i = startPos; i < length; i++) {
+        byte type = classOf(chars.charAt(i));
+        if (type == LETTER_OR_DIGIT)
+          previousIsLetterOrDigit = true;
+        else if (type == JOINER && isJoining(i, length, previousIsLetterOrDigit))
+          previousIsLetterOrDigit = false;
+        else
           return i;
       }
-      return text.length();
+      return length;
+    }
+  }
+
+  /**
+   * Indicates if the joiner at the given position is part of a word, being
+   * between a letter or digit and another.
+   */
+  private boolean isJoining(int posn, int length, boolean previousIsLetterOrDigit) {
+    return previousIsLetterOrDigit && posn < length - 1
+      && classOf(chars.charAt(posn + 1)) == LETTER_OR_DIGIT;
+  }
+
+  /**
+   * Indicates if the text at the given position starts with the prefix of
+   * an Internet address, as {@link SpellChecker#isINETWord(String)} does,
+   * without copying it.
+   */
+  private boolean startsInternetAddress(int startPos, int length) {
+    search:
+    for (int p = 0; p < INTERNET_PREFIXES.length; p++) {
+      String prefix = INTERNET_PREFIXES[p];
+      if (startPos + prefix.length() > length)
+        continue;
+      for (int k = 0; k < prefix.length(); k++) {
+        if (Character.toLowerCase(chars.charAt(startPos + k)) != prefix.charAt(k))
+          continue search;
+      }
+      return true;
     }
+    return false;
+  }
+
+  /**
+   * Returns the class of a character: letter or digit, joiner, space, end
+   * of line or other.
+   */
+  private static byte classOf(char c) {
+    if (c < ASCII_CLASSES.length)
+      return ASCII_CLASSES[c];
+    if (Character.isLetterOrDigit(c))
+      return LETTER_OR_DIGIT;
+    return Character.isSpaceChar(c) ? SPACE : OTHER;
   }
 }
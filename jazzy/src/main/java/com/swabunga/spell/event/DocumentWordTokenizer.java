@@ -33,7 +33,7 @@ import java.text.BreakIterator;
  *
  * @author Jason Height (jheight@chariot.net.au)
  */
-public class DocumentWordTokenizer implements WordTokenizer {
+public class DocumentWordTokenizer implements WordRangeTokenizer {
   /** Holds the start character position of the current word*/
   private int currentWordPos = 0;
   /** Holds the end character position of the current word*/
@@ -173,6 +173,21 @@ public class DocumentWordTokenizer implements WordTokenizer {
    * @return the next word in the iteration.
    */
   public String nextWord() {
+    nextRange();
+    String word = null;
+    try {
+      word = document.getText(currentWordPos, currentWordEnd - currentWordPos);
+    } catch (BadLocationException ex) {
+      moreTokens = false;
+    }
+    return word;
+  }
+
+  /**
+   * Moves to the next word in the document, without copying it out of the
+   * segment.
+   */
+  public void nextRange() {
     if (!first) {
       currentWordPos = nextWordPos;
       currentWordEnd = getNextWordEnd(text, currentWordPos);
@@ -187,17 +202,34 @@ public class DocumentWordTokenizer implements WordTokenizer {
         sentenceIterator.next();
     }
     //The nextWordPos has already been populated
-    String word = null;
-    try {
-      word = document.getText(currentWordPos, currentWordEnd - currentWordPos);
-    } catch (BadLocationException ex) {
-      moreTokens = false;
-    }
     wordCount++;
     first = false;
     if (nextWordPos == -1)
       moreTokens = false;
-    return word;
+  }
+
+  /**
+   * Returns the segment of the document holding the current word.
+   * @return the characters of the document, including changes.
+   */
+  public CharSequence getRangeText() {
+    return text;
+  }
+
+  /**
+   * Returns the start of the current word in the segment.
+   * @return index in the segment of the start of the current word.
+   */
+  public int getRangeStart() {
+    return currentWordPos - text.getBeginIndex();
+  }
+
+  /**
+   * Returns the end of the current word in the segment.
+   * @return index in the segment of the end of the current word.
+   */
+  public int getRangeEnd() {
+    return currentWordEnd - text.getBeginIndex();
   }
 
   /**
@@ -0,0 +1,119 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * A word finder driven by a {@link WordGrammar}, which searches text for
+ * the words the grammar describes, skipping its regions.
+ *
+ * <p>
+ * The text is scanned once, forward: the grammar, compiled when the finder
+ * is created, classifies each character and finds the markers and ends of
+ * the regions through its tables. Unlike {@link DefaultWordFinder}, a word
+ * starting with an Internet address prefix is not extended to the next
+ * space; a grammar may skip such addresses instead.
+ * </p>
+ */
+public class GrammarWordFinder extends AbstractWordFinder {
+
+  //~ Instance/static variables ...............................................
+
+  /** The compiled grammar. Set after the super constructor, which searches
+   * an empty text */
+  private WordGrammar grammar;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new GrammarWordFinder object.
+   *
+   * @param grammar the grammar of the words
+   * @param inText the String to search
+   */
+  public GrammarWordFinder(WordGrammar grammar, String inText) {
+    this(grammar);
+    setText(inText);
+  }
+
+  /**
+   * Creates a new GrammarWordFinder object.
+   *
+   * @param grammar the grammar of the words
+   */
+  public GrammarWordFinder(WordGrammar grammar) {
+    super();
+    if (grammar == null)
+      throw new IllegalArgumentException("grammar must be non-null");
+    this.grammar = grammar.compile();
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * This method scans the text from the end of the last word,  and returns a
+   * new Word object corresponding to the next word.
+   * 
+   * @return the next word.
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public Word next() {
+    if (nextWord == null) {
+      throw new WordNotFoundException("No more words found.");
+    }
+    currentWord.copy(nextWord);
+    setSentenceIterator(currentWord);
+
+    int length = chars.length();
+    int i = currentWord.getEnd();
+    while (i < length) {
+      int end = grammar.skip(chars, i, length);
+      if (end > i) {
+        i = end;
+        continue;
+      }
+      if (grammar.classOf(chars.charAt(i)) == WordGrammar.WORD) {
+        nextWord.setText(chars, i, getNextWordEnd(i + 1, length));
+        return currentWord;
+      }
+      i++;
+    }
+    nextWord = null;
+
+    return currentWord;
+  }
+
+  /**
+   * Returns the position in the string <em>after</em> the end of the word
+   * going on at the given position.
+   */
+  private int getNextWordEnd(int i, int length) {
+    for (; i < length; i++) {
+      byte type = grammar.classOf(chars.charAt(i));
+      if (type == WordGrammar.JOINER) {
+        // a joiner is only part of a word between two word characters
+        if (i + 1 >= length || grammar.classOf(chars.charAt(i + 1)) != WordGrammar.WORD)
+          return i;
+      } else if (type != WordGrammar.WORD) {
+        return i;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,447 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+import java.text.BreakIterator;
+
+
+/**
+ * This class tokenizes a range of a swing document model, without copying the
+ * document. The characters are read a window at a time through partial-return
+ * segments of {@link Document#getText(int, int, Segment)}, so that the work
+ * done is proportional to the range being tokenized and not to the size of
+ * the document.
+ * <p/>
+ * The tokenizer can be kept across edits of the document: registered as a
+ * {@link DocumentListener} of the document (or given its events by a listener
+ * that is), it shifts the current word, the range and its own position in
+ * the text by the inserted or removed characters. It can then be moved to
+ * the next edited range with {@link #setRange(int, int)}.
+ * <p/>
+ * Words are found as with {@link DocumentWordTokenizer}: letters and digits,
+ * with '-' and '\'' inside them.
+ */
+public class IncrementalDocumentWordTokenizer implements WordRangeTokenizer, DocumentListener {
+  /** The number of characters read at a time from the document */
+  private static final int WINDOW_SIZE = 1024;
+  /** The number of characters around a word considered to find whether it starts a sentence */
+  private static final int SENTENCE_CONTEXT = 64;
+
+  /** The document that is being tokenized */
+  private Document document;
+  /** The last characters read from the document */
+  private Segment window = new Segment();
+  /** The position in the document of the first character of the window */
+  private int windowStart = 0;
+  /** The position in the document after the last character of the window */
+  private int windowEnd = 0;
+  /** Holds the start character position of the current word */
+  private int currentWordPos = -1;
+  /** Holds the end character position of the current word */
+  private int currentWordEnd = -1;
+  /** The position from which the next word is searched */
+  private int position = 0;
+  /** The start of the next word, if already found */
+  private int nextWordPos = -1;
+  /** Whether the next word has already been searched for from position */
+  private boolean nextKnown = false;
+  /** The start of the range being tokenized */
+  private int rangeStart = 0;
+  /** The end of the range being tokenized, or -1 for the end of the document */
+  private int rangeEnd = -1;
+  /** The cumulative word count that have been processed */
+  private int wordCount = 0;
+  /** Set while the tokenizer edits the document itself in replaceWord */
+  private boolean replacing = false;
+  private BreakIterator sentenceIterator;
+  private Segment sentenceText;
+
+  /**
+   * Creates a new IncrementalDocumentWordTokenizer to work on a whole document.
+   * @param document The document to spell check
+   */
+  public IncrementalDocumentWordTokenizer(Document document) {
+    this.document = document;
+    window.setPartialReturn(true);
+  }
+
+  /**
+   * Creates a new IncrementalDocumentWordTokenizer to work on the words of a
+   * document between two positions.
+   * @param document The document to spell check
+   * @param start the position of the first character to check
+   * @param end the position after the last character to check
+   * @see #setRange(int, int)
+   */
+  public IncrementalDocumentWordTokenizer(Document document, int start, int end) {
+    this(document);
+    setRange(start, end);
+  }
+
+  /**
+   * Sets the range of the document to tokenize. The first word is the one
+   * holding the character at start, if any, and the last word is the last
+   * one that starts before end, even though it may end after it.
+   * @param start the position of the first character to check
+   * @param end the position after the last character to check, or -1 to
+   * check to the end of the document.
+   */
+  public void setRange(int start, int end) {
+    if (start < 0)
+      start = 0;
+    rangeStart = start;
+    rangeEnd = end;
+    position = getFullWordStart(start);
+    currentWordPos = -1;
+    currentWordEnd = -1;
+    nextKnown = false;
+  }
+
+  /**
+   * Sets the current word position at the start of the word containing
+   * the char at position pos. This way a call to nextWord() will return
+   * this word. The range then runs to the end of the document.
+   *
+   * @param pos position in the word we want to set as current.
+   */
+  public void posStartFullWordFrom(int pos) {
+    setRange(pos, -1);
+  }
+
+  /** Returns the character at a position of the document, reading it if
+   * it is not in the window, or Segment.DONE if there is no such position.
+   */
+  private char charAt(int pos) {
+    if (pos < windowStart || pos >= windowEnd) {
+      if (pos < 0 || pos >= document.getLength())
+        return Segment.DONE;
+      // Keep a few characters before pos for the backward scans
+      read(Math.max(0, pos - WINDOW_SIZE / 8), pos);
+    }
+    return window.array[window.offset + pos - windowStart];
+  }
+
+  /** Reads the window from start so that it holds the character at pos,
+   * without copying the document if it can be helped.
+   */
+  private void read(int start, int pos) {
+    int length = document.getLength();
+    try {
+      document.getText(start, Math.min(WINDOW_SIZE, length - start), window);
+      if (start + window.count <= pos)
+        // The gap of the document lies between start and pos.
+        document.getText(start = pos, Math.min(WINDOW_SIZE, length - pos), window);
+    } catch (BadLocationException ex) {
+      throw new RuntimeException(ex.getMessage());
+    }
+    windowStart = start;
+    windowEnd = start + window.count;
+  }
+
+  /** Makes sure the whole of the current word is in the window */
+  private void readCurrentWord() {
+    if (currentWordPos < windowStart || currentWordEnd > windowEnd) {
+      read(currentWordPos, currentWordPos);
+      if (currentWordEnd > windowEnd) {
+        // The word is on both sides of the gap: it is copied.
+        window.setPartialReturn(false);
+        try {
+          document.getText(currentWordPos, currentWordEnd - currentWordPos, window);
+        } catch (BadLocationException ex) {
+          throw new RuntimeException(ex.getMessage());
+        } finally {
+          window.setPartialReturn(true);
+        }
+        windowStart = currentWordPos;
+        windowEnd = currentWordEnd;
+      }
+    }
+  }
+
+  /** Returns the start of the word holding the character at pos, or pos
+   * if it is not in a word.
+   */
+  private int getFullWordStart(int pos) {
+    while (pos > 0) {
+      char ch = charAt(pos - 1);
+      if (!Character.isLetterOrDigit(ch)) {
+        if ((ch == '-' || ch == '\'') && Character.isLetterOrDigit(charAt(pos)) && Character.isLetterOrDigit(charAt(pos - 2))) {
+          pos--;
+          continue;
+        }
+        break;
+      }
+      pos--;
+    }
+    return pos;
+  }
+
+  /** Returns the start of the next word from pos, or -1 if there is none
+   * before the end of the range.
+   */
+  private int getNextWordStart(int pos) {
+    int end = rangeEnd == -1 ? document.getLength() : Math.min(rangeEnd, document.getLength());
+    for (; pos < end; pos++) {
+      if (Character.isLetterOrDigit(charAt(pos)))
+        return pos;
+    }
+    return -1;
+  }
+
+  /** Returns the end of the word starting at pos */
+  private int getNextWordEnd(int pos) {
+    for (char ch = charAt(pos); ch != Segment.DONE; ch = charAt(++pos)) {
+      if (!Character.isLetterOrDigit(ch)) {
+        if ((ch == '-' || ch == '\'') && Character.isLetterOrDigit(charAt(pos + 1)))
+          continue;
+        break;
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * Indicates if there are more words left in the range
+   * @return true if more words can be found in the text.
+   */
+  public boolean hasMoreWords() {
+    if (!nextKnown) {
+      nextWordPos = getNextWordStart(position);
+      nextKnown = true;
+    }
+    return nextWordPos != -1;
+  }
+
+  /**
+   * Returns the position in the document of the start of the current word.
+   * @return index of the start of the current word in the document.
+   */
+  public int getCurrentWordPosition() {
+    if (currentWordPos == -1)
+      throw new WordNotFoundException("No Words in current String");
+    return currentWordPos;
+  }
+
+  /**
+   * Returns the position in the document of the end of the current word.
+   * @return index of the end of the current word in the document.
+   */
+  public int getCurrentWordEnd() {
+    if (currentWordPos == -1)
+      throw new WordNotFoundException("No Words in current String");
+    return currentWordEnd;
+  }
+
+  /**
+   * This returns the next word in the iteration. Note that any implementation should return
+   * the current word, and then replace the current word with the next word found in the
+   * input text (if one exists).
+   * @return the next word in the iteration.
+   */
+  public String nextWord() {
+    nextRange();
+    readCurrentWord();
+    return new String(window.array, window.offset + currentWordPos - windowStart, currentWordEnd - currentWordPos);
+  }
+
+  /**
+   * Moves to the next word in the range, without copying it out of the
+   * document.
+   */
+  public void nextRange() {
+    if (!hasMoreWords())
+      throw new WordNotFoundException("No more words found.");
+    currentWordPos = nextWordPos;
+    currentWordEnd = getNextWordEnd(currentWordPos);
+    position = currentWordEnd;
+    nextKnown = false;
+    wordCount++;
+  }
+
+  /**
+   * Returns the characters of the document around the current word.
+   * @return the characters in which the range of the current word is given.
+   */
+  public CharSequence getRangeText() {
+    getCurrentWordPosition();
+    readCurrentWord();
+    return window;
+  }
+
+  /**
+   * Returns the start of the current word in {@link #getRangeText()}.
+   * @return index of the start of the current word in the text.
+   */
+  public int getRangeStart() {
+    return getCurrentWordPosition() - windowStart;
+  }
+
+  /**
+   * Returns the end of the current word in {@link #getRangeText()}.
+   * @return index of the end of the current word in the text.
+   */
+  public int getRangeEnd() {
+    return getCurrentWordEnd() - windowStart;
+  }
+
+  /**
+   * Returns the number of word tokens that have been processed thus far
+   * @return the number of words found so far.
+   */
+  public int getCurrentWordCount() {
+    return wordCount;
+  }
+
+  /** Replaces the current word token
+   * @param newWord The new word to replace the misspelt one
+   */
+  public void replaceWord(String newWord) {
+    getCurrentWordPosition();
+    int delta = newWord.length() - (currentWordEnd - currentWordPos);
+    replacing = true;
+    try {
+      document.remove(currentWordPos, currentWordEnd - currentWordPos);
+      document.insertString(currentWordPos, newWord, null);
+    } catch (BadLocationException ex) {
+      throw new RuntimeException(ex.getMessage());
+    } finally {
+      replacing = false;
+    }
+    //Position after the newly replaced word(s)
+    currentWordEnd += delta;
+    position = currentWordEnd;
+    if (rangeEnd != -1 && rangeEnd >= currentWordEnd - delta)
+      rangeEnd += delta;
+    nextKnown = false;
+    windowEnd = windowStart;
+  }
+
+  /** Returns the text of the range being tokenized (includes any changes
+   *  that have been made)
+   * @return The text, including changes.
+   */
+  public String getContext() {
+    int length = document.getLength();
+    int start = Math.min(rangeStart, length);
+    int end = rangeEnd == -1 ? length : Math.min(rangeEnd, length);
+    try {
+      return document.getText(start, end - start);
+    } catch (BadLocationException ex) {
+      throw new RuntimeException(ex.getMessage());
+    }
+  }
+
+  /** Indicates if the current word is at the start of a sentence. Only the
+   * characters around the word are looked at.
+   * @return true if the current word is at the start of a sentence
+   */
+  public boolean isNewSentence() {
+    getCurrentWordPosition();
+    if (currentWordPos < 2)
+      return true;
+    if (sentenceIterator == null) {
+      sentenceIterator = BreakIterator.getSentenceInstance();
+      sentenceText = new Segment();
+    }
+    int start = Math.max(0, currentWordPos - SENTENCE_CONTEXT);
+    int end = Math.min(document.getLength(), currentWordEnd + SENTENCE_CONTEXT);
+    try {
+      document.getText(start, end - start, sentenceText);
+    } catch (BadLocationException ex) {
+      return false;
+    }
+    sentenceIterator.setText(sentenceText);
+    int pos = sentenceText.getBeginIndex() + currentWordPos - start;
+    if (sentenceIterator.isBoundary(pos))
+      return true;
+    // BreakIterator doesn't work when the first word in a sentence is not capitalised,
+    // but we need to check for capitalisation
+    char before = sentenceText.array[pos - 2], last = sentenceText.array[pos - 1];
+    return before == '.' && last <= ' ' || before <= ' ' && last == '.';
+  }
+
+  /** Shifts a position by an insertion of length characters at offset */
+  private static int inserted(int pos, int offset, int length) {
+    return pos >= offset ? pos + length : pos;
+  }
+
+  /** Shifts a position by a removal of length characters at offset */
+  private static int removed(int pos, int offset, int length) {
+    if (pos > offset + length)
+      return pos - length;
+    return pos > offset ? offset : pos;
+  }
+
+  /**
+   * Shifts the positions of the tokenizer after characters have been
+   * inserted in the document.
+   * @param e the insertion.
+   */
+  public void insertUpdate(DocumentEvent e) {
+    if (replacing)
+      return;
+    int offset = e.getOffset(), length = e.getLength();
+    windowEnd = windowStart;
+    nextKnown = false;
+    if (currentWordPos != -1) {
+      // An insertion at the end of the word is outside of it
+      currentWordEnd = currentWordEnd > offset ? currentWordEnd + length : currentWordEnd;
+      currentWordPos = inserted(currentWordPos, offset, length);
+    }
+    // Characters inserted where the next word is searched from are searched
+    position = position > offset ? position + length : position;
+    rangeStart = inserted(rangeStart, offset, length);
+    if (rangeEnd != -1)
+      rangeEnd = inserted(rangeEnd, offset, length);
+  }
+
+  /**
+   * Shifts the positions of the tokenizer after characters have been
+   * removed from the document.
+   * @param e the removal.
+   */
+  public void removeUpdate(DocumentEvent e) {
+    if (replacing)
+      return;
+    int offset = e.getOffset(), length = e.getLength();
+    windowEnd = windowStart;
+    nextKnown = false;
+    if (currentWordPos != -1) {
+      currentWordPos = removed(currentWordPos, offset, length);
+      currentWordEnd = removed(currentWordEnd, offset, length);
+    }
+    position = removed(position, offset, length);
+    rangeStart = removed(rangeStart, offset, length);
+    if (rangeEnd != -1)
+      rangeEnd = removed(rangeEnd, offset, length);
+  }
+
+  /**
+   * Attribute changes do not move any character.
+   * @param e the change.
+   */
+  public void changedUpdate(DocumentEvent e) {
+  }
+}
@@ -68,7 +68,6 @@ public class JavaWordFinder extends AbstractWordFinder {
 
     currentWord.copy(nextWord);
 
-    int current = sentenceIterator.current();
     setSentenceIterator(currentWord);
 
     int i = currentWord.getEnd();
@@ -76,16 +75,16 @@ public class JavaWordFinder extends AbstractWordFinder {
     boolean started = false;
 
     search:
-        while (i < text.length() && !finished) {
+        while (i < chars.length() && !finished) {
 
           i = ignore(i, '@');
           i = ignore(i, "<code>", "</code>");
           i = ignore(i, "<CODE>", "</CODE>");
           i = ignore(i, '<', '>');
 
-          if (i >= text.length()) break search;
+          if (i >= chars.length()) break search;
 
-          char currentLetter = text.charAt(i);
+          char currentLetter = chars.charAt(i);
           if (inComment) {
             //Reset on new line.
             if (currentLetter == '\n') {
@@ -97,17 +96,17 @@ public class JavaWordFinder extends AbstractWordFinder {
               continue search;
             }
             //Find words.
-            while (i < text.length() - 1) {
+            while (i < chars.length() - 1) {
               if (!started && isWordChar(i)) {
                 nextWord.setStart(i);
                 started = true;
               } else if (started && !isWordChar(i)) {
-                nextWord.setText(text.substring(nextWord.getStart(), i));
+                nextWord.setText(chars, nextWord.getStart(), i);
                 finished = true;
                 break search;
               }
 
-              currentLetter = text.charAt(++i);
+              currentLetter = chars.charAt(++i);
             }
           } else if (currentLetter == '*') {
             inComment = true;
@@ -120,7 +119,7 @@ public class JavaWordFinder extends AbstractWordFinder {
     if (!started) {
       nextWord = null;
     } else if (!finished) {
-      nextWord.setText(text.substring(nextWord.getStart(), i));
+      nextWord.setText(chars, nextWord.getStart(), i);
     }
 
     return currentWord;
@@ -0,0 +1,235 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+
+/**
+ * A word finder for the text of Javadoc comments, which searches text for
+ * words as {@link DefaultWordFinder} does, but ignores inline tags such as
+ * <code>{&#64;link ...}</code>, the content of <code>&lt;pre&gt;</code> and
+ * <code>&lt;code&gt;</code> elements, HTML tags, comments and entities.
+ * <p>
+ * The markup is skipped in the same forward pass that finds the words, so
+ * the text is scanned once whatever its markup.
+ */
+public class JavadocWordFinder extends DefaultWordFinder {
+
+  //~ Instance/static variables ...............................................
+
+  /** Elements whose content is code rather than prose. */
+  private static final String[] CODE_ELEMENTS = {"pre", "code"};
+
+  /** The longest entity name looked for after an ampersand. */
+  private static final int MAX_ENTITY_LENGTH = 32;
+
+  /** Whether tagEnd holds the result of a search of the current text. */
+  private boolean tagEndKnown;
+
+  /** The position of the next '&gt;' found in the text, -1 if none. */
+  private int tagEnd;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new JavadocWordFinder object.
+   *
+   * @param inText the String to search
+   */
+  public JavadocWordFinder(String inText) {
+    super(inText);
+  }
+
+  /**
+   * Creates a new JavadocWordFinder object.
+   */
+  public JavadocWordFinder() {
+    super();
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Replaces the current word, forgetting what is known of the markup that
+   * follows it.
+   *
+   * @param newWord the word to replace the current word with.
+   */
+  public void replace(String newWord) {
+    super.replace(newWord);
+    tagEndKnown = false;
+  }
+
+  /**
+   * Skips the inline tag, code element, HTML tag, comment or entity starting
+   * at the given position.
+   *
+   * @param index the position in the text
+   * @return the position after the markup, <code>index</code> if none
+   */
+  protected int skipIgnored(int index) {
+    char c = chars.charAt(index);
+    if (c == '{')
+      return skipInlineTag(index);
+    if (c == '&')
+      return skipEntity(index);
+    if (c == '<')
+      return skipHtml(index);
+    return index;
+  }
+
+  /**
+   * Forgets the markup found in the previous text.
+   */
+  protected void init() {
+    tagEndKnown = false;
+    super.init();
+  }
+
+  /**
+   * Skips an inline tag, up to its matching closing brace.  An unbalanced
+   * tag runs to the end of the text.
+   */
+  private int skipInlineTag(int index) {
+    int length = chars.length();
+    if (index + 1 >= length || chars.charAt(index + 1) != '@')
+      return index;
+    int depth = 0;
+    for (int i = index; i < length; i++) {
+      char c = chars.charAt(i);
+      if (c == '{')
+        depth++;
+      else if (c == '}' && --depth == 0)
+        return i + 1;
+    }
+    return length;
+  }
+
+  /**
+   * Skips a named or numeric character entity such as &amp;amp; or
+   * &amp;#64;.
+   */
+  private int skipEntity(int index) {
+    int length = chars.length();
+    int i = index + 1;
+    if (i < length && chars.charAt(i) == '#')
+      i++;
+    int nameStart = i;
+    int limit = Math.min(length, nameStart + MAX_ENTITY_LENGTH);
+    while (i < limit && isAsciiLetterOrDigit(chars.charAt(i)))
+      i++;
+    if (i == nameStart || i >= length || chars.charAt(i) != ';')
+      return index;
+    return i + 1;
+  }
+
+  /**
+   * Skips an HTML comment, a code element with its content, or any other
+   * HTML tag.
+   */
+  private int skipHtml(int index) {
+    int length = chars.length();
+    if (index + 1 >= length)
+      return index;
+    char c = chars.charAt(index + 1);
+    if (c == '!' && startsWith(index + 1, "!--")) {
+      int end = indexOf("-->", index + 4);
+      return end < 0 ? length : end + 3;
+    }
+    if (!isAsciiLetter(c) && c != '/' && c != '!')
+      return index;
+    int end = findTagEnd(index + 1);
+    if (end < 0)
+      return index;
+    for (int e = 0; e < CODE_ELEMENTS.length; e++) {
+      String name = CODE_ELEMENTS[e];
+      if (startsWith(index + 1, name) && isNameEnd(index + 1 + name.length(), end)
+          && chars.charAt(end - 1) != '/') {
+        int close = indexOf("</" + name, end + 1);
+        if (close < 0)
+          return length;
+        int closeEnd = findTagEnd(close);
+        return closeEnd < 0 ? length : closeEnd + 1;
+      }
+    }
+    return end + 1;
+  }
+
+  /**
+   * Returns the position of the first '&gt;' at or after the given
+   * position, -1 if none.  Since the positions asked for only increase, the
+   * text is searched at most once between setting it and reaching the end.
+   */
+  private int findTagEnd(int from) {
+    if (!tagEndKnown || (tagEnd >= 0 && tagEnd < from)) {
+      int length = chars.length();
+      tagEnd = -1;
+      for (int i = from; i < length; i++) {
+        if (chars.charAt(i) == '>') {
+          tagEnd = i;
+          break;
+        }
+      }
+      tagEndKnown = true;
+    }
+    return tagEnd;
+  }
+
+  /**
+   * Indicates if an element name ends at the given position of a tag.
+   */
+  private boolean isNameEnd(int posn, int tagEnd) {
+    return posn == tagEnd || Character.isWhitespace(chars.charAt(posn)) || chars.charAt(posn) == '/';
+  }
+
+  /**
+   * Returns the first position at or after <code>from</code> where the
+   * given lower case string occurs in the text, ignoring case, -1 if none.
+   */
+  private int indexOf(String s, int from) {
+    int last = chars.length() - s.length();
+    for (int i = from; i <= last; i++) {
+      if (startsWith(i, s))
+        return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Indicates if the given lower case string occurs in the text at the given
+   * position, ignoring case.
+   */
+  private boolean startsWith(int posn, String s) {
+    if (posn + s.length() > chars.length())
+      return false;
+    for (int k = 0; k < s.length(); k++) {
+      if (Character.toLowerCase(chars.charAt(posn + k)) != s.charAt(k))
+        return false;
+    }
+    return true;
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isAsciiLetterOrDigit(char c) {
+    return isAsciiLetter(c) || (c >= '0' && c <= '9');
+  }
+}
@@ -0,0 +1,40 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * A {@link SpellingErrorSink} that also receives the errors of texts longer
+ * than the range of an <code>int</code>, such as files of several gigabytes
+ * checked through a {@link MappedFileWordTokenizer}. The errors of those
+ * tokenizers are passed to {@link #spellingError(int, long, int, String)}
+ * instead of {@link #spellingError(int, int, int, String)}.
+ */
+public interface LongOffsetSpellingErrorSink extends SpellingErrorSink {
+
+  /**
+   * Called for each spelling error of a tokenizer giving long offsets, in
+   * text order, while the tokenizer is still positioned on the word.
+   * @param kind {@link #MISSPELT} or {@link #NOT_CAPITALIZED}
+   * @param offset the position of the word in the text
+   * @param length the length of the word
+   * @param word the text of the word
+   */
+  public void spellingError(int kind, long offset, int length, String word);
+}
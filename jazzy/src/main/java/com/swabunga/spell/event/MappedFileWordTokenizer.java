@@ -0,0 +1,517 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * This class tokenizes a file mapped into memory, one window at a time, so
+ * that files of any size are checked without being read on the heap.
+ * <p/>
+ * The bytes are scanned directly: each window is copied out of the mapping
+ * in one bulk transfer, a window of ASCII text is handed to the word finder
+ * as a view of its bytes, and its words to the dictionaries as ranges of
+ * those bytes. In other windows the ASCII bytes are copied as they are and
+ * only the sequences of other characters are decoded. Only one window is
+ * held on the heap.
+ * <p/>
+ * The charset must encode the ASCII characters as single bytes and never
+ * use those bytes within the sequences of other characters, as UTF-8 and
+ * the ISO-8859 charsets do. Windows are cut at whitespace, preferably after
+ * the end of a sentence; a word longer than a window is split. As with
+ * {@link ReaderWordTokenizer}, the positions are offsets in characters
+ * from the start of the file and words cannot be replaced. Past 2 GiB the
+ * offsets are only given by {@link #getCurrentWordOffset()}, and to a
+ * {@link LongOffsetSpellingErrorSink}.
+ */
+public class MappedFileWordTokenizer implements WordRangeTokenizer, Closeable {
+
+  //~ Instance/static variables ...............................................
+
+  /** The default number of bytes tokenized at a time */
+  public static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+
+  /** The number of bytes mapped at a time */
+  private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final long size;
+  private final CharsetDecoder decoder;
+  private final AbstractWordFinder finder;
+  private final int windowSize;
+
+  /** The part of the file currently mapped */
+  private MappedByteBuffer segment;
+  /** The offset in the file of the mapped part */
+  private long segmentOffset = 0;
+  /** The offset in the file of the next window */
+  private long position = 0;
+  /** The bytes of the current window */
+  private byte[] bytes = new byte[0];
+  /** The characters decoded from the last window not all ASCII */
+  private char[] chars = new char[0];
+  /** The characters of the current window */
+  private CharSequence window = "";
+  /** The offset in characters of the current window */
+  private long windowOffset = 0;
+  /** The offset in characters of the next window */
+  private long nextWindowOffset = 0;
+  private IOException exception;
+  /** True when the last cut was not at the end of a sentence */
+  private boolean cutMidSentence = false;
+  /** True when the window continues the sentence of the previous one */
+  private boolean windowMidSentence = false;
+  /** The number of words found in the current window */
+  private int windowWordCount = 0;
+
+  /** The word being analyzed */
+  private Word currentWord;
+  /** The cumulative word count that have been processed */
+  private int wordCount = 0;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new MappedFileWordTokenizer object using a
+   * {@link DefaultWordFinder}.
+   *
+   * @param inputFile the file to work upon
+   * @param charsetName the encoding of the file
+   * @throws IOException indicates problems opening the file
+   */
+  public MappedFileWordTokenizer(File inputFile, String charsetName) throws IOException {
+    this(inputFile, charsetName, new DefaultWordFinder(), DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Creates a new MappedFileWordTokenizer object.
+   *
+   * @param inputFile the file to work upon
+   * @param charsetName the encoding of the file
+   * @param finder the specialize processing for words, given one window of
+   * the file at a time
+   * @param windowSize the number of bytes tokenized at a time
+   * @throws IOException indicates problems opening the file
+   */
+  public MappedFileWordTokenizer(File inputFile, String charsetName, AbstractWordFinder finder, int windowSize) throws IOException {
+    if (windowSize <= 0 || windowSize > SEGMENT_SIZE)
+      throw new IllegalArgumentException("windowSize must be positive and at most " + SEGMENT_SIZE);
+    Charset charset = Charset.forName(charsetName);
+    if (!isAsciiCompatible(charset))
+      throw new IllegalArgumentException(charsetName + " does not encode ASCII characters as single bytes");
+    this.decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.finder = finder;
+    this.windowSize = windowSize;
+    this.file = new RandomAccessFile(inputFile, "r");
+    this.channel = file.getChannel();
+    this.size = channel.size();
+    finder.setText(window);
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Returns true if there are more words that can be processed, mapping
+   * the next window of the file if needed.
+   *
+   * @return true if there are further words in the file.
+   */
+  public boolean hasMoreWords() {
+    while (!finder.hasNext()) {
+      if (!nextWindow())
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns searches for the next word in the file, and returns that word.
+   *
+   * @return the string representing the current word.
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public String nextWord() {
+    nextRange();
+    return currentWord.getText();
+  }
+
+  /**
+   * Moves to the next word in the file, without creating its String.
+   *
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public void nextRange() {
+    if (!hasMoreWords())
+      throw new WordNotFoundException("No more words found.");
+    currentWord = finder.next();
+    wordCount++;
+    windowWordCount++;
+  }
+
+  /**
+   * Returns the window of the file holding the current word, a view of its
+   * bytes when they are all ASCII.
+   *
+   * @return the characters of the current window.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public CharSequence getRangeText() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return window;
+  }
+
+  /**
+   * Returns the start of the current word in the window.
+   *
+   * @return index in the window of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeStart() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return currentWord.getStart();
+  }
+
+  /**
+   * Returns the end of the current word in the window.
+   *
+   * @return index in the window of the end of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeEnd() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return currentWord.getEnd();
+  }
+
+  /**
+   * Maps the next window of the file and hands it to the finder.
+   * @return false at the end of the file
+   */
+  private boolean nextWindow() {
+    boolean continues = cutMidSentence;
+    cutMidSentence = false;
+    if (position >= size || exception != null)
+      return false;
+    long end = Math.min(size, position + windowSize);
+    try {
+      if (segment == null || end > segmentOffset + segment.limit()) {
+        segmentOffset = position;
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+      }
+    } catch (IOException e) {
+      exception = e;
+      return false;
+    }
+    // one bulk copy, the bytes are then scanned as an array
+    int length = (int) (end - position);
+    if (bytes.length < length)
+      bytes = new byte[length];
+    ByteBuffer mapped = segment.duplicate();
+    mapped.position((int) (position - segmentOffset));
+    mapped.get(bytes, 0, length);
+    int cut = (end < size) ? findCut(0, length) : length;
+
+    window = characters(0, cut);
+    windowOffset = nextWindowOffset;
+    nextWindowOffset += window.length();
+    position += cut;
+    finder.setText(window);
+    windowMidSentence = continues;
+    windowWordCount = 0;
+    return true;
+  }
+
+  /**
+   * Finds where the window can be cut without splitting a word: at the start
+   * of the last sentence that follows whitespace, else after the last
+   * whitespace. Like the sentence iterator, a period followed by a word in
+   * lower case is not taken as the end of a sentence. A whitespace byte is always a character of its own.
+   * @return the end of the window in its bytes
+   */
+  private int findCut(int from, int to) {
+    int lastSpace = -1;
+    for (int i = to - 1; i > from; i--) {
+      if (!isSpace(bytes[i]))
+        continue;
+      if (lastSpace < 0)
+        lastSpace = i;
+      if (endsSentence(from, i)) {
+        // the next sentence starts after the whitespace, not in lower case
+        int cut = i + 1;
+        while (cut < to && isSpace(bytes[cut]))
+          cut++;
+        if (cut == to || !Character.isLowerCase((char) bytes[cut]))
+          return cut;
+      }
+    }
+    cutMidSentence = true;
+    if (lastSpace >= 0)
+      return lastSpace + 1;
+    // no whitespace: the word is split, before the sequence to decode at
+    // the end unless the whole window is one
+    int cut = to;
+    while (cut > from && bytes[cut - 1] < 0)
+      cut--;
+    return cut > from ? cut : to;
+  }
+
+  /**
+   * Indicates if the text before a whitespace ends a sentence, with a
+   * period, question or exclamation mark maybe followed by closing quotes
+   * or brackets.
+   */
+  private boolean endsSentence(int from, int space) {
+    for (int i = space - 1; i >= from; i--) {
+      byte b = bytes[i];
+      if (b == '.' || b == '?' || b == '!')
+        return true;
+      if (b != '"' && b != '\'' && b != ')' && b != ']')
+        return false;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the characters of a part of the window: a view of the bytes if
+   * they are all ASCII, else the characters decoded.
+   */
+  private CharSequence characters(int from, int to) {
+    int i = from;
+    while (i < to && bytes[i] >= 0)
+      i++;
+    if (i == to)
+      return new AsciiText(bytes, from, to - from);
+
+    int capacity = (int) Math.ceil((to - from) * (double) decoder.maxCharsPerByte());
+    if (chars.length < capacity)
+      chars = new char[capacity];
+    int length = 0;
+    for (int k = from; k < i; k++)
+      chars[length++] = (char) bytes[k];
+    while (i < to) {
+      byte b = bytes[i];
+      if (b >= 0) {
+        chars[length++] = (char) b;
+        i++;
+        continue;
+      }
+      int j = i + 1;
+      while (j < to && bytes[j] < 0)
+        j++;
+      length = decode(i, j, length);
+      i = j;
+    }
+    return CharBuffer.wrap(chars, 0, length);
+  }
+
+  /**
+   * Decodes a sequence of non ASCII bytes into the characters.
+   * @return the number of characters after the ones decoded
+   */
+  private int decode(int from, int to, int length) {
+    ByteBuffer in = ByteBuffer.wrap(bytes, from, to - from);
+    CharBuffer out = CharBuffer.wrap(chars, length, chars.length - length);
+    decoder.reset();
+    decoder.decode(in, out, true);
+    decoder.flush(out);
+    return out.position();
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+  }
+
+  /**
+   * Indicates if a charset encodes the ASCII characters as the same single
+   * bytes, both ways.
+   */
+  private static boolean isAsciiCompatible(Charset charset) {
+    byte[] bytes = new byte[128];
+    char[] ascii = new char[128];
+    for (int i = 0; i < 128; i++) {
+      bytes[i] = (byte) i;
+      ascii[i] = (char) i;
+    }
+    return charset.canEncode() && new String(bytes, charset).equals(new String(ascii))
+      && Arrays.equals(new String(ascii).getBytes(charset), bytes);
+  }
+
+  /**
+   * Returns the reading error that ended the file, if any.
+   *
+   * @return the exception, or null if the file was read entirely
+   */
+  public IOException getException() {
+    return exception;
+  }
+
+  /**
+   * Releases the file. The mapped windows remain valid until collected.
+   *
+   * @throws IOException indicates problems closing the file
+   */
+  public void close() throws IOException {
+    file.close();
+  }
+
+  /**
+   * Returns the current number of words that have been processed
+   *
+   * @return number of words so far iterated.
+   */
+  public int getCurrentWordCount() {
+    return wordCount;
+  }
+
+  /**
+   * Returns the end of the current word in the file
+   *
+   * @return offset of the end of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   * @throws IllegalStateException the offset is beyond the range of an
+   * <code>int</code>
+   */
+  public int getCurrentWordEnd() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return toInt(windowOffset + currentWord.getEnd());
+  }
+
+  /**
+   * Returns the offset of the start of the current word in the file
+   *
+   * @return offset of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   * @throws IllegalStateException the offset is beyond the range of an
+   * <code>int</code>, see {@link #getCurrentWordOffset()}
+   */
+  public int getCurrentWordPosition() {
+    return toInt(getCurrentWordOffset());
+  }
+
+  private static int toInt(long offset) {
+    if (offset > Integer.MAX_VALUE)
+      throw new IllegalStateException("Offset " + offset + " is beyond the range of an int");
+    return (int) offset;
+  }
+
+  /**
+   * Returns the offset of the start of the current word in the file,
+   * which may be beyond the range of an <code>int</code>.
+   *
+   * @return offset of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public long getCurrentWordOffset() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return windowOffset + currentWord.getStart();
+  }
+
+  /**
+   * returns true if the current word is at the start of a sentence
+   *
+   * @return true if the current word starts a sentence.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public boolean isNewSentence() {
+    if (windowMidSentence && windowWordCount == 1)
+      return false;
+    return finder.startsSentence();
+  }
+
+  /**
+   * Returns the window of the file currently being tokenized.
+   *
+   * @return the current window of the file.
+   */
+  public String getContext() {
+    return window.toString();
+  }
+
+  /**
+   * Words of a mapped file cannot be replaced, this method does nothing.
+   * The event-free check reports the words it would replace as misspelt.
+   *
+   * @param newWord the new string
+   */
+  public void replaceWord(String newWord) {
+  }
+
+  /**
+   * A view of ASCII bytes as characters.
+   */
+  private static class AsciiText implements CharSequence {
+
+    private final byte[] bytes;
+    private final int start;
+    private final int length;
+
+    AsciiText(byte[] bytes, int start, int length) {
+      this.bytes = bytes;
+      this.start = start;
+      this.length = length;
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public char charAt(int index) {
+      if (index < 0 || index >= length)
+        throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+      return (char) bytes[start + index];
+    }
+
+    public CharSequence subSequence(int from, int to) {
+      if (from < 0 || to > length || from > to)
+        throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + length);
+      return new AsciiText(bytes, start + from, to - from);
+    }
+
+    public String toString() {
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++)
+        chars[i] = (char) bytes[start + i];
+      return new String(chars);
+    }
+  }
+}
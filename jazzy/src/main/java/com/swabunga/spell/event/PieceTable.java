@@ -0,0 +1,312 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.text.CharacterIterator;
+
+/**
+ * A text that can be edited without copying it: the original string is
+ * never modified, the inserted strings are appended to a second buffer, and
+ * the text is described by a list of pieces taken from either of them.
+ *
+ * <p>
+ * A character is found by a binary search on the start of the pieces,
+ * short-cut when it is in the same piece as the last one read, so that
+ * scanning the text forward costs no more than scanning a string. An edit
+ * only moves the pieces that follow it, which are few when the text is
+ * edited from its start to its end as a word finder does.
+ * </p>
+ */
+class PieceTable implements CharSequence {
+
+  //~ Instance/static variables ...............................................
+
+  private final String original;
+  /** The strings inserted, one after the other */
+  private final StringBuffer added = new StringBuffer();
+
+  /** The offset in the text of each piece */
+  private int[] starts = new int[8];
+  /** The offset of each piece in its buffer */
+  private int[] offsets = new int[8];
+  /** The length of each piece */
+  private int[] lengths = new int[8];
+  /** Indicates the pieces taken from the added buffer */
+  private boolean[] inAdded = new boolean[8];
+  private int pieceCount = 0;
+
+  private int length;
+  /** The piece of the last character read */
+  private int lastPiece = 0;
+  /** The text as a string, until the next edit */
+  private String cached;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new PieceTable object.
+   *
+   * @param text the original text
+   */
+  public PieceTable(String text) {
+    original = text;
+    length = text.length();
+    cached = text;
+    if (length > 0)
+      insertPiece(0, 0, 0, length, false);
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Replaces a part of the text.
+   *
+   * @param start the offset of the first character replaced
+   * @param end the offset after the last character replaced
+   * @param s the replacement string
+   */
+  public void replace(int start, int end, String s) {
+    if (start < 0 || end > length || start > end)
+      throw new IndexOutOfBoundsException("Cannot replace " + start + "-" + end + " in " + length);
+
+    int first = split(start);
+    int last = split(end);
+    int diff = s.length() - (end - start);
+
+    removePieces(first, last - first);
+    if (s.length() > 0) {
+      insertPiece(first, start, added.length(), s.length(), true);
+      added.append(s);
+      first++;
+    }
+    for (int i = first; i < pieceCount; i++)
+      starts[i] += diff;
+
+    length += diff;
+    lastPiece = 0;
+    cached = null;
+  }
+
+  /**
+   * Returns the length of the text.
+   *
+   * @return the number of characters in the text
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns a character of the text.
+   *
+   * @param index the offset of the character
+   * @return the character at the given offset
+   */
+  public char charAt(int index) {
+    if (index < 0 || index >= length)
+      throw new IndexOutOfBoundsException("Index " + index + " out of " + length);
+
+    int piece = lastPiece;
+    if (index < starts[piece] || index >= starts[piece] + lengths[piece]) {
+      piece = findPiece(index);
+      lastPiece = piece;
+    }
+    int offset = offsets[piece] + index - starts[piece];
+    return inAdded[piece] ? added.charAt(offset) : original.charAt(offset);
+  }
+
+  /**
+   * Returns a part of the text.
+   *
+   * @param start the offset of the first character
+   * @param end the offset after the last character
+   * @return the characters between the given offsets, as a string
+   */
+  public CharSequence subSequence(int start, int end) {
+    if (cached != null)
+      return cached.substring(start, end);
+    if (start < 0 || end > length || start > end)
+      throw new IndexOutOfBoundsException("Cannot read " + start + "-" + end + " in " + length);
+
+    StringBuffer sb = new StringBuffer(end - start);
+    for (int piece = start == end ? pieceCount : findPiece(start);
+         piece < pieceCount && starts[piece] < end; piece++) {
+      int from = Math.max(start, starts[piece]) - starts[piece] + offsets[piece];
+      int to = Math.min(end, starts[piece] + lengths[piece]) - starts[piece] + offsets[piece];
+      if (inAdded[piece])
+        sb.append(added.substring(from, to));
+      else
+        sb.append(original, from, to);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the whole text, built once after each edit.
+   *
+   * @return the text as a string
+   */
+  public String toString() {
+    if (cached == null)
+      cached = subSequence(0, length).toString();
+    return cached;
+  }
+
+  /**
+   * Returns an iterator on the text, for a break iterator to work on the
+   * text without copying it.
+   *
+   * @return an iterator positioned on the first character
+   */
+  public CharacterIterator getCharacterIterator() {
+    return new Iterator(0);
+  }
+
+  /**
+   * Finds the piece holding a character, by a binary search.
+   */
+  private int findPiece(int index) {
+    int low = 0;
+    int high = pieceCount - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (starts[mid] <= index)
+        low = mid;
+      else
+        high = mid - 1;
+    }
+    return low;
+  }
+
+  /**
+   * Splits the piece holding the given offset so that a piece starts there.
+   * @return the index of the piece starting at the offset, or the number of
+   * pieces if the offset is the end of the text
+   */
+  private int split(int index) {
+    if (index == length)
+      return pieceCount;
+    int piece = findPiece(index);
+    int before = index - starts[piece];
+    if (before == 0)
+      return piece;
+    insertPiece(piece + 1, index, offsets[piece] + before, lengths[piece] - before, inAdded[piece]);
+    lengths[piece] = before;
+    return piece + 1;
+  }
+
+  private void insertPiece(int piece, int start, int offset, int pieceLength, boolean fromAdded) {
+    if (pieceCount == starts.length) {
+      int size = pieceCount * 2;
+      starts = grow(starts, size);
+      offsets = grow(offsets, size);
+      lengths = grow(lengths, size);
+      boolean[] newInAdded = new boolean[size];
+      System.arraycopy(inAdded, 0, newInAdded, 0, pieceCount);
+      inAdded = newInAdded;
+    }
+    int moved = pieceCount - piece;
+    System.arraycopy(starts, piece, starts, piece + 1, moved);
+    System.arraycopy(offsets, piece, offsets, piece + 1, moved);
+    System.arraycopy(lengths, piece, lengths, piece + 1, moved);
+    System.arraycopy(inAdded, piece, inAdded, piece + 1, moved);
+    starts[piece] = start;
+    offsets[piece] = offset;
+    lengths[piece] = pieceLength;
+    inAdded[piece] = fromAdded;
+    pieceCount++;
+  }
+
+  private void removePieces(int piece, int count) {
+    int moved = pieceCount - piece - count;
+    System.arraycopy(starts, piece + count, starts, piece, moved);
+    System.arraycopy(offsets, piece + count, offsets, piece, moved);
+    System.arraycopy(lengths, piece + count, lengths, piece, moved);
+    System.arraycopy(inAdded, piece + count, inAdded, piece, moved);
+    pieceCount -= count;
+  }
+
+  private static int[] grow(int[] array, int size) {
+    int[] newArray = new int[size];
+    System.arraycopy(array, 0, newArray, 0, array.length);
+    return newArray;
+  }
+
+  /**
+   * A character iterator reading the text through its pieces.
+   */
+  private class Iterator implements CharacterIterator {
+    private int index;
+
+    Iterator(int index) {
+      this.index = index;
+    }
+
+    public char first() {
+      index = 0;
+      return current();
+    }
+
+    public char last() {
+      index = length == 0 ? 0 : length - 1;
+      return current();
+    }
+
+    public char current() {
+      return index < length ? charAt(index) : DONE;
+    }
+
+    public char next() {
+      if (index < length)
+        index++;
+      return current();
+    }
+
+    public char previous() {
+      if (index == 0)
+        return DONE;
+      index--;
+      return current();
+    }
+
+    public char setIndex(int position) {
+      if (position < 0 || position > length)
+        throw new IllegalArgumentException("Invalid index " + position);
+      index = position;
+      return current();
+    }
+
+    public int getBeginIndex() {
+      return 0;
+    }
+
+    public int getEndIndex() {
+      return length;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public Object clone() {
+      return new Iterator(index);
+    }
+  }
+}
@@ -0,0 +1,359 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.text.BreakIterator;
+
+
+/**
+ * This class tokenizes a text read from a stream, holding only a window of
+ * it in memory, so that files of any size can be checked.
+ *
+ * <p>
+ * The text is read in chunks. Each window handed to the word finder ends at
+ * the last sentence boundary read so far, and the rest is carried over to
+ * the next window: words are never cut and sentence starts are detected as
+ * in the whole text. A sentence longer than a chunk is cut at a space
+ * instead, and a word longer than a chunk is cut anywhere. The positions returned are offsets in the whole stream; past
+ * 2 GB of text, use {@link #getCurrentWordOffset()}.
+ * </p>
+ *
+ * <p>
+ * As the windows are cut at whitespace, the finder must not skip text
+ * holding whitespace: only a {@link DefaultWordFinder} is accepted, and
+ * not a subclass skipping markup such as {@link JavadocWordFinder}. The
+ * markup of a stream is removed by a filtering reader instead, such as
+ * {@link XMLTextReader}, which keeps the offsets of the words.
+ * </p>
+ *
+ * <p>
+ * The words cannot be replaced, and {@link #getContext()} returns the
+ * current window only. Reading errors end the text, they are available
+ * through {@link #getException()}.
+ * </p>
+ */
+public class ReaderWordTokenizer implements WordRangeTokenizer {
+
+  //~ Instance/static variables ...............................................
+
+  /** The default number of characters read at a time */
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private final Reader in;
+  private final WordFinder finder;
+  private final char[] chunk;
+  private final BreakIterator sentenceIterator = BreakIterator.getSentenceInstance();
+
+  /** The text read but not yet handed to the finder */
+  private final StringBuffer pending = new StringBuffer();
+  /** The offset in the stream of the window of the finder */
+  private long windowOffset = 0;
+  /** The offset in the stream of the pending text */
+  private long pendingOffset = 0;
+  private boolean endOfStream = false;
+  private IOException exception;
+  /** True when the last cut was not at a sentence boundary */
+  private boolean cutMidSentence = false;
+  /** True when the window continues the sentence of the previous one */
+  private boolean windowMidSentence = false;
+  /** The number of words found in the current window */
+  private int windowWordCount = 0;
+
+  /** The word being analyzed */
+  private Word currentWord;
+  /** The cumulative word count that have been processed */
+  private int wordCount = 0;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new ReaderWordTokenizer object using a
+   * {@link DefaultWordFinder}.
+   *
+   * @param in the stream to read the text from
+   */
+  public ReaderWordTokenizer(Reader in) {
+    this(in, new DefaultWordFinder(), DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a new ReaderWordTokenizer object.
+   *
+   * @param in the stream to read the text from
+   * @param finder the specialize processing for words, given one window of
+   * the text at a time, skipping no text holding whitespace
+   * @param chunkSize the number of characters read at a time
+   */
+  public ReaderWordTokenizer(Reader in, DefaultWordFinder finder, int chunkSize) {
+    if (chunkSize <= 0)
+      throw new IllegalArgumentException("chunkSize must be positive");
+    this.in = in;
+    this.finder = finder;
+    this.chunk = new char[chunkSize];
+  }
+
+  /**
+   * Creates a new ReaderWordTokenizer object reading from a channel.
+   *
+   * @param channel the channel to read the text from
+   * @param charsetName the encoding of the text
+   */
+  public ReaderWordTokenizer(ReadableByteChannel channel, String charsetName) {
+    this(Channels.newReader(channel, charsetName));
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Returns true if there are more words that can be processed, reading
+   * the next window of the text if needed.
+   *
+   * @return true if there are further words in the text.
+   */
+  public boolean hasMoreWords() {
+    while (!finder.hasNext()) {
+      if (!nextWindow())
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns searches for the next word in the text, and returns that word.
+   *
+   * @return the string representing the current word.
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public String nextWord() {
+    nextRange();
+    return currentWord.getText();
+  }
+
+  /**
+   * Moves to the next word in the text, without creating its String.
+   *
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public void nextRange() {
+    if (!hasMoreWords())
+      throw new WordNotFoundException("No more words found.");
+    currentWord = finder.next();
+    wordCount++;
+    windowWordCount++;
+  }
+
+  /**
+   * Returns the window of text holding the current word.
+   *
+   * @return the current window of the text.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public CharSequence getRangeText() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return finder.getText();
+  }
+
+  /**
+   * Returns the start of the current word in the window of text.
+   *
+   * @return index in the window of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeStart() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return currentWord.getStart();
+  }
+
+  /**
+   * Returns the end of the current word in the window of text.
+   *
+   * @return index in the window of the end of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeEnd() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return currentWord.getEnd();
+  }
+
+  /**
+   * Hands the next window of text to the finder.
+   * @return false at the end of the stream
+   */
+  private boolean nextWindow() {
+    boolean continues = cutMidSentence;
+    cutMidSentence = false;
+    int cut;
+    do {
+      if (endOfStream && pending.length() == 0)
+        return false;
+      if (!endOfStream)
+        read();
+      cut = endOfStream ? pending.length() : findCut();
+    } while (cut == 0);
+
+    windowOffset = pendingOffset;
+    finder.setText(pending.substring(0, cut));
+    pending.delete(0, cut);
+    pendingOffset += cut;
+    windowMidSentence = continues;
+    windowWordCount = 0;
+    return true;
+  }
+
+  /**
+   * Appends the next chunk of the stream to the pending text.
+   */
+  private void read() {
+    try {
+      int count = in.read(chunk, 0, chunk.length);
+      if (count == -1)
+        endOfStream = true;
+      else
+        pending.append(chunk, 0, count);
+    } catch (IOException e) {
+      exception = e;
+      endOfStream = true;
+    }
+  }
+
+  /**
+   * Finds where the pending text can be cut without splitting a word: the
+   * last sentence boundary that follows a space, else the last space once
+   * the text is longer than a chunk. Nothing after the last space is
+   * settled yet, the next chunk may extend the word or sentence there, and
+   * one character is kept after the cut so that the sentence iterator can
+   * see what follows it.
+   * @return the length of the window, 0 to read more text first
+   */
+  private int findCut() {
+    String text = pending.toString();
+    int lastSpace = text.length() - 2;
+    while (lastSpace >= 0 && !Character.isWhitespace(text.charAt(lastSpace)))
+      lastSpace--;
+    if (lastSpace < 0)
+      return text.length() < chunk.length ? 0 : text.length();
+
+    sentenceIterator.setText(text);
+    for (int boundary = sentenceIterator.following(lastSpace); boundary > 0;
+         boundary = sentenceIterator.previous()) {
+      if (boundary <= lastSpace + 1 && Character.isWhitespace(text.charAt(boundary - 1)))
+        return boundary;
+    }
+    if (text.length() < chunk.length)
+      return 0;
+    cutMidSentence = true;
+    return lastSpace + 1;
+  }
+
+  /**
+   * Returns the reading error that ended the text, if any.
+   *
+   * @return the exception, or null if the text was read entirely
+   */
+  public IOException getException() {
+    return exception;
+  }
+
+  /**
+   * Returns the current number of words that have been processed
+   *
+   * @return number of words so far iterated.
+   */
+  public int getCurrentWordCount() {
+    return wordCount;
+  }
+
+  /**
+   * Returns the end of the current word in the stream
+   *
+   * @return offset of the end of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getCurrentWordEnd() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return (int) (windowOffset + currentWord.getEnd());
+  }
+
+  /**
+   * Returns the offset of the start of the current word in the stream
+   *
+   * @return offset of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getCurrentWordPosition() {
+    return (int) getCurrentWordOffset();
+  }
+
+  /**
+   * Returns the offset of the start of the current word in the stream,
+   * which may be beyond the range of an <code>int</code>.
+   *
+   * @return offset of the start of the current word.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public long getCurrentWordOffset() {
+    if (currentWord == null) {
+      throw new WordNotFoundException("No Words in current String");
+    }
+    return windowOffset + currentWord.getStart();
+  }
+
+  /**
+   * returns true if the current word is at the start of a sentence
+   *
+   * @return true if the current word starts a sentence.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public boolean isNewSentence() {
+    if (windowMidSentence && windowWordCount == 1)
+      return false;
+    return finder.startsSentence();
+  }
+
+  /**
+   * Returns the window of text currently being tokenized.
+   *
+   * @return the current window of the text.
+   */
+  public String getContext() {
+    return finder.toString();
+  }
+
+  /**
+   * Words read from a stream cannot be replaced, this method does nothing.
+   * The event-free check reports the words it would replace as misspelt.
+   *
+   * @param newWord the new string
+   */
+  public void replaceWord(String newWord) {
+  }
+}
@@ -0,0 +1,288 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import com.swabunga.spell.engine.Configuration;
+import com.swabunga.spell.engine.SpellDictionary;
+import com.swabunga.spell.engine.SpellDictionaryASpell;
+import com.swabunga.spell.engine.SuggestionList;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The shareable part of a spell checker: the dictionaries, the configuration
+ * and the suggestion cache. The dictionaries of an engine are fixed when it
+ * is built, and it may be used by any number of threads, each of them
+ * checking its own documents through a {@link SpellCheckSession}. A batch job can thus load
+ * its dictionaries once and check many documents in parallel:
+ * <pre>
+ *   SpellCheckEngine engine = new SpellCheckEngine(dictionary);
+ *   // on each thread
+ *   SpellCheckSession session = engine.newSession();
+ *   session.addSpellCheckListener(listener);
+ *   session.checkSpelling(new StringWordTokenizer(text));
+ * </pre>
+ * The dictionaries must not be modified while the engine is in use, words
+ * added by the user go to the dictionary of each session instead. That user
+ * dictionary should not be one of the engine's too: it would be looked up
+ * twice, and its suggestions cached although it changes.
+ * <p/>
+ * The configuration is shared rather than copied, so changing a setting
+ * such as the threshold affects the engine in use, and the
+ * {@link #getFingerprint() fingerprint} of its cached suggestions.
+ *
+ * @see SpellChecker
+ */
+public final class SpellCheckEngine {
+
+  private final SpellDictionary[] dictionaries;
+  private final Configuration config;
+  private final SuggestionCache cache;
+  private final int maxSuggestions;
+
+  /**
+   * Constructs an engine for a single dictionary, with the default
+   * configuration and no suggestion cache.
+   * @param dictionary the dictionary used for looking up words
+   */
+  public SpellCheckEngine(SpellDictionary dictionary) {
+    this(new SpellDictionary[] {dictionary}, Configuration.getConfiguration(), null, 0);
+  }
+
+  /**
+   * Constructs an engine.
+   * @param dictionaries the dictionaries used for looking up words, in
+   * lookup order
+   * @param config the configuration of the spell checking, shared by all
+   * the sessions
+   * @param cache the suggestion cache, or null for no cache
+   * @param maxSuggestions the maximum number of suggestions gathered for a
+   * misspelt word, zero or less for no limit
+   */
+  public SpellCheckEngine(SpellDictionary[] dictionaries, Configuration config, SuggestionCache cache, int maxSuggestions) {
+    if (config == null)
+      throw new IllegalArgumentException("config must be non-null");
+    this.dictionaries = dictionaries.clone();
+    for (int i = 0; i < this.dictionaries.length; i++) {
+      if (this.dictionaries[i] == null)
+        throw new IllegalArgumentException("dictionary must be non-null");
+    }
+    this.config = config;
+    this.cache = cache;
+    this.maxSuggestions = maxSuggestions;
+  }
+
+  /**
+   * Starts a new session, holding the state of the documents checked by
+   * one thread.
+   * @return a session with its own user dictionary
+   */
+  public SpellCheckSession newSession() {
+    return new SpellCheckSession(this);
+  }
+
+  /**
+   * Returns the dictionaries used for looking up words.
+   * @return a copy of the dictionaries, in lookup order
+   */
+  public SpellDictionary[] getDictionaries() {
+    return dictionaries.clone();
+  }
+
+  /**
+   * Returns the configuration of the spell checking.
+   * @return the configuration
+   */
+  public Configuration getConfiguration() {
+    return config;
+  }
+
+  /**
+   * Returns the suggestion cache.
+   * @return the cache, or null if caching is disabled
+   */
+  public SuggestionCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Returns the maximum number of suggestions gathered for each misspelt
+   * word by a session.
+   * @return the maximum number of suggestions, zero or less for no limit
+   */
+  public int getMaxSuggestions() {
+    return maxSuggestions;
+  }
+
+  /**
+   * Verifies if the word is contained in one of the dictionaries.
+   * @param word the word to verify
+   * @return true if the word is in a dictionary
+   */
+  public boolean isCorrect(String word) {
+    for (int i = 0; i < dictionaries.length; i++) {
+      if (dictionaries[i].isCorrect(word))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Verifies if the word held by a range of characters is contained in one
+   * of the dictionaries, looking it up in place when they can.
+   * @param text the characters holding the word
+   * @param start the index of the first character of the word
+   * @param end the index after the last character of the word
+   * @return true if the word is in a dictionary
+   */
+  public boolean isCorrect(CharSequence text, int start, int end) {
+    for (int i = 0; i < dictionaries.length; i++) {
+      if (isCorrect(dictionaries[i], text, start, end))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Verifies if the word held by a range of characters is contained in a
+   * dictionary, in place if it is a {@link SpellDictionaryASpell}, else
+   * copied into a String.
+   */
+  static boolean isCorrect(SpellDictionary dictionary, CharSequence text, int start, int end) {
+    if (dictionary instanceof SpellDictionaryASpell)
+      return ((SpellDictionaryASpell) dictionary).isCorrect(text, start, end);
+    return dictionary.isCorrect(text.subSequence(start, end).toString());
+  }
+
+  /**
+   * Asks a dictionary for at most <code>maxSuggestions</code> suggestions.
+   * Aspell dictionaries stop scoring once the list is full; any other
+   * dictionary produces its whole list, which is then cut down.
+   */
+  static List getSuggestions(SpellDictionary dictionary, String word, int threshold, int maxSuggestions) {
+    if (dictionary instanceof SpellDictionaryASpell)
+      return ((SpellDictionaryASpell) dictionary).getSuggestions(word, threshold, maxSuggestions);
+    List found = dictionary.getSuggestions(word, threshold);
+    if (maxSuggestions > 0 && found.size() > maxSuggestions)
+      found = new ArrayList(found.subList(0, maxSuggestions));
+    return found;
+  }
+
+  /**
+   * Produces a list of at most <code>maxSuggestions</code> suggested words,
+   * looked up in the dictionaries in order. Each dictionary is asked for its
+   * own best suggestions only, and gathering stops as soon as the list is
+   * full. The lists are kept in the cache, if any.
+   *
+   * @param word The word for which we want to gather suggestions
+   * @param threshold the cost value above which any suggestions are 
+   *                  thrown away
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   *                  for no limit
+   * @return the list of words suggested, truncated if a dictionary ran out
+   *                  of budget
+   */
+  public SuggestionList getSuggestions(String word, int threshold, int maxSuggestions) {
+    SuggestionList suggestions = new SuggestionList(maxSuggestions > 0 ? maxSuggestions : 50);
+    List cached = null;
+
+    if (cache != null)
+      cached = cache.get(word, threshold, maxSuggestions);
+
+    if (cached == null) {
+      Set seen = new HashSet();
+      for (int i = 0; i < dictionaries.length; i++) {
+        List found = getSuggestions(dictionaries[i], word, threshold, maxSuggestions);
+        if (SuggestionList.isTruncated(found))
+          suggestions.setTruncated(true);
+        if (!addSuggestions(suggestions, seen, found, maxSuggestions))
+          break;
+      }
+
+      // a list cut short by a dictionary budget is not worth keeping
+      if (cache != null && !suggestions.isTruncated())
+        cache.put(word, threshold, maxSuggestions, suggestions);
+    } else {
+      suggestions.addAll(cached);
+    }
+    return suggestions;
+  }
+
+  /**
+   * Combines the {@link SpellDictionaryASpell#getFingerprint(int) fingerprints}
+   * of all the dictionaries for the configured threshold, identifying the
+   * suggestions they produce.
+   * @return the fingerprint, or null if a dictionary has none
+   */
+  public String getFingerprint() {
+    int threshold = config.getSnapshot().getThreshold();
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      for (int i = 0; i < dictionaries.length; i++) {
+        if (!(dictionaries[i] instanceof SpellDictionaryASpell))
+          return null;
+        String fingerprint = ((SpellDictionaryASpell) dictionaries[i]).getFingerprint(threshold);
+        if (fingerprint == null)
+          return null;
+        digest.update(fingerprint.getBytes("UTF-8"));
+        digest.update((byte) 0);
+      }
+      byte[] bytes = digest.digest();
+      StringBuffer hex = new StringBuffer(bytes.length * 2);
+      for (int i = 0; i < bytes.length; i++) {
+        hex.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+        hex.append(Character.forDigit(bytes[i] & 0xf, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    } catch (UnsupportedEncodingException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Appends the suggestions not seen yet to the list, as long as it is not
+   * full.
+   * @param suggestions the list receiving the suggestions
+   * @param seen the suggestions already in the list
+   * @param found the suggestions to append
+   * @param maxSuggestions the maximum size of the list, zero or less for no
+   * limit
+   * @return false if the list is full
+   */
+  static boolean addSuggestions(List suggestions, Set seen, List found, int maxSuggestions) {
+    for (Iterator i = found.iterator(); i.hasNext();) {
+      if (maxSuggestions > 0 && suggestions.size() >= maxSuggestions)
+        return false;
+      Object suggestion = i.next();
+      if (seen.add(suggestion))
+        suggestions.add(suggestion);
+    }
+    return maxSuggestions <= 0 || suggestions.size() < maxSuggestions;
+  }
+}
@@ -47,7 +47,9 @@ public interface SpellCheckEvent {
   /** Initial case for the action */
   public static final short INITIAL = -1;
 
-  /** Returns the list of suggested Word objects
+  /** Returns the list of suggested Word objects. Computing suggestions is
+   * expensive, so implementations may defer it until this method is first
+   * called; listeners that do not need them should not call it.
    * @return A list of words phonetically close to the misspelt word
    */
   public List getSuggestions();
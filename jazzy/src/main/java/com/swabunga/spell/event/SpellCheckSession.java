@@ -0,0 +1,897 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import com.swabunga.spell.engine.ConfigurationSnapshot;
+import com.swabunga.spell.engine.SpellDictionary;
+import com.swabunga.spell.engine.SpellDictionaryASpell;
+import com.swabunga.spell.engine.SpellDictionaryHashMap;
+import com.swabunga.spell.engine.SuggestionList;
+import com.swabunga.spell.engine.Word;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * The state of the documents checked against a {@link SpellCheckEngine}: the
+ * listeners, the user dictionary, and the words to ignore or to replace
+ * for the rest of the session. A session is meant to be used by one thread
+ * at a time; it is cheap to create, so each thread of a batch job gets its
+ * own while sharing the dictionaries of the engine.
+ *
+ * @see SpellCheckEngine#newSession()
+ */
+public class SpellCheckSession {
+
+  private SpellCheckEngine engine;
+  private SpellDictionary userdictionary;
+  private List eventListeners = new ArrayList();
+
+  /**This variable holds all of the words that are to be always ignored */
+  private Set ignoredWords = new HashSet();
+  private Map autoReplaceWords = new HashMap();
+
+  /** The memo of checked words, null when disabled */
+  private SpellingMemo memo;
+  /** The modification count of the user dictionary the memo agrees with */
+  private long memoUserDictionaryCount;
+
+  /**
+   * Constructs a session with an empty user dictionary.
+   * @param engine the engine holding the dictionaries
+   */
+  public SpellCheckSession(SpellCheckEngine engine) {
+    if (engine == null) {
+      throw new IllegalArgumentException("engine must be non-null");
+    }
+    this.engine = engine;
+    try {
+      userdictionary = new SpellDictionaryHashMap();
+    } catch (IOException e) {
+      throw new RuntimeException("this exception should never happen because we are using null phonetic file");
+    }
+  }
+
+  /**
+   * Returns the engine the words are checked against.
+   * @return the engine
+   */
+  public SpellCheckEngine getEngine() {
+    return engine;
+  }
+
+  /**
+   * Moves the session to another engine, keeping its state. Used by
+   * {@link SpellChecker} when its dictionaries change.
+   * @param engine the new engine
+   */
+  void setEngine(SpellCheckEngine engine) {
+    this.engine = engine;
+    clearMemo();
+  }
+
+  /**
+   * Registers the user dictionary to which words are added.
+   *
+   * @param dictionary the dictionary to use when the user specify a new word
+   * to add.
+   */
+  public void setUserDictionary(SpellDictionary dictionary) {
+    userdictionary = dictionary;
+    clearMemo();
+  }
+
+  /**
+   * Returns the user dictionary to which words are added.
+   * @return the user dictionary
+   */
+  public SpellDictionary getUserDictionary() {
+    return userdictionary;
+  }
+
+  /**
+   * Activates a memo of the words checked, so that each distinct word is
+   * looked up in the dictionaries once rather than on every occurrence.
+   * The memo is cleared when the dictionaries change: when a word is added
+   * through the session, when the user dictionary is replaced, and when a
+   * user dictionary based on {@link SpellDictionaryASpell} reports new
+   * words. Words added directly to another kind of user dictionary are
+   * not seen.
+   * @param size max. number of words remembered (0 to disable the memo)
+   */
+  public void setMemo(int size) {
+    memo = (size == 0) ? null : new SpellingMemo(size);
+    clearMemo();
+  }
+
+  /**
+   * Returns the memo of the words checked, which reports its hit rate.
+   * @return the memo, or null if disabled
+   */
+  public SpellingMemo getMemo() {
+    return memo;
+  }
+
+  /**
+   * Forgets the words checked so far, after the dictionaries changed.
+   */
+  private void clearMemo() {
+    SpellingMemo memo = this.memo;
+    if (memo != null)
+      memo.clear();
+    memoUserDictionaryCount = getModificationCount(userdictionary);
+  }
+
+  /**
+   * Returns the modification count of a dictionary, if it keeps one.
+   * @param dictionary the dictionary
+   * @return the count, or 0 if unknown
+   */
+  private static long getModificationCount(SpellDictionary dictionary) {
+    if (dictionary instanceof SpellDictionaryASpell)
+      return ((SpellDictionaryASpell) dictionary).getModificationCount();
+    return 0;
+  }
+
+  /**
+   * Adds a SpellCheckListener to the listeners list.
+   *
+   * @param  listener  The feature to be added to the SpellCheckListener attribute
+   */
+  public void addSpellCheckListener(SpellCheckListener listener) {
+    eventListeners.add(listener);
+  }
+
+
+  /**
+   * Removes a SpellCheckListener from the listeners list.
+   *
+   * @param  listener  The listener to be removed from the listeners list.
+   */
+  public void removeSpellCheckListener(SpellCheckListener listener) {
+    eventListeners.remove(listener);
+  }
+
+
+  /**
+   * Fires off a spell check event to the listeners.
+   *
+   * @param  event  The event that need to be processed by the spell checking
+   * system.
+   */
+  protected void fireSpellCheckEvent(SpellCheckEvent event) {
+    for (int i = eventListeners.size() - 1; i >= 0; i--) {
+      ((SpellCheckListener) eventListeners.get(i)).spellingError(event);
+    }
+  }
+
+
+  /**
+   * This method clears the words that are currently being remembered as
+   *  <code>Ignore All</code> words and <code>Replace All</code> words.
+   */
+  public void reset() {
+    ignoredWords = new HashSet();
+    autoReplaceWords = new HashMap();
+  }
+
+
+  /**
+   * Verifies if the word that is being spell checked contains at least a
+   * digit.
+   * Returns true if this word contains a digit.
+   *
+   * @param  word  The word to analyze for digit.
+   * @return       true if the word contains at least a digit.
+   */
+  private final static boolean isDigitWord(String word) {
+    for (int i = word.length() - 1; i >= 0; i--) {
+      if (Character.isDigit(word.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * Verifies if the word that is being spell checked contains an Internet 
+   * address. The method look for typical protocol or the habitual string 
+   * in the word:
+   * <ul>
+   * <li>http://</li>
+   * <li>ftp://</li>
+   * <li>https://</li>
+   * <li>ftps://</li>
+   * <li>www.</li>
+   * </ul>
+   *
+   * One limitation is that this method cannot currently recognize email
+   * addresses. Since the 'word' that is passed in, may in fact contain
+   * the rest of the document to be checked, it is not (yet!) a good
+   * idea to scan for the @ character.
+   *
+   * @param  word  The word to analyze for an Internet address.
+   * @return       true if this word looks like an Internet address.
+   */
+  public final static boolean isINETWord(String word) {
+    String lowerCaseWord = word.toLowerCase();
+    return lowerCaseWord.startsWith("http://") ||
+          lowerCaseWord.startsWith("www.") ||
+          lowerCaseWord.startsWith("ftp://") ||
+          lowerCaseWord.startsWith("https://") ||
+          lowerCaseWord.startsWith("ftps://");
+  }
+
+
+  /**
+   * Verifies if the word that is being spell checked contains all
+   * uppercases characters.
+   *
+   * @param  word  The word to analyze for uppercases characters
+   * @return       true if this word contains all upper case characters
+   */
+  private final static boolean isUpperCaseWord(String word) {
+    for (int i = word.length() - 1; i >= 0; i--) {
+      if (Character.isLowerCase(word.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+  /**
+   * Verifies if the word that is being spell checked contains lower and
+   * upper cased characters. Note that a phrase beginning with an upper cased
+   * character is not considered a mixed case word.
+   *
+   * @param  word  The word to analyze for mixed cases characters
+   * @param tokenizer the tokenizer positioned on the word, asked if it
+   * starts a sentence only when that matters, or null if it does not
+   * @return       true if this word contains mixed case characters
+   */
+  private final static boolean isMixedCaseWord(String word, WordTokenizer tokenizer) {
+    int strLen = word.length();
+    boolean isUpper = Character.isUpperCase(word.charAt(0));
+    //Ignore the first character if this word starts the sentence and the first
+    //character was upper cased, since this is normal behaviour
+    if (isUpper && (strLen > 1) && tokenizer != null && tokenizer.isNewSentence())
+      isUpper = Character.isUpperCase(word.charAt(1));
+    if (isUpper) {
+      for (int i = word.length() - 1; i > 0; i--) {
+        if (Character.isLowerCase(word.charAt(i))) {
+          return true;
+        }
+      }
+    } else {
+      for (int i = word.length() - 1; i > 0; i--) {
+        if (Character.isUpperCase(word.charAt(i))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * This method will fire the spell check event and then handle the event
+   *  action that has been selected by the user.
+   *
+   * @param  tokenizer        Description of the Parameter
+   * @param  event            The event to handle
+   * @return                  Returns true if the event action is to cancel the current spell checking, false if the spell checking should continue
+   */
+  protected boolean fireAndHandleEvent(WordTokenizer tokenizer, SpellCheckEvent event) {
+    fireSpellCheckEvent(event);
+    String word = event.getInvalidWord();
+    //Work out what to do in response to the event.
+    switch (event.getAction()) {
+      case SpellCheckEvent.INITIAL:
+        break;
+      case SpellCheckEvent.IGNORE:
+        break;
+      case SpellCheckEvent.IGNOREALL:
+        ignoreAll(word);
+        break;
+      case SpellCheckEvent.REPLACE:
+        tokenizer.replaceWord(event.getReplaceWord());
+        break;
+      case SpellCheckEvent.REPLACEALL:
+        String replaceAllWord = event.getReplaceWord();
+        if (!autoReplaceWords.containsKey(word)) {
+          autoReplaceWords.put(word, replaceAllWord);
+        }
+        tokenizer.replaceWord(replaceAllWord);
+        break;
+      case SpellCheckEvent.ADDTODICT:
+        String addWord = event.getReplaceWord();
+        if (!addWord.equals(word))
+          tokenizer.replaceWord(addWord);
+        userdictionary.addWord(addWord);
+        forget(addWord);
+        break;
+      case SpellCheckEvent.CANCEL:
+        return true;
+      default:
+        throw new IllegalArgumentException("Unhandled case.");
+    }
+    return false;
+  }
+
+  /**
+   * Adds a word to the list of ignored words
+   * @param word The text of the word to ignore
+   */
+  public void ignoreAll(String word) {
+    ignoredWords.add(word);
+  }
+
+  /**
+   * Ignores several words at once, such as the content of an ignore file.
+   * Words already ignored are skipped.
+   * @param words the <code>String</code> words to ignore
+   */
+  public void ignoreAll(Collection words) {
+    ignoredWords.addAll(words);
+  }
+  
+  /**
+   * Adds a word to the user dictionary
+   * @param word The text of the word to add
+   */
+  public void addToDictionary(String word) {
+    if (!userdictionary.isCorrect(word)) {
+      userdictionary.addWord(word);
+      forget(word);
+    }
+  }
+
+  /**
+   * Forgets a word that was just added to the user dictionary.
+   * @param word the word added
+   */
+  private void forget(String word) {
+    SpellingMemo memo = this.memo;
+    if (memo != null)
+      memo.remove(word);
+    memoUserDictionaryCount = getModificationCount(userdictionary);
+  }
+  
+  /**
+   * Indicates if a word is in the list of ignored words
+   * @param word The text of the word check
+   */
+  public boolean isIgnored(String word){
+  	return ignoredWords.contains(word);
+  }
+  
+  /**
+   * Verifies if the word to analyze is contained in the user dictionary or
+   * in the dictionaries of the engine.
+   *
+   * @param word The word to verify that it's spelling is known.
+   * @return true if the word is in a dictionary.
+   */
+  public boolean isCorrect(String word) {
+    SpellingMemo memo = this.memo;
+    if (memo == null)
+      return userdictionary.isCorrect(word) || engine.isCorrect(word);
+
+    if (getModificationCount(userdictionary) != memoUserDictionaryCount)
+      clearMemo();
+    Boolean known = memo.get(word);
+    if (known != null)
+      return known.booleanValue();
+    boolean correct = userdictionary.isCorrect(word) || engine.isCorrect(word);
+    memo.put(word, correct);
+    return correct;
+  }
+
+  /**
+   * Verifies if the word held by a range of characters is contained in the
+   * user dictionary or in the dictionaries of the engine, looking it up in
+   * place when they can. The memo, if any, is keyed by the words, so the
+   * word is then copied and checked with {@link #isCorrect(String)}.
+   *
+   * @param text the characters holding the word
+   * @param start the index of the first character of the word
+   * @param end the index after the last character of the word
+   * @return true if the word is in a dictionary.
+   */
+  public boolean isCorrect(CharSequence text, int start, int end) {
+    if (memo != null)
+      return isCorrect(text.subSequence(start, end).toString());
+    return SpellCheckEngine.isCorrect(userdictionary, text, start, end) || engine.isCorrect(text, start, end);
+  }
+
+  /**
+   * Produces a list of suggested words from the dictionaries of the engine,
+   * followed by the ones of the user dictionary.
+   *
+   * @param word The word for which we want to gather suggestions
+   * @param threshold the cost value above which any suggestions are 
+   *                  thrown away
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   *                  for no limit
+   * @return the list of words suggested, a truncated
+   *                  {@link SuggestionList} if a dictionary ran out of budget
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions) {
+    SuggestionList suggestions = engine.getSuggestions(word, threshold, maxSuggestions);
+    Set seen = new HashSet(suggestions);
+
+    // the user dictionary may change at any time, so it is never cached
+    List found = SpellCheckEngine.getSuggestions(userdictionary, word, threshold, maxSuggestions);
+    if (SuggestionList.isTruncated(found))
+      suggestions.setTruncated(true);
+    SpellCheckEngine.addSuggestions(suggestions, seen, found, maxSuggestions);
+    suggestions.trimToSize();
+    
+    return suggestions;
+  }
+
+  /**
+   * Produces the list of suggested words, capitalized if requested.
+   * Used by the events that compute their suggestions on demand, and by
+   * callers that gather suggestions after the check is done.
+   * @see #capitalizeSuggestions(String, WordTokenizer)
+   *
+   * @param word The word for which we want to gather suggestions
+   * @param threshold the cost value above which any suggestions are 
+   *                  thrown away
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   *                  for no limit
+   * @param capitalize true to capitalize the first letter of the suggestions
+   * @return the list of words suggested
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions, boolean capitalize) {
+    List suggestions = getSuggestions(word, threshold, maxSuggestions);
+    if (capitalize)
+      suggestions = makeSuggestionsCapitalized(suggestions);
+    return suggestions;
+  }
+
+  /**
+   * Checks the spelling of the words returned by the WordTokenizer without
+   * firing any event: each error is passed to the sink as a few primitive
+   * values. Checking stops only at the end of the text.
+   * <p/>
+   * By default only the misspelt words are reported. The options add the
+   * reporting of the words to capitalize at the start of a sentence,
+   * {@link SpellChecker#REPORT_CAPITALIZATION}, and the replacement of
+   * the words chosen with <code>Replace All</code>,
+   * {@link SpellChecker#AUTO_REPLACE}, which are not reported then. The
+   * words of a {@link ReaderWordTokenizer} or {@link MappedFileWordTokenizer}
+   * cannot be replaced, they are reported as misspelt instead.
+   * <p/>
+   * The words of a {@link WordRangeTokenizer} are looked up in place, a
+   * String being created only for the words reported.
+   *
+   * @param tokenizer the media containing the text to analyze
+   * @param sink receives the errors
+   * @param options the sum of the options wanted, 0 for none
+   * @return the number of errors found
+   */
+  public int checkSpelling(WordTokenizer tokenizer, SpellingErrorSink sink, int options) {
+    ConfigurationSnapshot settings = engine.getConfiguration().getSnapshot();
+    boolean reportCapitalization = (options & SpellChecker.REPORT_CAPITALIZATION) != 0;
+    boolean autoReplace = (options & SpellChecker.AUTO_REPLACE) != 0 && !autoReplaceWords.isEmpty()
+      && canReplaceWords(tokenizer);
+    WordRangeTokenizer ranges = (tokenizer instanceof WordRangeTokenizer) ? (WordRangeTokenizer) tokenizer : null;
+    int errors = 0;
+    while (tokenizer.hasMoreWords()) {
+      String word = null;
+      CharSequence text;
+      int start;
+      int end;
+      if (ranges != null) {
+        // the word is looked up in place, its String is only created if reported
+        ranges.nextRange();
+        text = ranges.getRangeText();
+        start = ranges.getRangeStart();
+        end = ranges.getRangeEnd();
+      } else {
+        word = tokenizer.nextWord();
+        text = word;
+        start = 0;
+        end = word.length();
+      }
+      boolean correct = (word != null) ? isCorrect(word) : isCorrect(text, start, end);
+      if (correct && !(reportCapitalization && isSupposedToBeCapitalized(text.charAt(start), tokenizer, settings)))
+        continue;
+      if (word == null)
+        word = text.subSequence(start, end).toString();
+      if (correct) {
+        errors++;
+        reportError(sink, SpellingErrorSink.NOT_CAPITALIZED, tokenizer, word);
+      } else if (!isIgnoredByConfiguration(word, tokenizer, settings) && !isIgnored(word)) {
+        errors++;
+        String replacement = autoReplace ? (String) autoReplaceWords.get(word) : null;
+        if (replacement != null)
+          tokenizer.replaceWord(replacement);
+        else
+          reportError(sink, SpellingErrorSink.MISSPELT, tokenizer, word);
+      }
+    }
+    return errors;
+  }
+
+  /**
+   * Indicates if the tokenizer applies the replacements of its words, the
+   * tokenizers of streams and mapped files ignoring them.
+   */
+  private static boolean canReplaceWords(WordTokenizer tokenizer) {
+    return !(tokenizer instanceof ReaderWordTokenizer) && !(tokenizer instanceof MappedFileWordTokenizer);
+  }
+
+  /**
+   * Passes an error to the sink, with a long offset if both the sink and the
+   * tokenizer support it.
+   */
+  private static void reportError(SpellingErrorSink sink, int kind, WordTokenizer tokenizer, String word) {
+    if (sink instanceof LongOffsetSpellingErrorSink && tokenizer instanceof MappedFileWordTokenizer) {
+      long offset = ((MappedFileWordTokenizer) tokenizer).getCurrentWordOffset();
+      ((LongOffsetSpellingErrorSink) sink).spellingError(kind, offset, word.length(), word);
+    } else {
+      sink.spellingError(kind, tokenizer.getCurrentWordPosition(), word.length(), word);
+    }
+  }
+
+  /**
+   * Checks the spelling of a text read from a stream, without firing any
+   * event and holding only a window of the text in memory.
+   * @see #checkSpelling(WordTokenizer, SpellingErrorSink, int)
+   * @see ReaderWordTokenizer
+   *
+   * @param in the stream to read the text from
+   * @param sink receives the errors, with their offsets in the stream
+   * @param options the sum of the options wanted, 0 for none
+   * @return the number of errors found
+   * @throws IOException indicates problems reading the stream
+   */
+  public int checkSpelling(Reader in, SpellingErrorSink sink, int options) throws IOException {
+    ReaderWordTokenizer tokenizer = new ReaderWordTokenizer(in);
+    int errors = checkSpelling(tokenizer, sink, options);
+    if (tokenizer.getException() != null)
+      throw tokenizer.getException();
+    return errors;
+  }
+
+  /**
+   * Checks the spelling of a file mapped into memory, without firing any
+   * event and without reading the file on the heap.
+   * @see #checkSpelling(WordTokenizer, SpellingErrorSink, int)
+   * @see MappedFileWordTokenizer
+   *
+   * @param file the file to check
+   * @param charsetName the encoding of the file, one encoding the ASCII
+   * characters as single bytes such as UTF-8
+   * @param sink receives the errors, with their offsets in characters in the
+   * file; past 2 GiB only a {@link LongOffsetSpellingErrorSink} can receive them
+   * @param options the sum of the options wanted, 0 for none
+   * @return the number of errors found
+   * @throws IOException indicates problems reading the file
+   * @throws IllegalStateException an offset is beyond the range of an
+   * <code>int</code> and the sink takes no long offsets
+   */
+  public int checkSpelling(File file, String charsetName, SpellingErrorSink sink, int options) throws IOException {
+    MappedFileWordTokenizer tokenizer = new MappedFileWordTokenizer(file, charsetName);
+    try {
+      int errors = checkSpelling(tokenizer, sink, options);
+      if (tokenizer.getException() != null)
+        throw tokenizer.getException();
+      return errors;
+    } finally {
+      tokenizer.close();
+    }
+  }
+
+  /**
+   * Checks the spelling of a long text on several threads, without firing
+   * any event. The text is cut into chunks at sentence boundaries, which
+   * the threads check against the dictionaries they share, each with one
+   * of the finders. The errors are then passed to the sink from the calling
+   * thread, in text order and with their offsets in the text, exactly as
+   * <code>checkSpelling(new StringWordTokenizer(text, finder), sink, options)</code>
+   * would. With {@link SpellChecker#AUTO_REPLACE}, the offsets are those
+   * in the text once the words are replaced.
+   * <p/>
+   * The finders must find the same words in a chunk as in the whole text,
+   * which is the case of the finders whose markup does not hold sentences,
+   * such as {@link DefaultWordFinder}. The session, its user dictionary and
+   * the dictionaries of the engine must not change during the check.
+   * @see #checkSpelling(WordTokenizer, SpellingErrorSink, int)
+   *
+   * @param text the text to check
+   * @param finders the finders to use, one for each thread
+   * @param sink receives the errors
+   * @param options the sum of the options wanted, 0 for none
+   * @return the number of errors found
+   */
+  public int checkSpelling(String text, WordFinder[] finders, SpellingErrorSink sink, int options) {
+    return checkSpelling(text, finders, sink, options, ChunkedCheck.CHUNK_SIZE);
+  }
+
+  /**
+   * Checks the spelling of a long text on several threads, without firing
+   * any event, cutting it into chunks of about the given size. Smaller
+   * chunks share the work better between the threads, larger ones check
+   * fewer words again at the seams.
+   * @see #checkSpelling(String, WordFinder[], SpellingErrorSink, int)
+   *
+   * @param text the text to check
+   * @param finders the finders to use, one for each thread
+   * @param sink receives the errors
+   * @param options the sum of the options wanted, 0 for none
+   * @param chunkSize the number of characters after which a chunk is cut
+   * @return the number of errors found
+   */
+  public int checkSpelling(String text, WordFinder[] finders, SpellingErrorSink sink, int options, int chunkSize) {
+    if (finders.length == 0)
+      throw new IllegalArgumentException("at least one finder is needed");
+    if (chunkSize <= 0)
+      throw new IllegalArgumentException("chunkSize must be positive");
+    ConfigurationSnapshot settings = engine.getConfiguration().getSnapshot();
+    boolean sentences = settings.isIgnoreMixedCase() ||
+      ((options & SpellChecker.REPORT_CAPITALIZATION) != 0 && !settings.isIgnoreSentenceCapitalization());
+    return new ChunkedCheck(this, text, options, sentences, chunkSize).check(finders, sink);
+  }
+
+  /**
+   * Checks a batch of words, without firing any event. Each distinct word
+   * is looked up once, however often it occurs in the batch. A word is
+   * misspelt when it is neither in the dictionaries nor ignored, by the
+   * list of ignored words or by the configuration; the words are taken as
+   * not starting a sentence.
+   *
+   * @param words the <code>CharSequence</code> words to check
+   * @return the positions in the list of the misspelt words
+   */
+  public BitSet checkWords(List words) {
+    BitSet misspelt = new BitSet(words.size());
+    ConfigurationSnapshot settings = engine.getConfiguration().getSnapshot();
+    Map known = new HashMap();
+    int i = 0;
+    for (Iterator iterator = words.iterator(); iterator.hasNext(); i++) {
+      if (isMisspelt(iterator.next().toString(), null, settings, known))
+        misspelt.set(i);
+    }
+    return misspelt;
+  }
+
+  /**
+   * Checks a batch of words, without firing any event.
+   * @see #checkWords(List)
+   *
+   * @param words the words to check
+   * @return the positions in the array of the misspelt words
+   */
+  public BitSet checkWords(CharSequence[] words) {
+    return checkWords(Arrays.asList(words));
+  }
+
+  /**
+   * Gathers the distinct misspelt words of a text, without firing any event.
+   * Each distinct word is looked up once, however often it occurs. The
+   * words that are only wrong for not being capitalized at the start of a
+   * sentence are not reported, nor are replacements made.
+   *
+   * @param tokenizer the media containing the text to analyze
+   * @return the {@link UnknownWord}s, in order of first occurrence
+   */
+  public List findUnknownWords(WordTokenizer tokenizer) {
+    ConfigurationSnapshot settings = engine.getConfiguration().getSnapshot();
+    Map known = new HashMap();
+    Map unknown = new LinkedHashMap();
+    while (tokenizer.hasMoreWords()) {
+      String word = tokenizer.nextWord();
+      if (isMisspelt(word, tokenizer, settings, known)) {
+        UnknownWord unknownWord = (UnknownWord) unknown.get(word);
+        if (unknownWord == null) {
+          unknownWord = new UnknownWord(word);
+          unknown.put(word, unknownWord);
+        }
+        unknownWord.addOffset(tokenizer.getCurrentWordPosition());
+      }
+    }
+    return new ArrayList(unknown.values());
+  }
+
+  /**
+   * Gathers the distinct misspelt words of a text string.
+   * @see #findUnknownWords(WordTokenizer)
+   *
+   * @param text the text to analyze
+   * @return the {@link UnknownWord}s, in order of first occurrence
+   */
+  public List findUnknownWords(String text) {
+    return findUnknownWords(new StringWordTokenizer(text));
+  }
+
+  /**
+   * Verifies if a word is misspelt, looking it up in the dictionaries only
+   * the first time it is seen.
+   * @param word the word to verify
+   * @param tokenizer the tokenizer positioned on the word, or null
+   * @param settings the configuration of the run
+   * @param known the words seen so far, mapped to <code>Boolean.TRUE</code>
+   * when they are correct or ignored
+   * @return true if the word is misspelt
+   */
+  private boolean isMisspelt(String word, WordTokenizer tokenizer, ConfigurationSnapshot settings, Map known) {
+    if (word.length() == 0)
+      return false;
+    Boolean accepted = (Boolean) known.get(word);
+    if (accepted == null) {
+      accepted = Boolean.valueOf(isCorrect(word) || isIgnored(word));
+      known.put(word, accepted);
+    }
+    return !accepted.booleanValue() && !isIgnoredByConfiguration(word, tokenizer, settings);
+  }
+
+  /**
+   * Verifies if a word not found in the dictionaries is nevertheless
+   * accepted, for being of a kind the configuration says to ignore.
+   * @param word the word to verify
+   * @param tokenizer the tokenizer positioned on the word, or null
+   * @param settings the configuration of the run
+   * @return true if the misspelling is ignored
+   */
+  private static boolean isIgnoredByConfiguration(String word, WordTokenizer tokenizer, ConfigurationSnapshot settings) {
+    return (settings.isIgnoreMixedCase() && isMixedCaseWord(word, tokenizer)) ||
+      (settings.isIgnoreUpperCase() && isUpperCaseWord(word)) ||
+      (settings.isIgnoreDigitWords() && isDigitWord(word)) ||
+      (settings.isIgnoreInternetAddresses() && isINETWord(word));
+  }
+
+  /**
+   * This method is called to check the spelling of the words that are returned
+   * by the WordTokenizer.
+   * <p/>
+   * For each invalid word the action listeners will be informed with a new 
+   * SpellCheckEvent.<p>
+   *
+   * @param  tokenizer  The media containing the text to analyze.
+   * @return Either SPELLCHECK_OK, SPELLCHECK_CANCEL or the number of errors found. The number of errors are those that
+   * are found BEFORE any corrections are made.
+   */
+  public final int checkSpelling(WordTokenizer tokenizer) {
+    // the settings are read once for the whole text
+    ConfigurationSnapshot settings = engine.getConfiguration().getSnapshot();
+    int errors = 0;
+    boolean terminated = false;
+    //Keep track of the previous word
+//    String previousWord = null;
+    while (tokenizer.hasMoreWords() && !terminated) {
+      String word = tokenizer.nextWord();
+      //System.out.println("## word:" + word + ":"); //rls
+      //Check the spelling of the word
+      if (!isCorrect(word)) {
+          if (isIgnoredByConfiguration(word, tokenizer, settings)) {
+          //Null event. Since we are ignoring this word due
+          //to one of the above cases.
+        } else {
+          //We cant ignore this misspelt word
+          //For this invalid word are we ignoring the misspelling?
+          if (!isIgnored(word)) {
+            errors++;
+            //Is this word being automagically replaced
+            if (autoReplaceWords.containsKey(word)) {
+              tokenizer.replaceWord((String) autoReplaceWords.get(word));
+            } else {
+              //JMH Need to somehow capitalise the suggestions if
+              //ignoreSentenceCapitalisation is not set to true
+              //Fire the event.
+              //The suggestions are only computed if a listener asks for them.
+              SpellCheckEvent event = new BasicSpellCheckEvent(word, this, settings.getThreshold(),
+                engine.getMaxSuggestions(), capitalizeSuggestions(word, tokenizer, settings), tokenizer);
+              terminated = fireAndHandleEvent(tokenizer, event);
+            }
+          }
+        }
+      } else {
+        //This is a correctly spelt word. However perform some extra checks
+        /*
+         *  JMH TBD          //Check for multiple words
+         *  if (!ignoreMultipleWords &&) {
+         *  }
+         */
+        //Check for capitalisation
+        if (isSupposedToBeCapitalized(word, tokenizer, settings)) {
+          errors++;
+          StringBuffer buf = new StringBuffer(word);
+          buf.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+          Vector suggestion = new Vector();
+          suggestion.addElement(new Word(buf.toString(), 0));
+          SpellCheckEvent event = new BasicSpellCheckEvent(word, suggestion, tokenizer);
+          terminated = fireAndHandleEvent(tokenizer, event);
+        }
+      }
+    }
+    if (terminated)
+      return SpellChecker.SPELLCHECK_CANCEL;
+    else if (errors == 0)
+      return SpellChecker.SPELLCHECK_OK;
+    else
+      return errors;
+  }
+  
+  
+  private List makeSuggestionsCapitalized(List suggestions) {
+    // the Word objects may be shared with the cache, so they are not modified
+    List capitalized = new ArrayList(suggestions.size());
+    Iterator iterator = suggestions.iterator();
+    while(iterator.hasNext()) {
+      Word word = (Word)iterator.next();
+      String suggestion = word.getWord();
+      StringBuffer stringBuffer = new StringBuffer(suggestion);
+      stringBuffer.setCharAt(0, Character.toUpperCase(suggestion.charAt(0)));
+      capitalized.add(new Word(stringBuffer.toString(), word.getCost()));
+    }
+    return capitalized;
+  }
+
+    
+   private static boolean isSupposedToBeCapitalized(String word, WordTokenizer wordTokenizer, ConfigurationSnapshot settings) {
+     return isSupposedToBeCapitalized(word.charAt(0), wordTokenizer, settings);
+   }
+
+   private static boolean isSupposedToBeCapitalized(char first, WordTokenizer wordTokenizer, ConfigurationSnapshot settings) {
+     boolean configCapitalize = !settings.isIgnoreSentenceCapitalization();
+     // the sentence start is only looked for when the rest allows it
+     return configCapitalize && Character.isLowerCase(first) && wordTokenizer.isNewSentence();
+  } 
+
+  /**
+   * Indicates if the suggestions for a misspelt word are to be capitalized,
+   * as they are in the events fired by {@link #checkSpelling(WordTokenizer)}.
+   * Must be called while the tokenizer is positioned on the word.
+   *
+   * @param word the misspelt word
+   * @param wordTokenizer the tokenizer positioned on the word
+   * @return true if the suggestions are to be capitalized
+   */
+   public boolean capitalizeSuggestions(String word, WordTokenizer wordTokenizer) {
+     return capitalizeSuggestions(word, wordTokenizer, engine.getConfiguration().getSnapshot());
+   }
+
+   private static boolean capitalizeSuggestions(String word, WordTokenizer wordTokenizer, ConfigurationSnapshot settings) {
+   // if SPELL_IGNORESENTENCECAPITALIZATION and the initial word is capitalized, suggestions should also be capitalized
+   // if !SPELL_IGNORESENTENCECAPITALIZATION, capitalize suggestions only for the first word in a sentence
+     boolean configCapitalize = !settings.isIgnoreSentenceCapitalization();
+     boolean uppercase = Character.isUpperCase(word.charAt(0));
+     return (configCapitalize && wordTokenizer.isNewSentence()) || (!configCapitalize && uppercase);
+   }
+}
@@ -21,11 +21,10 @@ package com.swabunga.spell.event;
 
 import com.swabunga.spell.engine.Configuration;
 import com.swabunga.spell.engine.SpellDictionary;
-import com.swabunga.spell.engine.SpellDictionaryHashMap;
-import com.swabunga.spell.engine.Word;
-import com.swabunga.util.VectorUtility;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 
 
@@ -40,6 +39,11 @@ import java.util.*;
  * {@link com.swabunga.spell.engine.SpellDictionaryHashMap SpellDictionaryHashMap}
  * to persist the added word, the user dictionary will have the possibility to
  * grow and be available across differents invocations of the spell checker.
+ * <p/>
+ * A SpellChecker is a single threaded convenience: it builds a
+ * {@link SpellCheckEngine} from its dictionaries and settings, and checks
+ * the text in its own {@link SpellCheckSession}. To check documents on
+ * several threads, share the engine and give each thread a session.
  *
  * @author     Jason Height (jheight@chariot.net.au)
  * 19 June 2002
@@ -50,32 +54,36 @@ public class SpellChecker {
   /** Flag indicating that the Spell Check completed due to user cancellation*/
   public static final int SPELLCHECK_CANCEL = -2;
 
-  private Vector eventListeners = new Vector();
+  /** Option of the event-free check reporting the words to capitalize at the start of a sentence */
+  public static final int REPORT_CAPITALIZATION = 1;
+  /** Option of the event-free check replacing the <code>Replace All</code> words */
+  public static final int AUTO_REPLACE = 2;
+
   private Vector dictionaries = new Vector();
-  private SpellDictionary userdictionary;
 
   private Configuration config = Configuration.getConfiguration();
 
-  /**This variable holds all of the words that are to be always ignored */
-  private Vector ignoredWords = new Vector();
-  private Hashtable autoReplaceWords = new Hashtable();
-  
   // added caching - bd
   // For cached operation a separate user dictionary is required
-  private Map cache;
-  private int threshold = 0;
-  private int cacheSize = 0;
+  private SuggestionCache cache;
+  /** The file the cache is persisted to, if any */
+  private File cacheFile;
+  private boolean cacheFileLoaded = false;
+
+  /** The maximum number of suggestions gathered for a misspelt word */
+  private int maxSuggestions = 0;
+
+  /** The engine built from the current settings, null when they changed */
+  private SpellCheckEngine engine;
+  /** The listeners, ignored words and user dictionary */
+  private final CheckerSession session;
   
 
   /**
    * Constructs the SpellChecker.
    */
   public SpellChecker() {
-    try {
-      userdictionary = new SpellDictionaryHashMap();
-    } catch (IOException e) {
-      throw new RuntimeException("this exception should never happen because we are using null phonetic file");
-    }
+    session = new CheckerSession(getEngine());
   }
 
   /**
@@ -90,7 +98,9 @@ public class SpellChecker {
 
 
   /**
-   * Constructs the SpellChecker with a threshold
+   * Constructs the SpellChecker with a threshold. The threshold is set in
+   * the configuration of this checker only, in memory, and applies to the
+   * suggestions of its next checks.
    *
    * @param  dictionary  the dictionary used for looking up words.
    * @param  threshold   the cost value above which any suggestions are 
@@ -108,11 +118,16 @@ public class SpellChecker {
    *
    * @param dictionary the dictionary to add at the end of the dictionary list.
    */
-  public void addDictionary(SpellDictionary dictionary) {
+  public synchronized void addDictionary(SpellDictionary dictionary) {
     if (dictionary == null) {
       throw new IllegalArgumentException("dictionary must be non-null");
     }
     this.dictionaries.addElement(dictionary);
+    // suggestions gathered so far miss the new dictionary
+    if (cache != null)
+      cache.clear();
+    cacheFileLoaded = false;
+    engine = null;
   }
 
   /**
@@ -121,8 +136,16 @@ public class SpellChecker {
    * @param dictionary the dictionary to use when the user specify a new word
    * to add.
    */
-  public void setUserDictionary(SpellDictionary dictionary) {
-    userdictionary = dictionary;
+  public synchronized void setUserDictionary(SpellDictionary dictionary) {
+    SpellDictionary previous = session.getUserDictionary();
+    session.setUserDictionary(dictionary);
+    // the engine leaves the user dictionary out, see getEngine()
+    if (dictionaries.contains(previous) || dictionaries.contains(dictionary)) {
+      if (cache != null)
+        cache.clear();
+      cacheFileLoaded = false;
+      engine = null;
+    }
   }
 
   /**
@@ -135,13 +158,54 @@ public class SpellChecker {
     return config;
   }
 
+  /**
+   * Returns an engine holding the current dictionaries and settings. The
+   * engine can be shared by threads that check documents in their own
+   * {@link SpellCheckSession}; it does not see the dictionaries added
+   * afterwards. The user dictionary is left out even if it was added as
+   * well: the session looks it up on its own, and its suggestions are
+   * never cached.
+   *
+   * @return the engine, built again after the settings changed
+   */
+  public synchronized SpellCheckEngine getEngine() {
+    if (engine == null) {
+      SpellDictionary userdictionary = session != null ? session.getUserDictionary() : null;
+      Vector shared = new Vector(dictionaries.size());
+      for (Enumeration e = dictionaries.elements(); e.hasMoreElements();) {
+        Object dictionary = e.nextElement();
+        if (dictionary != userdictionary)
+          shared.addElement(dictionary);
+      }
+      SpellDictionary[] current = new SpellDictionary[shared.size()];
+      shared.copyInto(current);
+      engine = new SpellCheckEngine(current, config, cache, maxSuggestions);
+      if (cacheFile != null && !cacheFileLoaded)
+        loadCacheFile(engine);
+      if (session != null)
+        session.setEngine(engine);
+    }
+    return engine;
+  }
+
+  /**
+   * Returns the session holding the listeners, the ignored words and the
+   * user dictionary of this spell checker.
+   *
+   * @return the session, up to date with the current dictionaries
+   */
+  public SpellCheckSession getSession() {
+    getEngine();
+    return session;
+  }
+
   /**
    * Adds a SpellCheckListener to the listeners list.
    *
    * @param  listener  The feature to be added to the SpellCheckListener attribute
    */
   public void addSpellCheckListener(SpellCheckListener listener) {
-    eventListeners.addElement(listener);
+    session.addSpellCheckListener(listener);
   }
 
 
@@ -151,7 +215,7 @@ public class SpellChecker {
    * @param  listener  The listener to be removed from the listeners list.
    */
   public void removeSpellCheckListener(SpellCheckListener listener) {
-    eventListeners.removeElement(listener);
+    session.removeSpellCheckListener(listener);
   }
 
 
@@ -162,9 +226,7 @@ public class SpellChecker {
    * system.
    */
   protected void fireSpellCheckEvent(SpellCheckEvent event) {
-    for (int i = eventListeners.size() - 1; i >= 0; i--) {
-      ((SpellCheckListener) eventListeners.elementAt(i)).spellingError(event);
-    }
+    session.fireToListeners(event);
   }
 
 
@@ -173,8 +235,7 @@ public class SpellChecker {
    *  <code>Ignore All</code> words and <code>Replace All</code> words.
    */
   public void reset() {
-    ignoredWords = new Vector();
-    autoReplaceWords = new Hashtable();
+    session.reset();
   }
 
 
@@ -194,24 +255,6 @@ public class SpellChecker {
   }
 
 
-  /**
-   * Verifies if the word that is being spell checked contains at least a
-   * digit.
-   * Returns true if this word contains a digit.
-   *
-   * @param  word  The word to analyze for digit.
-   * @return       true if the word contains at least a digit.
-   */
-  private final static boolean isDigitWord(String word) {
-    for (int i = word.length() - 1; i >= 0; i--) {
-      if (Character.isDigit(word.charAt(i))) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-
   /**
    * Verifies if the word that is being spell checked contains an Internet 
    * address. The method look for typical protocol or the habitual string 
@@ -233,64 +276,10 @@ public class SpellChecker {
    * @return       true if this word looks like an Internet address.
    */
     public final static boolean isINETWord(String word) {
-        String lowerCaseWord = word.toLowerCase();
-        return lowerCaseWord.startsWith("http://") ||
-              lowerCaseWord.startsWith("www.") ||
-              lowerCaseWord.startsWith("ftp://") ||
-              lowerCaseWord.startsWith("https://") ||
-              lowerCaseWord.startsWith("ftps://");
+        return SpellCheckSession.isINETWord(word);
   }
 
 
-  /**
-   * Verifies if the word that is being spell checked contains all
-   * uppercases characters.
-   *
-   * @param  word  The word to analyze for uppercases characters
-   * @return       true if this word contains all upper case characters
-   */
-  private final static boolean isUpperCaseWord(String word) {
-    for (int i = word.length() - 1; i >= 0; i--) {
-      if (Character.isLowerCase(word.charAt(i))) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-
-  /**
-   * Verifies if the word that is being spell checked contains lower and
-   * upper cased characters. Note that a phrase beginning with an upper cased
-   * character is not considered a mixed case word.
-   *
-   * @param  word  The word to analyze for mixed cases characters
-   * @param startsSentence True if this word is at the start of a sentence
-   * @return       true if this word contains mixed case characters
-   */
-  private final static boolean isMixedCaseWord(String word, boolean startsSentence) {
-    int strLen = word.length();
-    boolean isUpper = Character.isUpperCase(word.charAt(0));
-    //Ignore the first character if this word starts the sentence and the first
-    //character was upper cased, since this is normal behaviour
-    if ((startsSentence) && isUpper && (strLen > 1))
-      isUpper = Character.isUpperCase(word.charAt(1));
-    if (isUpper) {
-      for (int i = word.length() - 1; i > 0; i--) {
-        if (Character.isLowerCase(word.charAt(i))) {
-          return true;
-        }
-      }
-    } else {
-      for (int i = word.length() - 1; i > 0; i--) {
-        if (Character.isUpperCase(word.charAt(i))) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
 
   /**
    * This method will fire the spell check event and then handle the event
@@ -301,39 +290,7 @@ public class SpellChecker {
    * @return                  Returns true if the event action is to cancel the current spell checking, false if the spell checking should continue
    */
   protected boolean fireAndHandleEvent(WordTokenizer tokenizer, SpellCheckEvent event) {
-    fireSpellCheckEvent(event);
-    String word = event.getInvalidWord();
-    //Work out what to do in response to the event.
-    switch (event.getAction()) {
-      case SpellCheckEvent.INITIAL:
-        break;
-      case SpellCheckEvent.IGNORE:
-        break;
-      case SpellCheckEvent.IGNOREALL:
-        ignoreAll(word);
-        break;
-      case SpellCheckEvent.REPLACE:
-        tokenizer.replaceWord(event.getReplaceWord());
-        break;
-      case SpellCheckEvent.REPLACEALL:
-        String replaceAllWord = event.getReplaceWord();
-        if (!autoReplaceWords.containsKey(word)) {
-          autoReplaceWords.put(word, replaceAllWord);
-        }
-        tokenizer.replaceWord(replaceAllWord);
-        break;
-      case SpellCheckEvent.ADDTODICT:
-        String addWord = event.getReplaceWord();
-        if (!addWord.equals(word))
-          tokenizer.replaceWord(addWord);
-        userdictionary.addWord(addWord);
-        break;
-      case SpellCheckEvent.CANCEL:
-        return true;
-      default:
-        throw new IllegalArgumentException("Unhandled case.");
-    }
-    return false;
+    return session.handleEvent(tokenizer, event);
   }
 
   /**
@@ -341,9 +298,16 @@ public class SpellChecker {
    * @param word The text of the word to ignore
    */
   public void ignoreAll(String word) {
-    if (!ignoredWords.contains(word)) {
-      ignoredWords.addElement(word);
-    }
+    session.ignoreAll(word);
+  }
+
+  /**
+   * Ignores several words at once, such as the content of an ignore file.
+   * Words already ignored are skipped.
+   * @param words the <code>String</code> words to ignore
+   */
+  public void ignoreAll(Collection words) {
+    session.ignoreAll(words);
   }
   
   /**
@@ -351,8 +315,7 @@ public class SpellChecker {
    * @param word The text of the word to add
    */
   public void addToDictionary(String word) {
-    if (!userdictionary.isCorrect(word))
-      userdictionary.addWord(word);
+    session.addToDictionary(word);
   }
   
   /**
@@ -360,7 +323,7 @@ public class SpellChecker {
    * @param word The text of the word check
    */
   public boolean isIgnored(String word){
-  	return ignoredWords.contains(word);
+  	return session.isIgnored(word);
   }
   
   /**
@@ -378,18 +341,7 @@ public class SpellChecker {
    * @return true if the word is in a dictionary.
    */
   public boolean isCorrect(String word) {
-    // rls System.out.println("## SpellChecker: userdictionary: " + userdictionary.getClass().getName());
-    if (userdictionary.isCorrect(word)) {
-      return true;
-    }
-    for (Enumeration e = dictionaries.elements(); e.hasMoreElements();) {
-      SpellDictionary dictionary = (SpellDictionary) e.nextElement();
-      // rls System.out.println("## SpellChecker: userdictionary: " + userdictionary.getClass().getName());
-      if (dictionary.isCorrect(word)) {
-        return true;
-      }
-    }
-    return false;
+    return getSession().isCorrect(word);
   }
 
   /**
@@ -409,34 +361,63 @@ public class SpellChecker {
    * @return the list of words suggested
    */
   public List getSuggestions(String word, int threshold) {
-    if (this.threshold != threshold && cache != null) {
-       this.threshold = threshold;
-       cache.clear();
-    }
-    
-    ArrayList suggestions = null;
-    
-    if (cache != null)
-       suggestions = (ArrayList) cache.get(word);
-
-    if (suggestions == null) {
-       suggestions = new ArrayList(50);
-    
-       for (Enumeration e = dictionaries.elements(); e.hasMoreElements();) {
-           SpellDictionary dictionary = (SpellDictionary) e.nextElement();
-           
-           if (dictionary != userdictionary)
-              VectorUtility.addAll(suggestions, dictionary.getSuggestions(word, threshold), false);
-       }
-
-       if (cache != null && cache.size() < cacheSize)
-         cache.put(word, suggestions);
-    }
-    
-    VectorUtility.addAll(suggestions, userdictionary.getSuggestions(word, threshold), false);
-    suggestions.trimToSize();
-    
-    return suggestions;
+    return getSuggestions(word, threshold, 0);
+  }
+
+  /**
+   * Produces a list of at most <code>maxSuggestions</code> suggested words,
+   * the head of the list {@link #getSuggestions(String, int)} would return.
+   * Each dictionary is asked for its own best suggestions only, and
+   * gathering stops as soon as the list is full.
+   *
+   * @param word The word for which we want to gather suggestions
+   * @param threshold the cost value above which any suggestions are 
+   *                  thrown away
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   *                  for no limit
+   * @return the list of words suggested, a truncated
+   *                  {@link SuggestionList} if a dictionary ran out of budget
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions) {
+    return getSession().getSuggestions(word, threshold, maxSuggestions);
+  }
+
+  /**
+   * Produces the list of suggested words, capitalized if requested.
+   * Used by the events that compute their suggestions on demand, and by
+   * callers that gather suggestions after the check is done.
+   * @see #capitalizeSuggestions(String, WordTokenizer)
+   *
+   * @param word The word for which we want to gather suggestions
+   * @param threshold the cost value above which any suggestions are 
+   *                  thrown away
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   *                  for no limit
+   * @param capitalize true to capitalize the first letter of the suggestions
+   * @return the list of words suggested
+   */
+  public List getSuggestions(String word, int threshold, int maxSuggestions, boolean capitalize) {
+    return getSession().getSuggestions(word, threshold, maxSuggestions, capitalize);
+  }
+
+  /**
+   * Sets the maximum number of suggestions gathered for each misspelt word
+   * found by {@link #checkSpelling(WordTokenizer)}.
+   * @param maxSuggestions the maximum number of suggestions, zero or less
+   * for no limit
+   */
+  public synchronized void setMaxSuggestions(int maxSuggestions) {
+    this.maxSuggestions = maxSuggestions;
+    engine = null;
+  }
+
+  /**
+   * Returns the maximum number of suggestions gathered for each misspelt
+   * word.
+   * @return the maximum number of suggestions, zero or less for no limit
+   */
+  public int getMaxSuggestions() {
+    return maxSuggestions;
   }
 
   /**
@@ -447,15 +428,212 @@ public class SpellChecker {
   }
 
   /**
-  * Activates a cache with specified size
+  * Activates a cache with specified size. The least recently used entries
+  * are evicted once the cache is full.
   * @param size - max. number of cache entries (0 to disable chache)
   */
-  public void setCache(int size) {
-    cacheSize = size;
+  public synchronized void setCache(int size) {
     if (size == 0)
       cache = null;
    else
-     cache = new HashMap((size + 2) / 3 * 4);
+     cache = new SuggestionCache(size);
+    cacheFileLoaded = false;
+    engine = null;
+  }
+
+  /**
+   * Returns the suggestion cache, which reports its hit, miss and eviction
+   * counts.
+   * @return the cache, or null if caching is disabled
+   */
+  public SuggestionCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Activates a memo of the words checked, so that each distinct word is
+   * looked up in the dictionaries once rather than on every occurrence.
+   * @see SpellCheckSession#setMemo(int)
+   * @param size max. number of words remembered (0 to disable the memo)
+   */
+  public void setMemo(int size) {
+    session.setMemo(size);
+  }
+
+  /**
+   * Returns the memo of the words checked, which reports its hit rate.
+   * @return the memo, or null if disabled
+   */
+  public SpellingMemo getMemo() {
+    return session.getMemo();
+  }
+
+  /**
+   * Persists the suggestion cache to a file, so that suggestions computed in
+   * one run are reused by the next. The file is read on the first request
+   * for suggestions, and only when it was written for the same dictionaries
+   * and threshold settings. Use {@link #flushCache()} to write it back.
+   * A cache of 300 entries is activated if none is.
+   * <p/>
+   * Persistence only applies when all the dictionaries can give a
+   * {@link com.swabunga.spell.engine.SpellDictionaryASpell#getFingerprint(int) fingerprint}
+   * of their content; the file is neither read nor written otherwise.
+   * @param file the cache file, or null to stop persisting the cache
+   */
+  public synchronized void setCacheFile(File file) {
+    if (file != null && cache == null)
+      setCache();
+    cacheFile = file;
+    cacheFileLoaded = false;
+    engine = null;
+  }
+
+  /**
+   * Returns the file the suggestion cache is persisted to.
+   * @return the cache file, or null if the cache is not persisted
+   */
+  public File getCacheFile() {
+    return cacheFile;
+  }
+
+  /**
+   * Writes the suggestion cache to its file, if new suggestions were
+   * computed since it was read.
+   * @throws IOException indicates problems writing the file
+   */
+  public synchronized void flushCache() throws IOException {
+    SuggestionCache cache = this.cache;
+    if (cacheFile == null || cache == null || !cache.isModified())
+      return;
+    String fingerprint = getEngine().getFingerprint();
+    if (fingerprint != null)
+      cache.store(cacheFile, fingerprint);
+  }
+
+  /**
+   * Loads the cache file once, when the engine is built. A file that
+   * cannot be read is ignored, the suggestions are then computed again.
+   * @param engine the engine whose dictionaries the file must match
+   */
+  private void loadCacheFile(SpellCheckEngine engine) {
+    String fingerprint = engine.getFingerprint();
+    if (cache != null && fingerprint != null) {
+      try {
+        cache.load(cacheFile, fingerprint);
+      } catch (IOException e) {
+        cache.clear();
+      }
+    }
+    cacheFileLoaded = true;
+  }
+
+  /**
+   * Checks the spelling of the words returned by the WordTokenizer without
+   * firing any event.
+   * @see SpellCheckSession#checkSpelling(WordTokenizer, SpellingErrorSink, int)
+   *
+   * @param tokenizer the media containing the text to analyze
+   * @param sink receives the errors
+   * @param options the sum of the options wanted, {@link #REPORT_CAPITALIZATION}
+   * and {@link #AUTO_REPLACE}, 0 for none
+   * @return the number of errors found
+   */
+  public int checkSpelling(WordTokenizer tokenizer, SpellingErrorSink sink, int options) {
+    return getSession().checkSpelling(tokenizer, sink, options);
+  }
+
+  /**
+   * Checks the spelling of a text read from a stream, without firing any
+   * event and holding only a window of the text in memory.
+   * @see SpellCheckSession#checkSpelling(Reader, SpellingErrorSink, int)
+   *
+   * @param in the stream to read the text from
+   * @param sink receives the errors, with their offsets in the stream
+   * @param options the sum of the options wanted, {@link #REPORT_CAPITALIZATION}
+   * and {@link #AUTO_REPLACE}, 0 for none
+   * @return the number of errors found
+   * @throws IOException indicates problems reading the stream
+   */
+  public int checkSpelling(Reader in, SpellingErrorSink sink, int options) throws IOException {
+    return getSession().checkSpelling(in, sink, options);
+  }
+
+  /**
+   * Checks the spelling of a file mapped into memory, without firing any
+   * event and without reading the file on the heap.
+   * @see SpellCheckSession#checkSpelling(File, String, SpellingErrorSink, int)
+   *
+   * @param file the file to check
+   * @param charsetName the encoding of the file, such as UTF-8
+   * @param sink receives the errors, with their offsets in characters in the
+   * file; past 2 GiB only a {@link LongOffsetSpellingErrorSink} can receive them
+   * @param options the sum of the options wanted, {@link #REPORT_CAPITALIZATION}
+   * and {@link #AUTO_REPLACE}, 0 for none
+   * @return the number of errors found
+   * @throws IOException indicates problems reading the file
+   */
+  public int checkSpelling(File file, String charsetName, SpellingErrorSink sink, int options) throws IOException {
+    return getSession().checkSpelling(file, charsetName, sink, options);
+  }
+
+  /**
+   * Checks the spelling of a long text on several threads, without firing
+   * any event.
+   * @see SpellCheckSession#checkSpelling(String, WordFinder[], SpellingErrorSink, int)
+   *
+   * @param text the text to check
+   * @param finders the finders to use, one for each thread
+   * @param sink receives the errors, in text order
+   * @param options the sum of the options wanted, {@link #REPORT_CAPITALIZATION}
+   * and {@link #AUTO_REPLACE}, 0 for none
+   * @return the number of errors found
+   */
+  public int checkSpelling(String text, WordFinder[] finders, SpellingErrorSink sink, int options) {
+    return getSession().checkSpelling(text, finders, sink, options);
+  }
+
+  /**
+   * Checks a batch of words, without firing any event.
+   * @see SpellCheckSession#checkWords(List)
+   *
+   * @param words the <code>CharSequence</code> words to check
+   * @return the positions in the list of the misspelt words
+   */
+  public BitSet checkWords(List words) {
+    return getSession().checkWords(words);
+  }
+
+  /**
+   * Checks a batch of words, without firing any event.
+   * @see SpellCheckSession#checkWords(List)
+   *
+   * @param words the words to check
+   * @return the positions in the array of the misspelt words
+   */
+  public BitSet checkWords(CharSequence[] words) {
+    return getSession().checkWords(words);
+  }
+
+  /**
+   * Gathers the distinct misspelt words of a text, without firing any event.
+   * @see SpellCheckSession#findUnknownWords(WordTokenizer)
+   *
+   * @param tokenizer the media containing the text to analyze
+   * @return the {@link UnknownWord}s, in order of first occurrence
+   */
+  public List findUnknownWords(WordTokenizer tokenizer) {
+    return getSession().findUnknownWords(tokenizer);
+  }
+
+  /**
+   * Gathers the distinct misspelt words of a text string.
+   * @see SpellCheckSession#findUnknownWords(WordTokenizer)
+   *
+   * @param text the text to analyze
+   * @return the {@link UnknownWord}s, in order of first occurrence
+   */
+  public List findUnknownWords(String text) {
+    return getSession().findUnknownWords(text);
   }
 
   /**
@@ -470,92 +648,51 @@ public class SpellChecker {
    * are found BEFORE any corrections are made.
    */
   public final int checkSpelling(WordTokenizer tokenizer) {
-    int errors = 0;
-    boolean terminated = false;
-    //Keep track of the previous word
-//    String previousWord = null;
-    while (tokenizer.hasMoreWords() && !terminated) {
-      String word = tokenizer.nextWord();
-      //System.out.println("## word:" + word + ":"); //rls
-      //Check the spelling of the word
-      if (!isCorrect(word)) {
-          if ((config.getBoolean(Configuration.SPELL_IGNOREMIXEDCASE) && isMixedCaseWord(word, tokenizer.isNewSentence())) ||
-            (config.getBoolean(Configuration.SPELL_IGNOREUPPERCASE) && isUpperCaseWord(word)) ||
-            (config.getBoolean(Configuration.SPELL_IGNOREDIGITWORDS) && isDigitWord(word)) ||
-            (config.getBoolean(Configuration.SPELL_IGNOREINTERNETADDRESSES) && isINETWord(word))) {
-          //Null event. Since we are ignoring this word due
-          //to one of the above cases.
-        } else {
-          //We cant ignore this misspelt word
-          //For this invalid word are we ignoring the misspelling?
-          if (!isIgnored(word)) {
-            errors++;
-            //Is this word being automagically replaced
-            if (autoReplaceWords.containsKey(word)) {
-              tokenizer.replaceWord((String) autoReplaceWords.get(word));
-            } else {
-              //JMH Need to somehow capitalise the suggestions if
-              //ignoreSentenceCapitalisation is not set to true
-              //Fire the event.
-              List suggestions = getSuggestions(word, config.getInteger(Configuration.SPELL_THRESHOLD));
-              if (capitalizeSuggestions(word, tokenizer))
-                suggestions = makeSuggestionsCapitalized(suggestions);
-              SpellCheckEvent event = new BasicSpellCheckEvent(word, suggestions, tokenizer);
-              terminated = fireAndHandleEvent(tokenizer, event);
-            }
-          }
-        }
-      } else {
-        //This is a correctly spelt word. However perform some extra checks
-        /*
-         *  JMH TBD          //Check for multiple words
-         *  if (!ignoreMultipleWords &&) {
-         *  }
-         */
-        //Check for capitalisation
-        if (isSupposedToBeCapitalized(word, tokenizer)) {
-          errors++;
-          StringBuffer buf = new StringBuffer(word);
-          buf.setCharAt(0, Character.toUpperCase(word.charAt(0)));
-          Vector suggestion = new Vector();
-          suggestion.addElement(new Word(buf.toString(), 0));
-          SpellCheckEvent event = new BasicSpellCheckEvent(word, suggestion, tokenizer);
-          terminated = fireAndHandleEvent(tokenizer, event);
-        }
-      }
-    }
-    if (terminated)
-      return SPELLCHECK_CANCEL;
-    else if (errors == 0)
-      return SPELLCHECK_OK;
-    else
-      return errors;
+    return getSession().checkSpelling(tokenizer);
   }
-  
-  
-  private List makeSuggestionsCapitalized(List suggestions) {
-    Iterator iterator = suggestions.iterator();
-    while(iterator.hasNext()) {
-      Word word = (Word)iterator.next();
-      String suggestion = word.getWord();
-      StringBuffer stringBuffer = new StringBuffer(suggestion);
-      stringBuffer.setCharAt(0, Character.toUpperCase(suggestion.charAt(0)));
-      word.setWord(stringBuffer.toString());
+
+  /**
+   * Indicates if the suggestions for a misspelt word are to be capitalized,
+   * as they are in the events fired by {@link #checkSpelling(WordTokenizer)}.
+   * Must be called while the tokenizer is positioned on the word.
+   *
+   * @param word the misspelt word
+   * @param wordTokenizer the tokenizer positioned on the word
+   * @return true if the suggestions are to be capitalized
+   */
+   public boolean capitalizeSuggestions(String word, WordTokenizer wordTokenizer) {
+     return getSession().capitalizeSuggestions(word, wordTokenizer);
+   }
+
+  /**
+   * The session of a spell checker. It fires and handles the events through
+   * {@link SpellChecker#fireAndHandleEvent(WordTokenizer, SpellCheckEvent)}
+   * and {@link SpellChecker#fireSpellCheckEvent(SpellCheckEvent)}, so that
+   * subclasses overriding them still see every event of the checks made by
+   * the session.
+   */
+  private class CheckerSession extends SpellCheckSession {
+
+    CheckerSession(SpellCheckEngine engine) {
+      super(engine);
     }
-    return suggestions;
-  }
 
-    
-   private boolean isSupposedToBeCapitalized(String word, WordTokenizer wordTokenizer) {
-     boolean configCapitalize = !config.getBoolean(Configuration.SPELL_IGNORESENTENCECAPITALIZATION);
-     return configCapitalize && wordTokenizer.isNewSentence() && Character.isLowerCase(word.charAt(0));
-  } 
+    protected void fireSpellCheckEvent(SpellCheckEvent event) {
+      SpellChecker.this.fireSpellCheckEvent(event);
+    }
 
-   private boolean capitalizeSuggestions(String word, WordTokenizer wordTokenizer) {
-   // if SPELL_IGNORESENTENCECAPITALIZATION and the initial word is capitalized, suggestions should also be capitalized
-   // if !SPELL_IGNORESENTENCECAPITALIZATION, capitalize suggestions only for the first word in a sentence
-     boolean configCapitalize = !config.getBoolean(Configuration.SPELL_IGNORESENTENCECAPITALIZATION);
-     boolean uppercase = Character.isUpperCase(word.charAt(0));
-     return (configCapitalize && wordTokenizer.isNewSentence()) || (!configCapitalize && uppercase);
-   }
+    protected boolean fireAndHandleEvent(WordTokenizer tokenizer, SpellCheckEvent event) {
+      return SpellChecker.this.fireAndHandleEvent(tokenizer, event);
+    }
+
+    /** Fires the event to the listeners, as the session does by default */
+    void fireToListeners(SpellCheckEvent event) {
+      super.fireSpellCheckEvent(event);
+    }
+
+    /** Fires and handles the event, as the session does by default */
+    boolean handleEvent(WordTokenizer tokenizer, SpellCheckEvent event) {
+      return super.fireAndHandleEvent(tokenizer, event);
+    }
+  }
 }
@@ -0,0 +1,145 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * A {@link SpellingErrorSink} that records the errors in parallel arrays.
+ * The buffer can be {@link #clear() cleared} and reused for the next text,
+ * its arrays only grow when a text has more errors than any before.
+ */
+public class SpellingErrorBuffer implements SpellingErrorSink {
+
+  private int[] kinds;
+  private int[] offsets;
+  private int[] lengths;
+  private String[] words;
+  private int size = 0;
+
+  /**
+   * Constructs an empty buffer.
+   */
+  public SpellingErrorBuffer() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty buffer.
+   * @param capacity the number of errors held before the arrays grow
+   */
+  public SpellingErrorBuffer(int capacity) {
+    if (capacity < 1)
+      capacity = 1;
+    kinds = new int[capacity];
+    offsets = new int[capacity];
+    lengths = new int[capacity];
+    words = new String[capacity];
+  }
+
+  /**
+   * @see com.swabunga.spell.event.SpellingErrorSink#spellingError(int, int, int, String)
+   */
+  public void spellingError(int kind, int offset, int length, String word) {
+    if (size == kinds.length)
+      grow();
+    kinds[size] = kind;
+    offsets[size] = offset;
+    lengths[size] = length;
+    words[size] = word;
+    size++;
+  }
+
+  private void grow() {
+    int capacity = kinds.length * 2;
+    int[] newKinds = new int[capacity];
+    int[] newOffsets = new int[capacity];
+    int[] newLengths = new int[capacity];
+    String[] newWords = new String[capacity];
+    System.arraycopy(kinds, 0, newKinds, 0, size);
+    System.arraycopy(offsets, 0, newOffsets, 0, size);
+    System.arraycopy(lengths, 0, newLengths, 0, size);
+    System.arraycopy(words, 0, newWords, 0, size);
+    kinds = newKinds;
+    offsets = newOffsets;
+    lengths = newLengths;
+    words = newWords;
+  }
+
+  /**
+   * Forgets the errors recorded, keeping the arrays for reuse.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++)
+      words[i] = null;
+    size = 0;
+  }
+
+  /**
+   * Returns the number of errors recorded.
+   * @return the number of errors
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the kind of an error.
+   * @param index the index of the error, in text order
+   * @return {@link #MISSPELT} or {@link #NOT_CAPITALIZED}
+   */
+  public int getKind(int index) {
+    checkIndex(index);
+    return kinds[index];
+  }
+
+  /**
+   * Returns the position of an error in the text.
+   * @param index the index of the error, in text order
+   * @return the offset of the word
+   */
+  public int getOffset(int index) {
+    checkIndex(index);
+    return offsets[index];
+  }
+
+  /**
+   * Returns the length of the word in error.
+   * @param index the index of the error, in text order
+   * @return the length of the word
+   */
+  public int getLength(int index) {
+    checkIndex(index);
+    return lengths[index];
+  }
+
+  /**
+   * Returns the word in error.
+   * @param index the index of the error, in text order
+   * @return the text of the word
+   */
+  public String getWord(int index) {
+    checkIndex(index);
+    return words[index];
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+  }
+}
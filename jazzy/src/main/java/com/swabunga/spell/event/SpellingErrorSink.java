@@ -0,0 +1,46 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * Receives the spelling errors found by
+ * {@link SpellChecker#checkSpelling(WordTokenizer, SpellingErrorSink, int)},
+ * the checking mode that fires no events. Each error is passed as a few
+ * primitive values, so that nothing is allocated for it.
+ *
+ * @see SpellingErrorBuffer
+ */
+public interface SpellingErrorSink {
+
+  /** The kind of a word not found in the dictionaries */
+  public static final int MISSPELT = 1;
+  /** The kind of a correct word that should be capitalized, as it starts a sentence */
+  public static final int NOT_CAPITALIZED = 2;
+
+  /**
+   * Called for each spelling error, in text order, while the tokenizer is
+   * still positioned on the word.
+   * @param kind {@link #MISSPELT} or {@link #NOT_CAPITALIZED}
+   * @param offset the position of the word in the text
+   * @param length the length of the word
+   * @param word the text of the word
+   */
+  public void spellingError(int kind, int offset, int length, String word);
+}
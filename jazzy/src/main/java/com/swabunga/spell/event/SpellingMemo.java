@@ -0,0 +1,160 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size bounded memo of the words found correct or misspelt by a
+ * {@link SpellCheckSession}, so that words occurring over and over in a
+ * text are looked up in the dictionaries only once.
+ * <p/>
+ * When the memo is full, the least recently used word is evicted. The
+ * session clears the memo whenever its dictionaries change.
+ * <p/>
+ * This class is thread safe. It keeps hit, miss and eviction counts that
+ * can be used to tune its size.
+ */
+public class SpellingMemo {
+
+  private final int capacity;
+  private final LinkedHashMap entries;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  /**
+   * Constructs the SpellingMemo.
+   * @param capacity the maximum number of words held, must be positive
+   */
+  public SpellingMemo(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity must be positive");
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap((capacity + 2) / 3 * 4, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry eldest) {
+        if (size() > SpellingMemo.this.capacity) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the remembered result for a word.
+   * @param word the word checked
+   * @return <code>Boolean.TRUE</code> if the word is correct,
+   * <code>Boolean.FALSE</code> if it is misspelt, or null if unknown
+   */
+  public synchronized Boolean get(String word) {
+    Boolean correct = (Boolean) entries.get(word);
+    if (correct == null)
+      misses++;
+    else
+      hits++;
+    return correct;
+  }
+
+  /**
+   * Remembers the result for a word.
+   * @param word the word checked
+   * @param correct true if the word is correct
+   */
+  public synchronized void put(String word, boolean correct) {
+    entries.put(word, Boolean.valueOf(correct));
+  }
+
+  /**
+   * Forgets the result for a word, after it was added to a dictionary.
+   * @param word the word to forget
+   */
+  public synchronized void remove(String word) {
+    entries.remove(word);
+  }
+
+  /**
+   * Forgets all the words. The statistics are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of words currently held.
+   * @return the size of the memo
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the maximum number of words held.
+   * @return the capacity of the memo
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of lookups answered from the memo.
+   * @return the hit count
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that were not answered from the memo.
+   * @return the miss count
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of words evicted to make room for new ones.
+   * @return the eviction count
+   */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /**
+   * Returns the ratio of lookups answered from the memo.
+   * @return the hit rate, between 0 and 1
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Summarizes the statistics of the memo.
+   * @return a one line description of the memo usage
+   */
+  public synchronized String toString() {
+    return "SpellingMemo[size=" + entries.size() + "/" + capacity + ", hits=" + hits
+      + ", misses=" + misses + ", evictions=" + evictions + "]";
+  }
+}
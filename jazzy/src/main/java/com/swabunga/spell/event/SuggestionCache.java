@@ -0,0 +1,377 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import com.swabunga.spell.engine.Word;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A size bounded cache of the suggestions produced by the dictionaries of a
+ * {@link SpellChecker}.
+ * <p/>
+ * Entries are keyed by the misspelt word and the threshold they were
+ * computed with. When the cache is full, the least recently used entry is
+ * evicted. The cached lists are unmodifiable, so callers that want to add
+ * to them must copy them first.
+ * <p/>
+ * This class is thread safe. It keeps hit, miss and eviction counts that
+ * can be used to tune its size.
+ * <p/>
+ * The entries can be stored to and loaded from a file, so that suggestions
+ * survive from one run to the next. The file records the fingerprint of the
+ * dictionaries the suggestions were computed with, and its entries are only
+ * loaded back when the fingerprint still matches.
+ */
+public class SuggestionCache {
+
+  private final int capacity;
+  private final LinkedHashMap entries;
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private boolean modified = false;
+
+  /** The first line of a cache file */
+  private static final String FILE_HEADER = "#jazzy suggestion cache 2";
+  /** The encoding of a cache file */
+  private static final String FILE_ENCODING = "UTF-8";
+
+  /**
+   * Constructs the SuggestionCache.
+   * @param capacity the maximum number of entries held, must be positive
+   */
+  public SuggestionCache(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("capacity must be positive");
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap((capacity + 2) / 3 * 4, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry eldest) {
+        if (size() > SuggestionCache.this.capacity) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached suggestions for a word.
+   * @param word the misspelt word
+   * @param threshold the cost value above which suggestions were thrown away
+   * @param maxSuggestions the maximum number of suggestions wanted, zero or
+   * less for no limit
+   * @return an unmodifiable list of suggestions, or null if no entry holds
+   * enough of them
+   */
+  public synchronized List get(String word, int threshold, int maxSuggestions) {
+    Entry entry = (Entry) entries.get(new Key(word, threshold));
+    if (entry == null || !entry.covers(maxSuggestions)) {
+      misses++;
+      return null;
+    }
+    hits++;
+    if (maxSuggestions > 0 && entry.suggestions.size() > maxSuggestions)
+      return entry.suggestions.subList(0, maxSuggestions);
+    return entry.suggestions;
+  }
+
+  /**
+   * Caches the suggestions for a word, replacing any previous entry.
+   * @param word the misspelt word
+   * @param threshold the cost value above which suggestions were thrown away
+   * @param maxSuggestions the maximum number of suggestions the list was
+   * computed with, zero or less for no limit
+   * @param suggestions the suggestions, which are copied
+   * @return the unmodifiable copy held by the cache
+   */
+  public synchronized List put(String word, int threshold, int maxSuggestions, List suggestions) {
+    List copy = Collections.unmodifiableList(new ArrayList(suggestions));
+    entries.put(new Key(word, threshold), new Entry(copy, maxSuggestions));
+    modified = true;
+    return copy;
+  }
+
+  /**
+   * Indicates if entries were added since the cache was created, loaded or
+   * stored.
+   * @return true if the cache holds entries that are not in its file
+   */
+  public synchronized boolean isModified() {
+    return modified;
+  }
+
+  /**
+   * Loads the entries of a cache file, provided it was stored with the
+   * same fingerprint. A missing file or a file of another fingerprint is
+   * not an error, nothing is loaded then.
+   * @param file the cache file
+   * @param fingerprint the fingerprint of the dictionaries in use
+   * @return the number of entries loaded
+   * @throws IOException indicates problems reading the file
+   */
+  public synchronized int load(File file, String fingerprint) throws IOException {
+    BufferedReader in;
+    try {
+      in = new BufferedReader(new InputStreamReader(new FileInputStream(file), FILE_ENCODING));
+    } catch (FileNotFoundException e) {
+      return 0;
+    }
+    int count = 0;
+    try {
+      if (!FILE_HEADER.equals(in.readLine()) || !fingerprint.equals(in.readLine()))
+        return 0;
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length < 3)
+          throw new IOException("bad format: " + line);
+        List suggestions = new ArrayList(fields.length - 3);
+        for (int i = 3; i < fields.length; i++) {
+          int colon = fields[i].lastIndexOf(':');
+          if (colon == -1)
+            throw new IOException("bad format: " + line);
+          suggestions.add(new Word(unescape(fields[i].substring(0, colon)),
+            Integer.parseInt(fields[i].substring(colon + 1))));
+        }
+        entries.put(new Key(unescape(fields[2]), Integer.parseInt(fields[0])),
+          new Entry(Collections.unmodifiableList(suggestions), Integer.parseInt(fields[1])));
+        count++;
+      }
+    } catch (NumberFormatException e) {
+      throw new IOException("bad format: " + e.getMessage());
+    } finally {
+      in.close();
+    }
+    return count;
+  }
+
+  /**
+   * Stores all the entries to a cache file, least recently used first. The
+   * file is written aside and then renamed, so that an interrupted run
+   * leaves the previous file intact.
+   * @param file the cache file
+   * @param fingerprint the fingerprint of the dictionaries in use
+   * @throws IOException indicates problems writing the file
+   */
+  public synchronized void store(File file, String fingerprint) throws IOException {
+    File tmp = new File(file.getPath() + ".tmp");
+    BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), FILE_ENCODING));
+    try {
+      out.write(FILE_HEADER);
+      out.newLine();
+      out.write(fingerprint);
+      out.newLine();
+      for (Iterator i = entries.entrySet().iterator(); i.hasNext();) {
+        Map.Entry e = (Map.Entry) i.next();
+        Key key = (Key) e.getKey();
+        Entry entry = (Entry) e.getValue();
+        out.write(Integer.toString(key.threshold));
+        out.write('\t');
+        out.write(Integer.toString(entry.maxSuggestions));
+        out.write('\t');
+        out.write(escape(key.word));
+        for (Iterator j = entry.suggestions.iterator(); j.hasNext();) {
+          Word word = (Word) j.next();
+          out.write('\t');
+          out.write(escape(word.getWord()));
+          out.write(':');
+          out.write(Integer.toString(word.getCost()));
+        }
+        out.newLine();
+      }
+    } finally {
+      out.close();
+    }
+    if (!tmp.renameTo(file)) {
+      file.delete();
+      if (!tmp.renameTo(file))
+        throw new IOException("Could not rename " + tmp + " to " + file);
+    }
+    modified = false;
+  }
+
+  /**
+   * Escapes the characters that separate the fields and lines of a cache
+   * file, and the backslash.
+   */
+  private static String escape(String text) {
+    StringBuffer buf = new StringBuffer(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\': buf.append("\\\\"); break;
+        case '\t': buf.append("\\t"); break;
+        case '\n': buf.append("\\n"); break;
+        case '\r': buf.append("\\r"); break;
+        default: buf.append(c);
+      }
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Restores the characters escaped by {@link #escape(String)}.
+   * @throws IOException if the text holds an unknown escape
+   */
+  private static String unescape(String text) throws IOException {
+    if (text.indexOf('\\') == -1)
+      return text;
+    StringBuffer buf = new StringBuffer(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c != '\\') {
+        buf.append(c);
+        continue;
+      }
+      char next = ++i < text.length() ? text.charAt(i) : 0;
+      switch (next) {
+        case '\\': buf.append('\\'); break;
+        case 't': buf.append('\t'); break;
+        case 'n': buf.append('\n'); break;
+        case 'r': buf.append('\r'); break;
+        default: throw new IOException("bad escape: " + text);
+      }
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Removes all entries. The statistics are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of entries currently held.
+   * @return the size of the cache
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the maximum number of entries held.
+   * @return the capacity of the cache
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of lookups answered from the cache.
+   * @return the hit count
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that were not answered from the cache.
+   * @return the miss count
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of entries evicted to make room for new ones.
+   * @return the eviction count
+   */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /**
+   * Returns the ratio of lookups answered from the cache.
+   * @return the hit rate, between 0 and 1
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Summarizes the statistics of the cache.
+   * @return a one line description of the cache usage
+   */
+  public synchronized String toString() {
+    return "SuggestionCache[size=" + entries.size() + "/" + capacity + ", hits=" + hits
+      + ", misses=" + misses + ", evictions=" + evictions + "]";
+  }
+
+  private static final class Key {
+    private final String word;
+    private final int threshold;
+
+    Key(String word, int threshold) {
+      this.word = word;
+      this.threshold = threshold;
+    }
+
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return threshold == key.threshold && word.equals(key.word);
+    }
+
+    public int hashCode() {
+      return 31 * word.hashCode() + threshold;
+    }
+  }
+
+  private static final class Entry {
+    private final List suggestions;
+    private final int maxSuggestions;
+
+    Entry(List suggestions, int maxSuggestions) {
+      this.suggestions = suggestions;
+      this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * A bounded list answers an equally or more bounded request, or any
+     * request if it was not cut short.
+     */
+    boolean covers(int wanted) {
+      if (maxSuggestions <= 0 || suggestions.size() < maxSuggestions)
+        return true;
+      return wanted > 0 && wanted <= maxSuggestions;
+    }
+  }
+}
@@ -21,14 +21,26 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
 //:folding=explicit:
 package com.swabunga.spell.event;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * A word finder for TeX and LaTeX documents, which searches text for
  * sequences of letters, but ignores any  commands and environments as well
  * as  Math environments.
  *
+ * <p>
+ * The markers of the text to ignore are compiled into a trie, so that each
+ * position of the text is checked once against all of them. They are
+ * applied in order of importance: comments, maths, user defined ignores,
+ * command parameters and environment names, then commands.
+ * </p>
+ *
  * @author Anthony Roy  (ajr@antroy.co.uk)
  */
 
@@ -39,8 +51,50 @@ public class TeXWordFinder extends AbstractWordFinder {
 //{{{ ~ Instance/static variables ...............................................
 
   private boolean IGNORE_COMMENTS = true;
-  private HashSet user_defined_ignores = new HashSet();
+  private LinkedHashSet user_defined_ignores = new LinkedHashSet();
   private int regex_user_defined_ignores = STRING_EXPR;
+
+  /** The step of the user defined ignores, in the order of the markers */
+  private static final int USER_DEFINED_STEP = 3;
+  /** The markers ignored by default, with their ends */
+  private static final String[][] DEFAULT_MARKERS = {
+// Ignore Comments:
+    {"%", "\n"},
+// Ignore Maths:
+    {"$$", "$$"},
+    {"$", "$"},
+// Ignore certain command parameters.
+    {"\\newcommand", "}"},
+    {"\\documentclass", "}"},
+    {"\\usepackage", "}"},
+    {"\\newcounter{", "}"},
+    {"\\setcounter{", "}"},
+    {"\\addtocounter{", "}"},
+    {"\\value{", "}"},
+    {"\\arabic{", "}"},
+    {"\\usecounter{", "}"},
+    {"\\newenvironment", "}"},
+    {"\\setlength", "}"},
+    {"\\setkeys", "}"},
+// Ignore environment names.
+    {"\\begin{", "}"},
+    {"\\end{", "}"}
+  };
+  /** The steps of the default markers, in the same order */
+  private static final int[] DEFAULT_STEPS = {
+    0, 1, 2, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17
+  };
+  /** The trie of the default markers, shared until user ignores are added */
+  private static final Marker DEFAULT_TRIE = compile(new ArrayList());
+
+  /** The root of the trie of the markers, null for the default ones. Not
+   * initialized here, the text is searched by the super constructor */
+  private Marker markers;
+  /** The alternation of the user defined regular expressions */
+  private Pattern userPattern;
+  private Matcher userMatcher;
+  /** The text the matcher works on */
+  private CharSequence userMatcherText;
   /**
    * A type where string expressions are used to define expression to ignore
    */
@@ -93,7 +147,7 @@ public class TeXWordFinder extends AbstractWordFinder {
     boolean started = false;
 
     search:
-      while (i < text.length() && !finished) {
+      while (i < chars.length() && !finished) {
 
 //{{{ Find words.
         if (!started && isWordChar(i)) {
@@ -105,47 +159,24 @@ public class TeXWordFinder extends AbstractWordFinder {
             i++;
             continue search;
           } else {
-            nextWord.setText(text.substring(nextWord.getStart(), i));
+            nextWord.setText(chars, nextWord.getStart(), i);
             finished = true;
             break search;
           }
         }  //}}}
 // Ignores should be in order of importance and then specificity.
-        int j = i;
-// Ignore Comments:
-        j = ignore(j, '%', '\n');
-        
-// Ignore Maths:
-        j = ignore(j, "$$", "$$");
-        j = ignore(j, '$', '$');
-        
-// Ignore user defined.
-        j = ignoreUserDefined(j);
-        
-// Ignore certain command parameters.
-        j = ignore(j, "\\newcommand", "}");
-        j = ignore(j, "\\documentclass", "}");
-        j = ignore(j, "\\usepackage", "}");
-        j = ignore(j, "\\newcounter{", "}");
-        j = ignore(j, "\\setcounter{", "}");
-        j = ignore(j, "\\addtocounter{", "}");
-        j = ignore(j, "\\value{", "}");
-        j = ignore(j, "\\arabic{", "}");
-        j = ignore(j, "\\usecounter{", "}");
-        j = ignore(j, "\\newenvironment", "}");
-        j = ignore(j, "\\setlength", "}");
-        j = ignore(j, "\\setkeys", "}");
-        
-// Ignore environment names.
-        j = ignore(j, "\\begin{", "}");
-        j = ignore(j, "\\end{", "}");        
+        int j = skipMarkers(i);
         if (i != j){
           i = j;
           continue search;
         }
         
 // Ignore commands.
-        j = ignore(j, '\\');
+        if (chars.charAt(j) == '\\') {
+          j++;
+          while (j < chars.length() && Character.isLetterOrDigit(chars.charAt(j)))
+            j++;
+        }
         
         if (i != j){
           i = j;
@@ -157,26 +188,158 @@ public class TeXWordFinder extends AbstractWordFinder {
     if (!started) {
       nextWord = null;
     } else if (!finished) {
-      nextWord.setText(text.substring(nextWord.getStart(), i));
+      nextWord.setText(chars, nextWord.getStart(), i);
     }
 
     return currentWord;
   }
 //}}}
+  /**
+   * Skips the text to ignore at a position, applying each marker in turn at
+   * the position left by the previous ones.
+   * @param i the position in the text
+   * @return the position after the text ignored, <code>i</code> if none
+   */
+  private int skipMarkers(int i) {
+    int length = chars.length();
+    int step = 0;
+    while (i < length) {
+      int bestStep = -1;
+      int bestLength = 0;
+      String bestEnd = null;
+      Marker node = markers != null ? markers : DEFAULT_TRIE;
+      for (int n = i; n < length; n++) {
+        node = node.child(chars.charAt(n));
+        if (node == null)
+          break;
+        for (int m = 0; m < node.ends.size(); m++) {
+          int markerStep = node.steps[m];
+          String end = (String) node.ends.get(m);
+          // the longest marker wins among those of the same step
+          if (markerStep >= step && (bestStep < 0 || markerStep <= bestStep)
+              && matches(i, n + 1 - i, end, length)) {
+            bestStep = markerStep;
+            bestLength = n + 1 - i;
+            bestEnd = end;
+          }
+        }
+      }
+
+      if (userPattern != null && step <= USER_DEFINED_STEP && (bestStep < 0 || bestStep > USER_DEFINED_STEP)) {
+        if (userMatcher == null || userMatcherText != chars) {
+          userMatcher = userPattern.matcher(chars);
+          userMatcherText = chars;
+        }
+        if (userMatcher.region(i, length).lookingAt() && userMatcher.end() > i) {
+          i = userMatcher.end();
+          step = USER_DEFINED_STEP + 1;
+          continue;
+        }
+      }
+      if (bestStep < 0)
+        break;
+      i = skip(i, bestLength, bestEnd, length);
+      step = bestStep + 1;
+    }
+    return i;
+  }
+
+  /**
+   * Indicates if a marker found in the text applies: single characters
+   * always do, longer markers need some text after them.
+   */
+  private static boolean matches(int i, int markerLength, String end, int length) {
+    if (end == null || markerLength == 1)
+      return true;
+    return i + markerLength < length;
+  }
+
+  /**
+   * Skips a marker and the text up to its end.
+   * @return the position after the end, or where the search for the end
+   * stopped
+   */
+  private int skip(int i, int markerLength, String end, int length) {
+    int newIndex = i + markerLength;
+    if (end == null)
+      return newIndex;
+
+    if (markerLength == 1) {
+      char endChar = end.charAt(0);
+      while (newIndex < length) {
+        if (chars.charAt(newIndex++) == endChar)
+          break;
+      }
+      return newIndex;
+    }
+
+    int elen = end.length();
+    while (newIndex < length - elen) {
+      if (regionMatches(newIndex, end)) {
+        return newIndex + elen;
+      }
+      newIndex++;
+    }
+    return newIndex;
+  }
+
+  private boolean regionMatches(int i, String s) {
+    for (int k = 0; k < s.length(); k++) {
+      if (chars.charAt(i + k) != s.charAt(k))
+        return false;
+    }
+    return true;
+  }
+
   /**
    * This method is used to import a user defined set of either strings or regular expressions to ignore.
+   * A string is skipped where it occurs in the text, and a regular
+   * expression where the text matches it. The regular expressions are
+   * combined into one alternation, tried in the order they were added.
    * @param expressions a collection of Objects whose toString() value should be the expression. Typically String objects.
    * @param regex is an integer specifying the type of expression to use. e.g. REG_EXPR, STRING_EXPR.
+   * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
    */
   public void addUserDefinedIgnores(Collection expressions, int regex){
     user_defined_ignores.addAll(expressions);
     regex_user_defined_ignores = regex;
+
+    List userStrings = new ArrayList();
+    userPattern = null;
+    userMatcher = null;
+    if (regex_user_defined_ignores == REG_EXPR) {
+      StringBuffer alternation = new StringBuffer();
+      for (Iterator it = user_defined_ignores.iterator(); it.hasNext();) {
+        if (alternation.length() > 0)
+          alternation.append('|');
+        alternation.append("(?:").append(it.next()).append(')');
+      }
+      if (alternation.length() > 0)
+        userPattern = Pattern.compile(alternation.toString());
+    } else {
+      for (Iterator it = user_defined_ignores.iterator(); it.hasNext();) {
+        String expression = it.next().toString();
+        if (expression.length() > 0)
+          userStrings.add(expression);
+      }
+    }
+    markers = compile(userStrings);
   }
 
-  private int ignoreUserDefined(int i){
-    return i;
+  /**
+   * Builds the trie of the default markers and of the user defined strings.
+   */
+  private static Marker compile(List userStrings) {
+    Marker root = new Marker();
+    for (int i = 0; i < DEFAULT_MARKERS.length; i++) {
+      root.add(DEFAULT_MARKERS[i][0], DEFAULT_MARKERS[i][1], DEFAULT_STEPS[i]);
+    }
+    for (int i = 0; i < userStrings.size(); i++) {
+      root.add((String) userStrings.get(i), null, USER_DEFINED_STEP);
+    }
+    return root;
   }
-  
+
   /**
    * Define if comments contents are ignored during spell checking
    * @param ignore an indication if comments content is to be ignored
@@ -184,5 +347,48 @@ public class TeXWordFinder extends AbstractWordFinder {
   public void setIgnoreComments(boolean ignore) {
     IGNORE_COMMENTS = ignore;
   }
+
+  /**
+   * A node of the trie of the markers, holding the ends and steps of the
+   * markers ending there.
+   */
+  private static final class Marker {
+    final List ends = new ArrayList();
+    int[] steps = new int[0];
+    private char[] labels = new char[0];
+    private Marker[] children = new Marker[0];
+
+    Marker child(char c) {
+      for (int i = 0; i < labels.length; i++) {
+        if (labels[i] == c)
+          return children[i];
+      }
+      return null;
+    }
+
+    void add(String marker, String markerEnd, int markerStep) {
+      Marker node = this;
+      for (int i = 0; i < marker.length(); i++) {
+        Marker next = node.child(marker.charAt(i));
+        if (next == null) {
+          next = new Marker();
+          char[] newLabels = new char[node.labels.length + 1];
+          Marker[] newChildren = new Marker[node.children.length + 1];
+          System.arraycopy(node.labels, 0, newLabels, 0, node.labels.length);
+          System.arraycopy(node.children, 0, newChildren, 0, node.children.length);
+          newLabels[node.labels.length] = marker.charAt(i);
+          newChildren[node.children.length] = next;
+          node.labels = newLabels;
+          node.children = newChildren;
+        }
+        node = next;
+      }
+      int[] newSteps = new int[node.steps.length + 1];
+      System.arraycopy(node.steps, 0, newSteps, 0, node.steps.length);
+      newSteps[node.steps.length] = markerStep;
+      node.ends.add(markerEnd);
+      node.steps = newSteps;
+    }
+  }
 //}}}
 }
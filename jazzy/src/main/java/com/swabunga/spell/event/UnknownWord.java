@@ -0,0 +1,88 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * A word not found in the dictionaries, with the positions of all its
+ * occurrences in the text that was checked.
+ *
+ * @see SpellChecker#findUnknownWords(WordTokenizer)
+ */
+public class UnknownWord {
+
+  private final String word;
+  private int[] offsets = new int[1];
+  private int count = 0;
+
+  /**
+   * Creates an unknown word without occurrences.
+   * @param word the text of the word
+   */
+  UnknownWord(String word) {
+    this.word = word;
+  }
+
+  /**
+   * Records an occurrence of the word.
+   * @param offset the start position of the occurrence
+   */
+  void addOffset(int offset) {
+    if (count == offsets.length) {
+      int[] grown = new int[count * 2];
+      System.arraycopy(offsets, 0, grown, 0, count);
+      offsets = grown;
+    }
+    offsets[count++] = offset;
+  }
+
+  /**
+   * Returns the text of the word.
+   * @return the word
+   */
+  public String getWord() {
+    return word;
+  }
+
+  /**
+   * Returns the number of occurrences of the word.
+   * @return the number of occurrences
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the start positions of the occurrences, in text order.
+   * @return a copy of the offsets
+   */
+  public int[] getOffsets() {
+    int[] copy = new int[count];
+    System.arraycopy(offsets, 0, copy, 0, count);
+    return copy;
+  }
+
+  /**
+   * Returns the word and the number of its occurrences.
+   * @return a description of the word
+   */
+  public String toString() {
+    return word + " (" + count + ")";
+  }
+}
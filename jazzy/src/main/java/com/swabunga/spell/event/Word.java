@@ -21,6 +21,9 @@ package com.swabunga.spell.event;
 
 /**
  * Offers basic methods to manipulate a text string representing a word.
+ * <p/>
+ * A word can also be set as a range of the characters holding it, in which
+ * case its String is only created when asked for.
  */
 public class Word {
 
@@ -29,6 +32,8 @@ public class Word {
   private int end;
   private int start;
   private String text;
+  /** The characters holding the word while its String is not created */
+  private CharSequence source;
 
   //~ Constructors ............................................................
 
@@ -70,8 +75,9 @@ public class Word {
    * @param s the start index.
    */
   public void setStart(int s) {
+    int length = length();
     start = s;
-    setEnd();
+    end = s + length;
   }
 
   /**
@@ -90,15 +96,35 @@ public class Word {
    */
   public void setText(String s) {
     text = s;
+    source = null;
     setEnd();
   }
 
+  /**
+   * Set the word to a range of characters, without creating its String.
+   * The characters must not change while the word refers to them.
+   *
+   * @param s the characters holding the word
+   * @param start the start index of the word
+   * @param end the end index of the word
+   */
+  public void setText(CharSequence s, int start, int end) {
+    text = null;
+    source = s;
+    this.start = start;
+    this.end = end;
+  }
+
   /**
    * Supply the text string representing the word
    * @return the String representing the word.
    */
   public String getText() {
 
+    if (text == null) {
+      text = source.subSequence(start, end).toString();
+      source = null;
+    }
     return text;
   }
 
@@ -108,9 +134,10 @@ public class Word {
    * @param w the Word to copy.
    */
   public void copy(Word w) {
-    text = w.toString();
-    start = w.getStart();
-    setEnd();
+    text = w.text;
+    source = w.source;
+    start = w.start;
+    end = w.end;
   }
 
   /**
@@ -119,7 +146,7 @@ public class Word {
    */
   public int length() {
 
-    return text.length();
+    return end - start;
   }
 
   /**
@@ -128,7 +155,7 @@ public class Word {
    */
   public String toString() {
 
-    return text;
+    return getText();
   }
 
   /**
@@ -0,0 +1,576 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A declarative description of the words of a kind of text, from which a
+ * {@link GrammarWordFinder} finds them.
+ *
+ * <p>
+ * A word is a sequence of letters, digits or added word characters,
+ * possibly joined by single joiners, <code>' @ . _</code> unless set
+ * otherwise. The text to ignore is described by skip regions, each starting
+ * with a marker and running to one of its ends:
+ * </p>
+ * <ul>
+ * <li>the regions are looked for between words only, and where several
+ * markers start at the same position the longest wins;</li>
+ * <li>a region whose end is <code>null</code> covers its marker and the
+ * letters or digits right after it, as a command; one whose end is empty
+ * covers its marker alone;</li>
+ * <li>a {@link #NESTED} region needs one end for each of its markers found
+ * inside it, and a region without its end runs to the end of the text;</li>
+ * <li>a marker starting with a line end also matches at the start of the
+ * text, and a line end ending a region is left to start the next one, so
+ * that regions of whole lines can follow each other.</li>
+ * </ul>
+ * <p>
+ * When first used, the grammar is compiled: its characters are classified
+ * through a table for the ASCII range, its markers into a trie and the ends
+ * of each region into an automaton, both over the characters the markers
+ * use. The text is then scanned once, forward, each character costing a
+ * table lookup. A compiled grammar can no longer change, and is shared by
+ * the finders and threads using it. The grammars defined here are compiled
+ * when the class is loaded.
+ * </p>
+ */
+public class WordGrammar {
+
+  //~ Instance/static variables ...............................................
+
+  /** The flag of a region nested in itself: each of its markers found
+   * inside it needs its own end */
+  public static final int NESTED = 1;
+
+  static final byte OTHER = 0;
+  static final byte WORD = 1;
+  /** The characters joining two word characters in a word */
+  static final byte JOINER = 2;
+
+  /** The outputs of the states of the automata of the region ends */
+  private static final byte CLOSE = 1;
+  private static final byte OPEN = 2;
+
+  private final StringBuffer wordCharacters = new StringBuffer();
+  private String joiners = "'@._";
+  private final List regions = new ArrayList();
+  private boolean compiled;
+
+  /** The class of each ASCII character */
+  private byte[] asciiClasses;
+  /** The other characters added as word characters or joiners, sorted,
+   * with their classes */
+  private char[] classChars;
+  private byte[] classes;
+
+  /** The number of symbols, the characters used by the markers, 0 standing
+   * for all the others */
+  private int symbols;
+  private int[] asciiSymbols;
+  /** The other characters used by the markers, sorted, with their symbols */
+  private char[] symbolChars;
+  private int[] symbolIds;
+
+  /** The transitions of the trie of the markers, by state and symbol, -1
+   * where no marker continues */
+  private int[] starts;
+  /** The region of each state of the trie, -1 where no marker ends */
+  private int[] startRegions;
+  /** The length of the marker leading to each state of the trie */
+  private int[] startLengths;
+  /** The state of the trie after a line end, 0 if no marker starts so */
+  private int lineStart;
+
+  /** The transitions of the automata of the ends of the regions, by region,
+   * state and symbol, null for a region without ends */
+  private int[][] ends;
+  /** The output of each state of the automata of the ends */
+  private byte[][] outputs;
+  /** Whether the region of a marker with a <code>null</code> end is a command */
+  private boolean[] commands;
+
+  /**
+   * A grammar of XML and HTML, ignoring the tags.
+   */
+  public static final WordGrammar XML = new WordGrammar();
+
+  /**
+   * A grammar of Java sources, as {@link JavaWordFinder}: the text of a line
+   * after an asterisk, ignoring Javadoc tags, HTML tags and code.
+   */
+  public static final WordGrammar JAVA = new WordGrammar();
+
+  /**
+   * A grammar of TeX and LaTeX documents, ignoring the markup as
+   * {@link TeXWordFinder} does.
+   */
+  public static final WordGrammar TEX = new WordGrammar();
+
+  /**
+   * A grammar of Java properties files, ignoring the keys, the comments and
+   * the message format arguments.
+   */
+  public static final WordGrammar PROPERTIES = new WordGrammar();
+
+  /**
+   * A grammar of AsciiDoc documents, ignoring the comments, the delimited
+   * blocks of code or markup, the attributes, the references and the macros
+   * targets.
+   */
+  public static final WordGrammar ASCIIDOC = new WordGrammar();
+
+  /**
+   * A grammar of Markdown documents, ignoring the code, HTML, link
+   * destinations and entities.
+   */
+  public static final WordGrammar MARKDOWN = new WordGrammar();
+
+  static {
+    XML.addSkip("<", ">");
+
+    JAVA.addSkip("\n", "*");
+    JAVA.addSkip("@", null);
+    JAVA.addSkip("<code>", "</code>");
+    JAVA.addSkip("<CODE>", "</CODE>");
+    JAVA.addSkip("<", ">");
+
+    TEX.addSkip("%", "\n");
+    TEX.addSkip("$$", "$$");
+    TEX.addSkip("$", "$");
+    String[] texCommands = {"\\newcommand", "\\documentclass", "\\usepackage",
+      "\\newcounter{", "\\setcounter{", "\\addtocounter{", "\\value{", "\\arabic{",
+      "\\usecounter{", "\\newenvironment", "\\setlength", "\\setkeys",
+      "\\begin{", "\\end{"};
+    for (int i = 0; i < texCommands.length; i++)
+      TEX.addSkip(texCommands[i], "}");
+    TEX.addSkip("\\", null);
+
+    // a key runs to its separator, a line without one is ignored whole
+    PROPERTIES.addSkip("\n", new String[] {"=", ":", "\n"}, 0);
+    PROPERTIES.addSkip("\n#", "\n");
+    PROPERTIES.addSkip("\n!", "\n");
+    PROPERTIES.addSkip("\\\n", "");
+    PROPERTIES.addSkip("\\u", null);
+    PROPERTIES.addSkip("{", "}", NESTED);
+
+    ASCIIDOC.addSkip("\n//", "\n");
+    String[] asciidocBlocks = {"////", "----", "....", "++++", "```"};
+    for (int i = 0; i < asciidocBlocks.length; i++)
+      ASCIIDOC.addSkip("\n" + asciidocBlocks[i], "\n" + asciidocBlocks[i]);
+    ASCIIDOC.addSkip("\n:", "\n");
+    ASCIIDOC.addSkip("\n[", "]");
+    ASCIIDOC.addSkip("[[", "]]");
+    ASCIIDOC.addSkip("<<", ">>");
+    ASCIIDOC.addSkip("`", "`");
+    ASCIIDOC.addSkip("{", "}");
+    String[] asciidocMacros = {"http://", "https://", "link:", "image:", "include::"};
+    for (int i = 0; i < asciidocMacros.length; i++)
+      ASCIIDOC.addSkip(asciidocMacros[i], new String[] {"[", " ", "\n"}, 0);
+
+    MARKDOWN.addSkip("\n```", "\n```");
+    MARKDOWN.addSkip("\n~~~", "\n~~~");
+    MARKDOWN.addSkip("`", "`");
+    MARKDOWN.addSkip("``", "``");
+    MARKDOWN.addSkip("<!--", "-->");
+    MARKDOWN.addSkip("<", ">");
+    MARKDOWN.addSkip("](", ")");
+    MARKDOWN.addSkip("]:", "\n");
+    MARKDOWN.addSkip("&", null);
+    String[] markdownLinks = {"http://", "https://"};
+    for (int i = 0; i < markdownLinks.length; i++)
+      MARKDOWN.addSkip(markdownLinks[i], new String[] {" ", "\n", ")"}, 0);
+
+    // the shared grammars are frozen before anyone can add to them
+    XML.compile();
+    JAVA.compile();
+    TEX.compile();
+    PROPERTIES.compile();
+    ASCIIDOC.compile();
+    MARKDOWN.compile();
+  }
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a grammar of words of letters and digits joined by
+   * <code>' @ . _</code>, ignoring nothing.
+   */
+  public WordGrammar() {
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Adds characters making words, as letters and digits do.
+   *
+   * @param characters the characters to add
+   * @throws IllegalStateException if the grammar has been compiled
+   */
+  public synchronized void addWordCharacters(String characters) {
+    checkNotCompiled();
+    wordCharacters.append(characters);
+  }
+
+  /**
+   * Defines the characters joining two word characters in a word.
+   *
+   * @param characters the joiners, <code>' @ . _</code> by default
+   * @throws IllegalStateException if the grammar has been compiled
+   */
+  public synchronized void setJoiners(String characters) {
+    checkNotCompiled();
+    joiners = characters;
+  }
+
+  /**
+   * Adds a region to skip.
+   *
+   * @param start the marker starting the region
+   * @param end the end of the region, <code>null</code> for a command,
+   * empty for the marker alone
+   * @throws IllegalStateException if the grammar has been compiled
+   */
+  public void addSkip(String start, String end) {
+    addSkip(start, end, 0);
+  }
+
+  /**
+   * Adds a region to skip.
+   *
+   * @param start the marker starting the region
+   * @param end the end of the region, <code>null</code> for a command,
+   * empty for the marker alone
+   * @param flags {@link #NESTED} or 0
+   * @throws IllegalStateException if the grammar has been compiled
+   */
+  public void addSkip(String start, String end, int flags) {
+    addSkip(start, end == null ? null : end.length() == 0 ? new String[0] : new String[] {end}, flags);
+  }
+
+  /**
+   * Adds a region to skip, ended by the first of several ends. A region
+   * whose marker was added before is kept.
+   *
+   * @param start the marker starting the region
+   * @param ends the ends of the region, <code>null</code> for a command,
+   * empty for the marker alone
+   * @param flags {@link #NESTED} or 0
+   * @throws IllegalArgumentException if a marker or an end is empty
+   * @throws IllegalStateException if the grammar has been compiled
+   */
+  public synchronized void addSkip(String start, String[] ends, int flags) {
+    checkNotCompiled();
+    if (start == null || start.length() == 0)
+      throw new IllegalArgumentException("marker must be non-empty");
+    if (ends != null) {
+      for (int i = 0; i < ends.length; i++) {
+        if (ends[i] == null || ends[i].length() == 0)
+          throw new IllegalArgumentException("ends must be non-empty");
+      }
+    }
+    regions.add(new Object[] {start, ends, Integer.valueOf(flags)});
+  }
+
+  private void checkNotCompiled() {
+    if (compiled)
+      throw new IllegalStateException("The grammar has been compiled");
+  }
+
+  /**
+   * Compiles the grammar, once.
+   *
+   * @return this grammar
+   */
+  synchronized WordGrammar compile() {
+    if (compiled)
+      return this;
+    compileClasses();
+    compileSymbols();
+
+    // each character of a marker adds one state at most
+    int capacity = 1;
+    for (int r = 0; r < regions.size(); r++)
+      capacity += ((String) ((Object[]) regions.get(r))[0]).length();
+    List rows = new ArrayList();
+    int[] rowRegions = new int[capacity];
+    int[] rowLengths = new int[capacity];
+    Arrays.fill(rowRegions, -1);
+    rows.add(newRow());
+    ends = new int[regions.size()][];
+    outputs = new byte[regions.size()][];
+    commands = new boolean[regions.size()];
+    for (int r = 0; r < regions.size(); r++) {
+      Object[] region = (Object[]) regions.get(r);
+      String start = (String) region[0];
+      String[] regionEnds = (String[]) region[1];
+      int state = 0;
+      for (int i = 0; i < start.length(); i++) {
+        int[] row = (int[]) rows.get(state);
+        int symbol = symbolOf(start.charAt(i));
+        if (row[symbol] < 0) {
+          row[symbol] = rows.size();
+          rowLengths[rows.size()] = i + 1;
+          rows.add(newRow());
+        }
+        state = row[symbol];
+      }
+      if (rowRegions[state] < 0)
+        rowRegions[state] = r;
+      commands[r] = regionEnds == null;
+      if (regionEnds != null && regionEnds.length > 0) {
+        boolean nested = (((Integer) region[2]).intValue() & NESTED) != 0;
+        compileEnds(r, regionEnds, nested ? start : null);
+      }
+    }
+
+    starts = new int[rows.size() * symbols];
+    startRegions = Arrays.copyOf(rowRegions, rows.size());
+    startLengths = Arrays.copyOf(rowLengths, rows.size());
+    for (int s = 0; s < rows.size(); s++)
+      System.arraycopy((int[]) rows.get(s), 0, starts, s * symbols, symbols);
+    lineStart = Math.max(starts[symbolOf('\n')], 0);
+    compiled = true;
+    return this;
+  }
+
+  private int[] newRow() {
+    int[] row = new int[symbols];
+    Arrays.fill(row, -1);
+    return row;
+  }
+
+  /**
+   * Fills the table of the classes of the ASCII characters, and lists the
+   * other word characters and joiners.
+   */
+  private void compileClasses() {
+    asciiClasses = new byte[128];
+    for (char c = 0; c < asciiClasses.length; c++) {
+      if (Character.isLetterOrDigit(c))
+        asciiClasses[c] = WORD;
+    }
+    StringBuffer others = new StringBuffer();
+    String added = joiners + wordCharacters;
+    for (int i = 0; i < added.length(); i++) {
+      char c = added.charAt(i);
+      byte type = i < joiners.length() ? JOINER : WORD;
+      if (c < asciiClasses.length)
+        asciiClasses[c] = type;
+      else if (others.indexOf(String.valueOf(c)) < 0)
+        others.append(c);
+    }
+    classChars = others.toString().toCharArray();
+    Arrays.sort(classChars);
+    classes = new byte[classChars.length];
+    for (int i = 0; i < classChars.length; i++)
+      classes[i] = wordCharacters.indexOf(String.valueOf(classChars[i])) >= 0 ? WORD : JOINER;
+  }
+
+  /**
+   * Numbers the characters of the markers and ends, symbol 0 standing for
+   * the characters they do not use.
+   */
+  private void compileSymbols() {
+    StringBuffer used = new StringBuffer();
+    for (int r = 0; r < regions.size(); r++) {
+      Object[] region = (Object[]) regions.get(r);
+      used.append((String) region[0]);
+      String[] regionEnds = (String[]) region[1];
+      for (int i = 0; regionEnds != null && i < regionEnds.length; i++)
+        used.append(regionEnds[i]);
+    }
+    char[] chars = used.toString().toCharArray();
+    Arrays.sort(chars);
+    asciiSymbols = new int[128];
+    StringBuffer others = new StringBuffer();
+    symbols = 1;
+    for (int i = 0; i < chars.length; i++) {
+      char c = chars[i];
+      if (i > 0 && chars[i - 1] == c)
+        continue;
+      if (c < asciiSymbols.length)
+        asciiSymbols[c] = symbols++;
+      else
+        others.append(c);
+    }
+    symbolChars = others.toString().toCharArray();
+    symbolIds = new int[symbolChars.length];
+    for (int i = 0; i < symbolChars.length; i++)
+      symbolIds[i] = symbols++;
+  }
+
+  /**
+   * Builds the automaton finding the ends of a region, and its markers when
+   * nested, anywhere in the text: a trie of them whose missing transitions
+   * follow the longest suffix of the text read that starts one.
+   */
+  private void compileEnds(int region, String[] regionEnds, String open) {
+    int count = regionEnds.length + (open != null ? 1 : 0);
+    // each character of a pattern adds one state at most
+    int capacity = 1;
+    for (int p = 0; p < count; p++)
+      capacity += (p < regionEnds.length ? regionEnds[p] : open).length();
+    List rows = new ArrayList();
+    byte[] rowOutputs = new byte[capacity];
+    rows.add(newRow());
+    for (int p = 0; p < count; p++) {
+      String pattern = p < regionEnds.length ? regionEnds[p] : open;
+      int state = 0;
+      for (int i = 0; i < pattern.length(); i++) {
+        int[] row = (int[]) rows.get(state);
+        int symbol = symbolOf(pattern.charAt(i));
+        if (row[symbol] < 0) {
+          row[symbol] = rows.size();
+          rows.add(newRow());
+        }
+        state = row[symbol];
+      }
+      if (rowOutputs[state] == 0)
+        rowOutputs[state] = p < regionEnds.length ? CLOSE : OPEN;
+    }
+
+    int[] next = new int[rows.size() * symbols];
+    byte[] out = Arrays.copyOf(rowOutputs, rows.size());
+    for (int s = 0; s < rows.size(); s++)
+      System.arraycopy((int[]) rows.get(s), 0, next, s * symbols, symbols);
+    // breadth first, so that the suffix of a state is done before it
+    int[] suffix = new int[rows.size()];
+    int[] queue = new int[rows.size()];
+    int head = 0;
+    int tail = 0;
+    for (int c = 0; c < symbols; c++) {
+      if (next[c] < 0)
+        next[c] = 0;
+      else
+        queue[tail++] = next[c];
+    }
+    while (head < tail) {
+      int s = queue[head++];
+      if (out[s] == 0)
+        out[s] = out[suffix[s]];
+      for (int c = 0; c < symbols; c++) {
+        int t = next[s * symbols + c];
+        if (t < 0) {
+          next[s * symbols + c] = next[suffix[s] * symbols + c];
+        } else {
+          suffix[t] = next[suffix[s] * symbols + c];
+          queue[tail++] = t;
+        }
+      }
+    }
+    ends[region] = next;
+    outputs[region] = out;
+  }
+
+  /**
+   * Returns the class of a character: word character, joiner or other.
+   */
+  byte classOf(char c) {
+    if (c < 128)
+      return asciiClasses[c];
+    if (classChars.length > 0) {
+      int i = Arrays.binarySearch(classChars, c);
+      if (i >= 0)
+        return classes[i];
+    }
+    return Character.isLetterOrDigit(c) ? WORD : OTHER;
+  }
+
+  private int symbolOf(char c) {
+    if (c < 128)
+      return asciiSymbols[c];
+    if (symbolChars.length > 0) {
+      int i = Arrays.binarySearch(symbolChars, c);
+      if (i >= 0)
+        return symbolIds[i];
+    }
+    return 0;
+  }
+
+  /**
+   * Skips the region starting at a position between words.
+   *
+   * @param text the text
+   * @param index the position in the text
+   * @param length the length of the text
+   * @return the position after the region, <code>index</code> if none
+   */
+  int skip(CharSequence text, int index, int length) {
+    int state = -1;
+    int markerEnd = index;
+    if (starts[symbolOf(text.charAt(index))] >= 0) {
+      state = longestStart(text, index, length, 0);
+      if (state >= 0)
+        markerEnd = index + startLengths[state];
+    }
+    if (index == 0 && lineStart > 0) {
+      int lineState = longestStart(text, 0, length, lineStart);
+      // the line end read before the text is not part of it
+      if (lineState >= 0 && startLengths[lineState] - 1 >= markerEnd) {
+        state = lineState;
+        markerEnd = startLengths[lineState] - 1;
+      }
+    }
+    if (state < 0)
+      return index;
+
+    int region = startRegions[state];
+    if (ends[region] == null) {
+      if (commands[region]) {
+        while (markerEnd < length && Character.isLetterOrDigit(text.charAt(markerEnd)))
+          markerEnd++;
+      }
+      return markerEnd;
+    }
+    int[] next = ends[region];
+    byte[] out = outputs[region];
+    int depth = 1;
+    int s = 0;
+    for (int i = markerEnd; i < length; i++) {
+      s = next[s * symbols + symbolOf(text.charAt(i))];
+      if (out[s] == OPEN) {
+        depth++;
+      } else if (out[s] == CLOSE && --depth == 0) {
+        return text.charAt(i) == '\n' && i > index ? i : i + 1;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Returns the state of the trie of the longest marker read from a state
+   * at the given position, -1 if none.
+   */
+  private int longestStart(CharSequence text, int index, int length, int state) {
+    int longest = startRegions[state] >= 0 ? state : -1;
+    for (int i = index; i < length; i++) {
+      state = starts[state * symbols + symbolOf(text.charAt(i))];
+      if (state < 0)
+        break;
+      if (startRegions[state] >= 0)
+        longest = state;
+    }
+    return longest;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+/**
+ * A {@link WordTokenizer} that can move from word to word without creating
+ * a String for each of them. The current word is then known by its range in
+ * the characters holding it, so that it can be looked up in place with
+ * {@link com.swabunga.spell.engine.SpellDictionaryASpell#isCorrect(CharSequence, int, int)}
+ * and turned into a String only when it is misspelt.
+ * <p/>
+ * The range is relative to the characters returned by
+ * {@link #getRangeText()}, which are only valid until the tokenizer moves
+ * to the next word or replaces one.
+ */
+public interface WordRangeTokenizer extends WordTokenizer {
+
+  /**
+   * Moves to the next word, without creating its String. The word is then
+   * the current word, as after {@link #nextWord()}.
+   * @throws WordNotFoundException search string contains no more words.
+   */
+  public void nextRange();
+
+  /**
+   * Returns the characters holding the current word.
+   * @return the characters in which the range of the current word is given.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public CharSequence getRangeText();
+
+  /**
+   * Returns the start of the current word in the characters holding it.
+   * @return index of the start of the current word in {@link #getRangeText()}.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeStart();
+
+  /**
+   * Returns the end of the current word in the characters holding it.
+   * @return index of the end of the current word in {@link #getRangeText()}.
+   * @throws WordNotFoundException current word has not yet been set.
+   */
+  public int getRangeEnd();
+}
@@ -0,0 +1,394 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+package com.swabunga.spell.event;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+
+/**
+ * A reader which blanks out the markup of an XML or HTML document, so that
+ * only its text is spell checked. Each character of markup is read as a
+ * space, and the text is left in place: the offsets of the words are those
+ * of the document. Used with a {@link ReaderWordTokenizer}, large DocBook or
+ * XHTML files are checked in one pass, with constant memory:
+ * <pre>
+ * new ReaderWordTokenizer(new XMLTextReader(in, true, false))
+ * </pre>
+ *
+ * <p>
+ * Tags, processing instructions, declarations and entity references are
+ * blanked out. The content of CDATA sections is text. Attribute values and
+ * comments are text or markup depending on the policies given when the
+ * reader is created. A '&lt;' which cannot start markup, as in "a &lt; b",
+ * is text, and so is a '&amp;' which does not start a reference ended by a
+ * ';', as in "AT&amp;T": the characters of a reference are held until its
+ * end is read.
+ * </p>
+ */
+public class XMLTextReader extends FilterReader {
+
+  //~ Instance/static variables ...............................................
+
+  private static final int TEXT = 0;
+  /** After '&lt;' */
+  private static final int OPEN = 1;
+  /** After "&lt;!" */
+  private static final int BANG = 2;
+  /** After "&lt;!-" */
+  private static final int BANG_DASH = 3;
+  /** Matching "&lt;![CDATA[", matched counts the characters of it read */
+  private static final int CDATA_START = 4;
+  private static final int CDATA = 5;
+  private static final int COMMENT = 6;
+  /** Inside "&lt;!...&gt;", depth counts the opened '[' */
+  private static final int DECLARATION = 7;
+  /** Inside "&lt;?...?&gt;" */
+  private static final int INSTRUCTION = 8;
+  private static final int TAG = 9;
+  /** Inside a quoted attribute value, quote holds the quote character */
+  private static final int ATTRIBUTE = 10;
+  /** After '&amp;', back to entityReturn after the ';' */
+  private static final int ENTITY = 11;
+
+  /** The longest name of an entity reference */
+  private static final int MAX_ENTITY = 32;
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final String CDATA_MARK = "[CDATA[";
+
+  private final boolean checkAttributes;
+  private final boolean checkComments;
+
+  private int state = TEXT;
+  private int entityReturn = TEXT;
+  private int matched = 0;
+  private int depth = 0;
+  private char quote = 0;
+  /** The last characters read, to find the ends of comments and sections */
+  private char last1 = 0, last2 = 0;
+  /** The name of the entity reference being read */
+  private final char[] entity = new char[MAX_ENTITY];
+  private int entityLength = 0;
+
+  /** The characters of the document read but not yet filtered */
+  private char[] input;
+  /** The filtered characters not yet returned, from outputStart to
+   * outputEnd */
+  private char[] output;
+  private int outputStart = 0, outputEnd = 0;
+  private boolean ended = false;
+
+  //~ Constructors ............................................................
+
+  /**
+   * Creates a new XMLTextReader object, which checks neither attribute
+   * values nor comments.
+   *
+   * @param in the XML document
+   */
+  public XMLTextReader(Reader in) {
+    this(in, false, false);
+  }
+
+  /**
+   * Creates a new XMLTextReader object.
+   *
+   * @param in the XML document
+   * @param checkAttributes true if the attribute values are text to check
+   * @param checkComments true if the comments are text to check
+   */
+  public XMLTextReader(Reader in, boolean checkAttributes, boolean checkComments) {
+    super(in);
+    this.checkAttributes = checkAttributes;
+    this.checkComments = checkComments;
+  }
+
+  //~ Methods .................................................................
+
+  /**
+   * Reads characters of the document, with the markup read as spaces.
+   *
+   * @param cbuf the buffer to read the characters into
+   * @param off the offset in cbuf of the first character read
+   * @param len the maximum number of characters to read
+   * @return the number of characters read, or -1 at the end of the document
+   * @throws IOException if the document cannot be read
+   */
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (len == 0)
+      return 0;
+    if (input == null) {
+      input = new char[BUFFER_SIZE];
+      output = new char[BUFFER_SIZE + MAX_ENTITY + 2];
+    }
+    // Characters are read until some are known to be text or markup.
+    while (outputStart == outputEnd) {
+      if (ended)
+        return -1;
+      outputStart = outputEnd = 0;
+      int count = in.read(input, 0, Math.min(len, input.length));
+      if (count == -1) {
+        ended = true;
+        if (state == ENTITY)
+          endEntityAsText();
+      }
+      for (int i = 0; i < count; i++)
+        filter(input[i]);
+    }
+    int count = Math.min(len, outputEnd - outputStart);
+    System.arraycopy(output, outputStart, cbuf, off, count);
+    outputStart += count;
+    return count;
+  }
+
+  /**
+   * Reads a character of the document, markup being read as a space.
+   *
+   * @return the character read, or -1 at the end of the document
+   * @throws IOException if the document cannot be read
+   */
+  public int read() throws IOException {
+    char[] c = new char[1];
+    return read(c, 0, 1) == -1 ? -1 : c[0];
+  }
+
+  /**
+   * Skips characters of the document, which are still read to follow its
+   * markup.
+   *
+   * @param n the number of characters to skip
+   * @return the number of characters skipped
+   * @throws IOException if the document cannot be read
+   */
+  public long skip(long n) throws IOException {
+    char[] skipped = new char[(int) Math.min(n, 8192)];
+    long total = 0;
+    while (total < n) {
+      int count = read(skipped, 0, (int) Math.min(n - total, skipped.length));
+      if (count == -1)
+        break;
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Tells whether a character can be read without blocking.
+   *
+   * @return true if a filtered character is waiting, or the document is
+   * ready
+   * @throws IOException if the document cannot be read
+   */
+  public boolean ready() throws IOException {
+    return outputStart < outputEnd || in.ready();
+  }
+
+  /**
+   * Marks are not supported, since the markup would be read again.
+   *
+   * @return false
+   */
+  public boolean markSupported() {
+    return false;
+  }
+
+  /**
+   * Marks are not supported.
+   *
+   * @param readAheadLimit unused
+   * @throws IOException always
+   */
+  public void mark(int readAheadLimit) throws IOException {
+    throw new IOException("mark() not supported");
+  }
+
+  /**
+   * Marks are not supported.
+   *
+   * @throws IOException always
+   */
+  public void reset() throws IOException {
+    throw new IOException("reset() not supported");
+  }
+
+  /**
+   * Moves the state machine over the next character of the document, and
+   * adds it to the output once it is known to be text or markup.
+   *
+   * @param c the character of the document
+   */
+  private void filter(char c) {
+    char text = ' ';
+    switch (state) {
+      case TEXT:
+        if (c == '<')
+          state = OPEN;
+        else if (c == '&') {
+          startEntity(TEXT);
+          return;
+        } else
+          text = c;
+        break;
+      case OPEN:
+        if (c == '!')
+          state = BANG;
+        else if (c == '?')
+          state = INSTRUCTION;
+        else if (c == '/' || Character.isLetter(c) || c == '_' || c == ':')
+          state = TAG;
+        else {
+          // Not markup: the '<' has been blanked out, this character is text.
+          state = TEXT;
+          filter(c);
+          return;
+        }
+        break;
+      case BANG:
+        if (c == '-')
+          state = BANG_DASH;
+        else if (c == '[') {
+          state = CDATA_START;
+          matched = 1;
+        } else
+          startDeclaration(0, c);
+        break;
+      case BANG_DASH:
+        if (c == '-') {
+          state = COMMENT;
+          last1 = last2 = 0;
+        } else
+          startDeclaration(0, c);
+        break;
+      case CDATA_START:
+        if (c == CDATA_MARK.charAt(matched)) {
+          if (++matched == CDATA_MARK.length()) {
+            state = CDATA;
+            last1 = last2 = 0;
+          }
+        } else
+          // A conditional section of a DTD, the '[' after "<!" is open
+          startDeclaration(1, c);
+        break;
+      case CDATA:
+        if (c == '>' && last1 == ']' && last2 == ']')
+          state = TEXT;
+        else
+          text = c;
+        break;
+      case COMMENT:
+        if (c == '>' && last1 == '-' && last2 == '-')
+          state = TEXT;
+        else if (checkComments)
+          text = c;
+        break;
+      case DECLARATION:
+        if (c == '[')
+          depth++;
+        else if (c == ']' && depth > 0)
+          depth--;
+        else if (c == '>' && depth == 0)
+          state = TEXT;
+        break;
+      case INSTRUCTION:
+        if (c == '>' && last1 == '?')
+          state = TEXT;
+        break;
+      case TAG:
+        if (c == '>')
+          state = TEXT;
+        else if (c == '"' || c == '\'') {
+          state = ATTRIBUTE;
+          quote = c;
+        }
+        break;
+      case ATTRIBUTE:
+        if (c == quote)
+          state = TAG;
+        else if (checkAttributes) {
+          if (c == '&') {
+            startEntity(ATTRIBUTE);
+            return;
+          } else
+            text = c;
+        }
+        break;
+      case ENTITY:
+        if (c == ';') {
+          // The '&' and the name held are blanked out with the ';'
+          for (int i = 0; i <= entityLength; i++)
+            output[outputEnd++] = ' ';
+          state = entityReturn;
+        } else if ((Character.isLetterOrDigit(c) || c == '#') && entityLength < MAX_ENTITY) {
+          entity[entityLength++] = c;
+          return;
+        } else {
+          // Not an entity reference after all.
+          endEntityAsText();
+          filter(c);
+          return;
+        }
+        break;
+    }
+    output[outputEnd++] = text;
+    last2 = last1;
+    last1 = c;
+  }
+
+  /**
+   * Starts holding an entity reference, after its '&amp;'.
+   *
+   * @param returnState the state after the reference
+   */
+  private void startEntity(int returnState) {
+    state = ENTITY;
+    entityReturn = returnState;
+    entityLength = 0;
+  }
+
+  /**
+   * Adds the '&amp;' and the characters held after it to the output as
+   * text, once they are known not to be an entity reference.
+   */
+  private void endEntityAsText() {
+    output[outputEnd++] = '&';
+    System.arraycopy(entity, 0, output, outputEnd, entityLength);
+    outputEnd += entityLength;
+    state = entityReturn;
+    last1 = entityLength > 0 ? entity[entityLength - 1] : '&';
+  }
+
+  /**
+   * Starts a declaration, once c shows that it is neither a comment nor a
+   * CDATA section.
+   *
+   * @param opened the number of '[' already read in the declaration
+   * @param c the character read
+   */
+  private void startDeclaration(int opened, char c) {
+    state = DECLARATION;
+    depth = opened;
+    if (c == '[')
+      depth++;
+    else if (c == '>' && depth == 0)
+      state = TEXT;
+  }
+}
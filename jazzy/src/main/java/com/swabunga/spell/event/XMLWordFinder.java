@@ -24,6 +24,8 @@ package com.swabunga.spell.event;
 /**
  * A word finder for XML or HTML documents, which searches text for sequences
  * of letters, but ignores the text inside any tags.
+ * To check large documents, or to skip comments, CDATA sections and
+ * entity references too, see {@link XMLTextReader}.
  *
  * @author Anthony Roy  (ajr@antroy.co.uk)
  */
@@ -65,7 +67,7 @@ public class XMLWordFinder extends AbstractWordFinder {
     boolean started = false;
 
     search:      /* Find words. */
-    while (i < text.length() && !finished) {
+    while (i < chars.length() && !finished) {
       if (!started && isWordChar(i)) {
         nextWord.setStart(i++);
         started = true;
@@ -75,7 +77,7 @@ public class XMLWordFinder extends AbstractWordFinder {
           i++;
           continue search;
         } else {
-          nextWord.setText(text.substring(nextWord.getStart(), i));
+          nextWord.setText(chars, nextWord.getStart(), i);
           finished = true;
           break search;
         }
@@ -89,7 +91,7 @@ public class XMLWordFinder extends AbstractWordFinder {
     if (!started) {
       nextWord = null;
     } else if (!finished) {
-      nextWord.setText(text.substring(nextWord.getStart(), i));
+      nextWord.setText(chars, nextWord.getStart(), i);
     }
 
     return currentWord;
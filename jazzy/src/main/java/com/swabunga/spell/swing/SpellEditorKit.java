@@ -19,6 +19,7 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
 */
 package com.swabunga.spell.swing;
 
+import com.swabunga.spell.engine.Configuration;
 import com.swabunga.spell.engine.SpellDictionary;
 import com.swabunga.spell.engine.SpellDictionaryHashMap;
 import com.swabunga.spell.engine.Word;
@@ -120,7 +121,8 @@ public class SpellEditorKit extends StyledEditorKit {
           try {
             final String word = hdoc.getText(elem.getStartOffset(), elem.getEndOffset() - elem.getStartOffset());
 
-            List list = dictionary.getSuggestions(word, 5);
+            int threshold = Configuration.getSharedConfiguration().getSnapshot().getThreshold();
+            List list = dictionary.getSuggestions(word, threshold);
             JPopupMenu popup = new JPopupMenu();
             int index = 0;
             ReplaceListener listener = new ReplaceListener(elem.getStartOffset(), elem.getEndOffset() - elem.getStartOffset(), hdoc);
@@ -36,14 +36,20 @@ import com.swabunga.spell.engine.*;
  *
  */
 public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListener, 
+																   ConfigurationListener,
 																   AutoSpellConstants{
 
 	private SpellChecker			sCheck=null;
-	private Configuration 			config = Configuration.getConfiguration();
+	private Configuration 			config=null;
 	private ResourceBundle			messages=null;
+	private Vector					panes=new Vector();
+	private Hashtable				tokenizers=new Hashtable();
+	private IncrementalDocumentWordTokenizer	popupTok=null;
+	private Document				popupDoc=null;
 	
 	public AutoSpellCheckHandler(SpellChecker sc){
 		sCheck=sc;
+		config=sc.getConfiguration();
 	}
 	
 	public AutoSpellCheckHandler(SpellChecker sc, ResourceBundle rs){
@@ -56,27 +62,55 @@ public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListe
 		markupSpelling(doc, 0, doc.getLength()-1);
 		doc.addDocumentListener(this);
 		pane.addMouseListener(this);
+		// The configuration holds the handler only while it has panes to check
+		if(panes.isEmpty())
+			config.addConfigurationListener(this);
+		panes.addElement(pane);
 	}
 	
 	public void removeJEditorPane(JEditorPane pane){
 		Document doc=pane.getDocument();
 		pane.removeMouseListener(this);
 		doc.removeDocumentListener(this);
+		if(panes.removeElement(pane) && panes.isEmpty())
+			config.removeConfigurationListener(this);
+		tokenizers.remove(doc);
+		if(doc==popupDoc)
+			setPopupTokenizer(null, null);
+	}
+	
+	private IncrementalDocumentWordTokenizer getTokenizer(Document doc){
+		IncrementalDocumentWordTokenizer docTok;
+		docTok=(IncrementalDocumentWordTokenizer)tokenizers.get(doc);
+		if(docTok==null){
+			docTok=new IncrementalDocumentWordTokenizer(doc);
+			tokenizers.put(doc, docTok);
+		}
+		return docTok;
+	}
+	
+	// The tokenizer of the suggestion popup follows the edits made until
+	// one of the suggestions is chosen.
+	private void setPopupTokenizer(Document doc, IncrementalDocumentWordTokenizer docTok){
+		if(popupTok!=null)
+			popupDoc.removeDocumentListener(popupTok);
+		popupDoc=doc;
+		popupTok=docTok;
+		if(popupTok!=null)
+			popupDoc.addDocumentListener(popupTok);
 	}
 	
 	private void markupSpelling(StyledDocument doc, int start, int end){
 		int						wordStart=-1,
 								wordEnd=-1;
 		String					word;
-		DocumentWordTokenizer	docTok;
-		Segment					seg=new Segment();
+		IncrementalDocumentWordTokenizer	docTok;
 		
-		docTok=new DocumentWordTokenizer(doc);
-		if(start>0){
-			docTok.posStartFullWordFrom(start);
-		}
+		// Only the words from the changed range on are read from the document.
+		docTok=getTokenizer(doc);
+		docTok.setRange(start, -1);
 		
-		while(docTok.hasMoreWords() && docTok.getCurrentWordPosition()<=end){
+		while(docTok.hasMoreWords() && wordStart<=end){
 			word=docTok.nextWord();
 			wordStart=docTok.getCurrentWordPosition();
 			
@@ -150,7 +184,7 @@ public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListe
 		JMenuItem 				item;
 		AttributeSet			attr;
 		int 					pos = pane.viewToModel(p);
-		DocumentWordTokenizer	docTok;
+		IncrementalDocumentWordTokenizer	docTok;
 		String					word;
 		java.util.List			suggestions;
 		JPopupMenu 				popup;
@@ -160,10 +194,11 @@ public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListe
 			doc=(StyledDocument)pane.getDocument();
 			attr=doc.getCharacterElement(pos).getAttributes();
 			if(attr.containsAttribute(wordMisspelled, wordMisspelledTrue)){
-				docTok=new DocumentWordTokenizer(doc);
+				docTok=new IncrementalDocumentWordTokenizer(doc);
 				docTok.posStartFullWordFrom(pos);
 				word=docTok.nextWord();
-				suggestions=sCheck.getSuggestions(word, config.getInteger(Configuration.SPELL_THRESHOLD));
+				setPopupTokenizer(doc, docTok);
+				suggestions=sCheck.getSuggestions(word, config.getSnapshot().getThreshold());
 				
 				popup=new JPopupMenu();
 				repList=new ReplaceListener(docTok);
@@ -211,6 +246,12 @@ public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListe
 		SwingUtilities.invokeLater(r);
 	}
 	
+	// ConfigurationListener implementation
+	// ------------------------------------------------------------------
+	public void configurationChanged(Configuration config, String key){
+		SwingUtilities.invokeLater(new SpellCheckAll());
+	}
+	
 	// MouseListener implementation
 	// ------------------------------------------------------------------
 	public void mouseReleased(MouseEvent evt){
@@ -241,16 +282,32 @@ public class AutoSpellCheckHandler extends MouseAdapter implements DocumentListe
 		
 	}
 	
+	private class SpellCheckAll implements Runnable{
+		
+		public void run(){
+			for(int i=0;i<panes.size();i++){
+				JEditorPane pane=(JEditorPane)panes.elementAt(i);
+				if(pane.getDocument() instanceof StyledDocument){
+					StyledDocument doc=(StyledDocument)pane.getDocument();
+					markupSpelling(doc, 0, doc.getLength()-1);
+				}
+			}
+		}
+		
+	}
+	
 	private class ReplaceListener implements ActionListener{
 		
-		DocumentWordTokenizer	tok;
+		IncrementalDocumentWordTokenizer	tok;
 		
-		public ReplaceListener(DocumentWordTokenizer tok){
+		public ReplaceListener(IncrementalDocumentWordTokenizer tok){
 			this.tok=tok;
 		}
 		
 		public void actionPerformed(ActionEvent evt){
 			tok.replaceWord(evt.getActionCommand());
+			if(tok==popupTok)
+				setPopupTokenizer(null, null);
 		}
 	}
 	
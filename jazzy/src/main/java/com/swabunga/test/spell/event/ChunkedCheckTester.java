@@ -0,0 +1,135 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+import com.swabunga.spell.engine.*;
+import java.io.*;
+import java.util.*;
+
+public class ChunkedCheckTester extends TestCase {
+
+  /** The dictionary, loaded once for all the tests */
+  private static SpellDictionary dictionary;
+
+  /** The pieces the texts are made of: misspelt and replaced words, mixed
+   * case words, and sentences with and without words */
+  private static final String[] PIECES = {"the ", "house ", "is ", "teh ", "recieve ", "Anthony ",
+    "word. ", "then a ", "mIxed ", "iPhone ", "hello. ", ". ", "?! ", "\n\n", "stell ", "It's ",
+    "x ", " ", "end.\n", "(1) "};
+
+  SpellChecker checker;
+  String text;
+
+  public ChunkedCheckTester(String name){
+    super(name);
+  }
+
+  protected void setUp() throws IOException {
+    if (dictionary == null)
+      dictionary = new SpellDictionaryHashMap(new File("dict/english.0"));
+    checker = new SpellChecker(dictionary);
+    // "Replace All" makes the session replace these words from now on
+    SpellCheckListener replacer = new SpellCheckListener() {
+      public void spellingError(SpellCheckEvent event){
+        if (event.getInvalidWord().equals("teh"))
+          event.replaceWord("the", true);
+        else if (event.getInvalidWord().equals("recieve"))
+          event.replaceWord("receive", true);
+        else
+          event.ignoreWord(false);
+      }
+    };
+    checker.addSpellCheckListener(replacer);
+    checker.checkSpelling(new StringWordTokenizer("teh recieve"));
+    checker.removeSpellCheckListener(replacer);
+
+    Random random = new Random(7);
+    StringBuffer buf = new StringBuffer("lower start. ");
+    for (int i = 0; i < 4000; i++)
+      buf.append(PIECES[random.nextInt(PIECES.length)]);
+    text = buf.toString();
+  }
+
+  protected void tearDown(){
+    checker = null;
+    text = null;
+  }
+
+  public void testMisspelt(){
+    assertSameErrors(0);
+  }
+
+  public void testCapitalization(){
+    assertSameErrors(SpellChecker.REPORT_CAPITALIZATION);
+  }
+
+  public void testAutoReplace(){
+    assertSameErrors(SpellChecker.AUTO_REPLACE);
+  }
+
+  public void testAllOptions(){
+    assertSameErrors(SpellChecker.REPORT_CAPITALIZATION + SpellChecker.AUTO_REPLACE);
+  }
+
+  public void testIgnoreMixedCase(){
+    checker.getConfiguration().setBoolean(Configuration.SPELL_IGNOREMIXEDCASE, true);
+    assertSameErrors(0);
+    assertSameErrors(SpellChecker.REPORT_CAPITALIZATION + SpellChecker.AUTO_REPLACE);
+  }
+
+  /**
+   * Checks the text sequentially and in chunks of several sizes, the
+   * smaller ones cutting it at many seams, and compares the errors.
+   */
+  private void assertSameErrors(int options){
+    SpellCheckSession session = checker.getSession();
+    RecordingSink expected = new RecordingSink();
+    int expectedCount = session.checkSpelling(new StringWordTokenizer(text, new DefaultWordFinder()),
+                                              expected, options);
+    assertTrue(expected.errors.size() > 100);
+    int[] chunkSizes = {1, 40, 300, 5000, 1000000};
+    for (int i = 0; i < chunkSizes.length; i++){
+      RecordingSink found = new RecordingSink();
+      WordFinder[] finders = {new DefaultWordFinder(), new DefaultWordFinder(), new DefaultWordFinder()};
+      int count = session.checkSpelling(text, finders, found, options, chunkSizes[i]);
+      assertEquals("chunks of " + chunkSizes[i], expected.errors, found.errors);
+      assertEquals("chunks of " + chunkSizes[i], expectedCount, count);
+    }
+  }
+
+  /** A sink keeping the errors as strings */
+  private static class RecordingSink implements SpellingErrorSink {
+
+    List errors = new ArrayList();
+
+    public void spellingError(int kind, int offset, int length, String word){
+      errors.add(kind + " " + offset + " " + length + " " + word);
+    }
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(ChunkedCheckTester.class));
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the words of DefaultWordFinder with those of the scanner it
+ * replaced, which tested each character with isWordChar and each word
+ * with SpellChecker.isINETWord.
+ */
+public class DefaultWordFinderTester extends TestCase {
+
+  /** The pieces the random texts are made of */
+  private static final String[] PIECES = {"a", "b", "Z", "1", "\u00e9", "'", "@", ".", "_",
+    " ", "\n", "\r\n", "\t", ",", "(", ")", "\"", "\u00a0", "http://", "www.", "HTTPS://",
+    "ftp://", "ftps://"};
+
+  public DefaultWordFinderTester(String name){
+    super(name);
+  }
+
+  public void testJoiners(){
+    assertSameWords("it's a.b c_d e@f g'.h .i j. 'k' l..m");
+  }
+
+  public void testInternetAddresses(){
+    assertSameWords("see http://www.x.org/a_b, (www.y.com) and \"ftp://z\"\nHTTPS://Q.R. end");
+  }
+
+  public void testSources(){
+    // the sources of the library are the corpus
+    File root = FileWordTokenizerTester.getTestFile().getAbsoluteFile().getParentFile();
+    for (int i = 0; i < 5; i++)
+      root = root.getParentFile();
+    List files = new ArrayList();
+    listSources(root, files);
+    assertTrue(files.size() > 50);
+    for (int i = 0; i < files.size(); i++)
+      assertSameWords(StringWordTokenizerTester.stringValue((File) files.get(i)));
+  }
+
+  public void testReplacedWords(){
+    // finders outside the package still read the text, once words are replaced
+    String text = "one two three. four five";
+    WordFinder expected = new ReferenceWordFinder(text);
+    WordFinder found = new DefaultWordFinder(text);
+    while (expected.hasNext()){
+      assertTrue(found.hasNext());
+      String word = expected.next().getText();
+      assertEquals(word, found.next().getText());
+      if (word.length() > 3){
+        expected.replace("a-b " + word);
+        found.replace("a-b " + word);
+      }
+      assertEquals(expected.startsSentence(), found.startsSentence());
+    }
+    assertFalse(found.hasNext());
+    assertEquals(expected.getText(), found.getText());
+  }
+
+  public void testRandomTexts(){
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++){
+      StringBuffer text = new StringBuffer();
+      int pieces = random.nextInt(40);
+      for (int j = 0; j < pieces; j++)
+        text.append(PIECES[random.nextInt(PIECES.length)]);
+      assertSameWords(text.toString());
+    }
+  }
+
+  private static void listSources(File dir, List files){
+    File[] children = dir.listFiles();
+    for (int i = 0; children != null && i < children.length; i++){
+      if (children[i].isDirectory())
+        listSources(children[i], files);
+      else if (children[i].getName().endsWith(".java"))
+        files.add(children[i]);
+    }
+  }
+
+  private void assertSameWords(String text){
+    WordFinder expected = new ReferenceWordFinder(text);
+    WordFinder found = new DefaultWordFinder(text);
+    while (expected.hasNext()){
+      assertTrue("missing words in: " + text, found.hasNext());
+      Word word = expected.next();
+      Word foundWord = found.next();
+      assertEquals("in: " + text, word.getText(), foundWord.getText());
+      assertEquals("in: " + text, word.getStart(), foundWord.getStart());
+    }
+    assertFalse("extra words in: " + text, found.hasNext());
+  }
+
+  /**
+   * The scanner of DefaultWordFinder before it classified the characters
+   * through a table.
+   */
+  private static class ReferenceWordFinder extends AbstractWordFinder {
+
+    ReferenceWordFinder(String inText){
+      super(inText);
+    }
+
+    public Word next(){
+      if (nextWord == null)
+        throw new WordNotFoundException("No more words found.");
+      currentWord.copy(nextWord);
+      setSentenceIterator(currentWord);
+
+      String text = this.text;
+      int i = currentWord.getEnd();
+      boolean finished = false;
+      while (i < text.length() && !finished){
+        if (isWordChar(i)){
+          nextWord.setStart(i);
+          nextWord.setText(text.substring(i, getNextWordEnd(text, i)));
+          finished = true;
+        }
+        i++;
+      }
+      if (!finished)
+        nextWord = null;
+      return currentWord;
+    }
+
+    private int getNextWordEnd(String text, int startPos){
+      if (SpellChecker.isINETWord(text.substring(startPos))){
+        for (int i = startPos; i < text.length(); i++){
+          char ch = text.charAt(i);
+          if (Character.isLetterOrDigit(ch))
+            continue;
+          if (ch == '\r' || ch == '\n')
+            return i;
+          if (Character.isSpaceChar(ch))
+            if (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1)))
+              return i;
+            else
+              return i - 1;
+        }
+        return text.length();
+      }
+      for (int i = startPos; i < text.length(); i++){
+        if (!isWordChar(i))
+          return i;
+      }
+      return text.length();
+    }
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(DefaultWordFinderTester.class));
+  }
+}
@@ -23,6 +23,9 @@ import junit.framework.*;
 import junit.textui.*;
 import com.swabunga.spell.event.*;
 import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
 
 public class FileWordTokenizerTester extends TestCase {
 
@@ -33,7 +36,23 @@ public class FileWordTokenizerTester extends TestCase {
   }
   
   protected void setUp(){
-    texTok = new FileWordTokenizer(new File("src/com/swabunga/test/spell/event/test.tex"), new TeXWordFinder());
+    texTok = new FileWordTokenizer(getTestFile(), new TeXWordFinder());
+  }
+
+  /**
+   * Returns the TeX file of the tests, from the class path or else from the
+   * sources, as seen from the module or from the project directory.
+   */
+  static File getTestFile() {
+    URL url = FileWordTokenizerTester.class.getResource("test.tex");
+    if (url != null && "file".equals(url.getProtocol())) {
+      try {
+        return new File(url.toURI());
+      } catch (URISyntaxException e) {
+      }
+    }
+    File file = new File("src/main/java/com/swabunga/test/spell/event/test.tex");
+    return file.exists() ? file : new File("jazzy", file.getPath());
   }
   
   protected void tearDown(){
@@ -53,6 +72,21 @@ public class FileWordTokenizerTester extends TestCase {
     assertEquals("Key", texTok.nextWord());
     assertEquals("Words", texTok.nextWord());
   }
+
+  public void testMappedTeXWords() throws IOException {
+    MappedFileWordTokenizer mapped = new MappedFileWordTokenizer(
+        getTestFile(), "ISO-8859-1",
+        new TeXWordFinder(), MappedFileWordTokenizer.DEFAULT_WINDOW_SIZE);
+    try {
+      while (texTok.hasMoreWords()) {
+        assertEquals(texTok.nextWord(), mapped.nextWord());
+        assertEquals(texTok.getCurrentWordPosition(), mapped.getCurrentWordPosition());
+      }
+      assertTrue(!mapped.hasMoreWords());
+    } finally {
+      mapped.close();
+    }
+  }
   
   public static void main(String[] args){
     //System.out.println("No tests currently written for FileWordTokenizerTester.");
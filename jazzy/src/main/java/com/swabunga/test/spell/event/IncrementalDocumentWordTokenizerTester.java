@@ -0,0 +1,168 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+import java.util.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+
+public class IncrementalDocumentWordTokenizerTester extends TestCase {
+
+  /** A text of a few windows of the tokenizer */
+  private static final String TEXT;
+
+  static {
+    StringBuffer buf = new StringBuffer();
+    for (int i = 0; i < 400; i++)
+      buf.append("Word").append(i).append(" it's a well-known (test). ");
+    TEXT = buf.toString();
+  }
+
+  public IncrementalDocumentWordTokenizerTester(String name){
+    super(name);
+  }
+
+  public void testSameWords() throws BadLocationException {
+    Document doc = newDocument(TEXT);
+    assertEquals(words(new DocumentWordTokenizer(doc)), words(new IncrementalDocumentWordTokenizer(doc)));
+  }
+
+  public void testWordsAcrossGap() throws BadLocationException {
+    List expected = words(new IncrementalDocumentWordTokenizer(newDocument(TEXT)));
+    for (int pos = 0; pos < TEXT.length(); pos += 97){
+      // the gap of the document follows the character inserted last
+      Document doc = newDocument(TEXT.substring(0, pos) + TEXT.substring(pos + 1));
+      doc.insertString(pos, TEXT.substring(pos, pos + 1), null);
+      assertEquals("gap at " + pos, expected, words(new IncrementalDocumentWordTokenizer(doc)));
+    }
+  }
+
+  public void testRangeTextAcrossGap() throws BadLocationException {
+    Document doc = newDocument(TEXT);
+    // "Word0" straddles the gap once "W" is inserted before "ord0"
+    doc.remove(0, 1);
+    doc.insertString(0, "W", null);
+    IncrementalDocumentWordTokenizer tokenizer = new IncrementalDocumentWordTokenizer(doc);
+    tokenizer.nextRange();
+    CharSequence text = tokenizer.getRangeText();
+    assertEquals("Word0", text.subSequence(tokenizer.getRangeStart(), tokenizer.getRangeEnd()).toString());
+  }
+
+  public void testInsertUpdate() throws BadLocationException {
+    Document doc = newDocument("one two three four");
+    IncrementalDocumentWordTokenizer tokenizer = new IncrementalDocumentWordTokenizer(doc);
+    doc.addDocumentListener(tokenizer);
+    assertEquals("one", tokenizer.nextWord());
+    assertEquals("two", tokenizer.nextWord());
+    // before the current word
+    doc.insertString(0, "zero ", null);
+    assertEquals(9, tokenizer.getCurrentWordPosition());
+    assertEquals(12, tokenizer.getCurrentWordEnd());
+    // at the end of the current word, and after it
+    doc.insertString(12, "s", null);
+    doc.insertString(13, " and a half", null);
+    assertEquals(12, tokenizer.getCurrentWordEnd());
+    assertEquals("s", tokenizer.nextWord());
+    assertEquals("and", tokenizer.nextWord());
+    assertEquals("a", tokenizer.nextWord());
+    assertEquals("half", tokenizer.nextWord());
+    assertEquals("three", tokenizer.nextWord());
+    assertEquals("four", tokenizer.nextWord());
+    assertFalse(tokenizer.hasMoreWords());
+  }
+
+  public void testRemoveUpdate() throws BadLocationException {
+    Document doc = newDocument("one two three four five");
+    IncrementalDocumentWordTokenizer tokenizer = new IncrementalDocumentWordTokenizer(doc);
+    doc.addDocumentListener(tokenizer);
+    assertEquals("one", tokenizer.nextWord());
+    assertEquals("two", tokenizer.nextWord());
+    // before the current word
+    doc.remove(0, 4);
+    assertEquals(0, tokenizer.getCurrentWordPosition());
+    assertEquals(3, tokenizer.getCurrentWordEnd());
+    // the next word
+    doc.remove(4, 6);
+    assertEquals("four", tokenizer.nextWord());
+    assertEquals(4, tokenizer.getCurrentWordPosition());
+    // around the current word
+    doc.remove(3, 6);
+    assertEquals(3, tokenizer.getCurrentWordPosition());
+    assertEquals(3, tokenizer.getCurrentWordEnd());
+    assertEquals("five", tokenizer.nextWord());
+    assertEquals(3, tokenizer.getCurrentWordPosition());
+    assertFalse(tokenizer.hasMoreWords());
+  }
+
+  public void testRangeShifts() throws BadLocationException {
+    Document doc = newDocument("one two three four five");
+    IncrementalDocumentWordTokenizer tokenizer = new IncrementalDocumentWordTokenizer(doc, 4, 13);
+    doc.addDocumentListener(tokenizer);
+    doc.insertString(0, "zero ", null);
+    assertEquals("two three", tokenizer.getContext());
+    assertEquals("two", tokenizer.nextWord());
+    doc.remove(14, 2);
+    assertEquals("two tee", tokenizer.getContext());
+    doc.insertString(14, "hr", null);
+    assertEquals("two three", tokenizer.getContext());
+    assertEquals("three", tokenizer.nextWord());
+    assertFalse(tokenizer.hasMoreWords());
+  }
+
+  public void testReplaceWord() throws BadLocationException {
+    Document doc = newDocument("one tow three");
+    IncrementalDocumentWordTokenizer tokenizer = new IncrementalDocumentWordTokenizer(doc);
+    doc.addDocumentListener(tokenizer);
+    tokenizer.nextWord();
+    assertEquals("tow", tokenizer.nextWord());
+    tokenizer.replaceWord("two or");
+    assertEquals(4, tokenizer.getCurrentWordPosition());
+    assertEquals(10, tokenizer.getCurrentWordEnd());
+    assertEquals("three", tokenizer.nextWord());
+    assertEquals(11, tokenizer.getCurrentWordPosition());
+    assertEquals("one two or three", tokenizer.getContext());
+  }
+
+  private static Document newDocument(String text) throws BadLocationException {
+    Document doc = new PlainDocument();
+    doc.insertString(0, text, null);
+    return doc;
+  }
+
+  /** Returns the words of a tokenizer with their positions */
+  private static List words(WordTokenizer tokenizer){
+    List words = new ArrayList();
+    while (tokenizer.hasMoreWords()){
+      String word = tokenizer.nextWord();
+      words.add(tokenizer.getCurrentWordPosition() + ":" + word);
+    }
+    return words;
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(IncrementalDocumentWordTokenizerTester.class));
+  }
+
+}
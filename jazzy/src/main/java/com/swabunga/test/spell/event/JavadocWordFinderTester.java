@@ -0,0 +1,89 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+
+public class JavadocWordFinderTester extends TestCase {
+
+  public JavadocWordFinderTester(String name){
+    super(name);
+  }
+
+  public void testInlineTags(){
+    assertWords("See {@link Foo#bar(int) the bar} and {@code x < y} here {@literal {nested}} end",
+        new String[] {"See", "and", "here", "end"});
+    assertWords("{@link unbalanced", new String[0]);
+  }
+
+  public void testCodeElements(){
+    assertWords("<pre>int foo;\n{@code bar}</pre> text <code>baz</code> more <CODE>qux</CODE> <codex>yes</codex>",
+        new String[] {"text", "more", "yes"});
+    assertWords("x <pre>unclosed pre", new String[] {"x"});
+  }
+
+  public void testHtmlTags(){
+    assertWords("<b>bold</b> <a href=\"http://x\">link</a> <br/> a<b",
+        new String[] {"bold", "link", "a", "b"});
+  }
+
+  public void testComments(){
+    assertWords("a <!-- hidden words --> b <!-- unclosed", new String[] {"a", "b"});
+  }
+
+  public void testEntities(){
+    assertWords("caf&eacute; AT&T &lt;x&gt; &#160;nb &amp",
+        new String[] {"caf", "AT", "T", "x", "nb", "amp"});
+  }
+
+  public void testPositions(){
+    WordFinder finder = new JavadocWordFinder("The {@code x} <b>word</b>.");
+    assertEquals(0, finder.next().getStart());
+    assertEquals(17, finder.next().getStart());
+    assertFalse(finder.hasNext());
+  }
+
+  public void testReplace(){
+    WordFinder finder = new JavadocWordFinder("one <b>two</b> {@code three} four");
+    assertEquals("one", finder.next().getText());
+    finder.replace("a <i>longer</i> one");
+    assertEquals("two", finder.next().getText());
+    assertEquals("four", finder.next().getText());
+    assertFalse(finder.hasNext());
+    assertEquals("a <i>longer</i> one <b>two</b> {@code three} four", finder.getText());
+  }
+
+  private void assertWords(String text, String[] expected){
+    WordFinder finder = new JavadocWordFinder(text);
+    for (int i = 0; i < expected.length; i++){
+      assertTrue("missing " + expected[i], finder.hasNext());
+      assertEquals(expected[i], finder.next().getText());
+    }
+    assertFalse(finder.hasNext());
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(JavadocWordFinderTester.class));
+  }
+
+}
@@ -44,7 +44,7 @@ public class SpellCheckerTester extends TestCase implements SpellCheckListener {
     }catch (IOException ex){
       System.err.println("IO problem: " + ex);
     }
-    FileWordTokenizer texTok = new FileWordTokenizer(new File("src/com/swabunga/test/spell/event/test.tex"),
+    FileWordTokenizer texTok = new FileWordTokenizer(FileWordTokenizerTester.getTestFile(),
                                    new TeXWordFinder());
     misspelled = new ArrayList();
     
@@ -68,6 +68,61 @@ public class SpellCheckerTester extends TestCase implements SpellCheckListener {
     assertEquals("conccepts", it.next());
   }
   
+  public void testOverriddenHooks(){
+    final int[] calls = new int[2];
+    SpellChecker hooked = new SpellChecker(checker.getEngine().getDictionaries()[0]) {
+      protected boolean fireAndHandleEvent(WordTokenizer tokenizer, SpellCheckEvent event){
+        calls[0]++;
+        return super.fireAndHandleEvent(tokenizer, event);
+      }
+      protected void fireSpellCheckEvent(SpellCheckEvent event){
+        calls[1]++;
+        super.fireSpellCheckEvent(event);
+      }
+    };
+    final ArrayList heard = new ArrayList();
+    hooked.addSpellCheckListener(new SpellCheckListener() {
+      public void spellingError(SpellCheckEvent event){
+        event.ignoreWord(true);
+        heard.add(event.getInvalidWord());
+      }
+    });
+    hooked.checkSpelling(new FileWordTokenizer(FileWordTokenizerTester.getTestFile(),
+                                               new TeXWordFinder()));
+    assertEquals(misspelled, heard);
+    assertEquals(heard.size(), calls[0]);
+    assertEquals(heard.size(), calls[1]);
+  }
+
+  public void testConfiguredThresholdSuggestions(){
+    int threshold = checker.getConfiguration().getSnapshot().getThreshold();
+    SpellDictionary dictionary = checker.getEngine().getDictionaries()[0];
+    List fromDictionary = dictionary.getSuggestions("recieve", threshold);
+    List fromChecker = checker.getSuggestions("recieve", threshold);
+    assertTrue(fromDictionary.size() > 1);
+    assertEquals(fromDictionary.size(), fromChecker.size());
+    assertEquals("receive", ((com.swabunga.spell.engine.Word) fromDictionary.get(0)).getWord());
+    assertEquals("receive", ((com.swabunga.spell.engine.Word) fromChecker.get(0)).getWord());
+  }
+
+  public void testUserDictionaryLeftOutOfEngine() throws IOException{
+    SpellDictionary user = new SpellDictionaryHashMap();
+    user.addWord("recieved");
+    checker.addDictionary(user);
+    assertEquals(2, checker.getEngine().getDictionaries().length);
+    checker.setUserDictionary(user);
+    assertEquals(1, checker.getEngine().getDictionaries().length);
+    assertTrue(checker.isCorrect("recieved"));
+
+    user.addWord("recieve");
+    int threshold = checker.getConfiguration().getSnapshot().getThreshold();
+    List suggestions = checker.getSuggestions("recieve", threshold);
+    Set words = new HashSet();
+    for (Iterator i = suggestions.iterator(); i.hasNext();)
+      assertTrue(words.add(((com.swabunga.spell.engine.Word) i.next()).getWord()));
+    assertTrue(words.contains("recieve"));
+  }
+
   public void spellingError(SpellCheckEvent event){
     event.ignoreWord(true);
     misspelled.add(event.getInvalidWord());
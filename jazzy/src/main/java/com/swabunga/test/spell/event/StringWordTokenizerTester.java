@@ -37,7 +37,7 @@ public class StringWordTokenizerTester extends TestCase {
   
   protected void setUp(){
     texTok = new StringWordTokenizer(
-        stringValue(new File("src/com/swabunga/test/spell/event/test.tex")), 
+        stringValue(FileWordTokenizerTester.getTestFile()), 
         new TeXWordFinder()
     );
   }
@@ -59,13 +59,23 @@ public class StringWordTokenizerTester extends TestCase {
     assertEquals("Key", texTok.nextWord());
     assertEquals("Words", texTok.nextWord());
   }
+
+  public void testWordRanges(){
+    String[] words = {"width", "1", "1", "1cm", "1", "Key", "Words"};
+    for (int i = 0; i < words.length; i++) {
+      texTok.nextRange();
+      CharSequence text = texTok.getRangeText();
+      assertEquals(words[i], text.subSequence(texTok.getRangeStart(), texTok.getRangeEnd()).toString());
+      assertEquals(texTok.getCurrentWordPosition(), texTok.getRangeStart());
+    }
+  }
   
   public static void main(String[] args){
     //System.out.println("No tests currently written for FileWordTokenizerTester.");
     TestRunner.run(new TestSuite(StringWordTokenizerTester.class));
   }
 
-  private static String stringValue(File inFile) {
+  static String stringValue(File inFile) {
     File stringFile = inFile;
     StringBuffer out = new StringBuffer("");
 
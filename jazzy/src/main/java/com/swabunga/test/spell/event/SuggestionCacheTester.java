@@ -0,0 +1,98 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.engine.Word;
+import com.swabunga.spell.event.SuggestionCache;
+import java.io.*;
+import java.util.*;
+
+public class SuggestionCacheTester extends TestCase {
+
+  File file;
+
+  public SuggestionCacheTester(String name){
+    super(name);
+  }
+
+  protected void setUp() throws IOException{
+    file = File.createTempFile("suggestions", ".cache");
+  }
+
+  protected void tearDown(){
+    file.delete();
+  }
+
+  public void testRoundTrip() throws IOException{
+    SuggestionCache cache = new SuggestionCache(10);
+    cache.put("recieve", 140, 5, Arrays.asList(new Word[] {new Word("receive", 10), new Word("relieve", 40)}));
+    cache.put("teh", 100, 0, Collections.EMPTY_LIST);
+    cache.store(file, "print");
+    assertFalse(cache.isModified());
+
+    SuggestionCache loaded = new SuggestionCache(10);
+    assertEquals(2, loaded.load(file, "print"));
+    assertEquals(Arrays.asList(new String[] {"receive", "relieve"}), words(loaded.get("recieve", 140, 5)));
+    assertEquals(40, ((Word) loaded.get("recieve", 140, 5).get(1)).getCost());
+    assertEquals(0, loaded.get("teh", 100, 0).size());
+    assertNull(loaded.get("recieve", 100, 5));
+  }
+
+  public void testSeparatorsInWords() throws IOException{
+    String[] odd = {"tab\tbed", "new\nline", "carriage\rreturn", "back\\slash", "\\t", "co:lon:", "\\"};
+    SuggestionCache cache = new SuggestionCache(10);
+    for (int i = 0; i < odd.length; i++)
+      cache.put(odd[i], 140, 0, Arrays.asList(new Word[] {new Word(odd[(i + 1) % odd.length], i)}));
+    cache.store(file, "print");
+
+    SuggestionCache loaded = new SuggestionCache(10);
+    assertEquals(odd.length, loaded.load(file, "print"));
+    for (int i = 0; i < odd.length; i++) {
+      List suggestions = loaded.get(odd[i], 140, 0);
+      assertNotNull(suggestions);
+      assertEquals(odd[(i + 1) % odd.length], ((Word) suggestions.get(0)).getWord());
+      assertEquals(i, ((Word) suggestions.get(0)).getCost());
+    }
+  }
+
+  public void testOtherFingerprint() throws IOException{
+    SuggestionCache cache = new SuggestionCache(10);
+    cache.put("teh", 140, 0, Arrays.asList(new Word[] {new Word("the", 20)}));
+    cache.store(file, "print");
+
+    SuggestionCache loaded = new SuggestionCache(10);
+    assertEquals(0, loaded.load(file, "other"));
+    assertEquals(0, loaded.size());
+  }
+
+  private static List words(List suggestions){
+    List words = new ArrayList();
+    for (Iterator i = suggestions.iterator(); i.hasNext();)
+      words.add(((Word) i.next()).getWord());
+    return words;
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(SuggestionCacheTester.class));
+  }
+}
@@ -23,6 +23,8 @@ package com.swabunga.test.spell.event;
 import junit.framework.*;
 import junit.textui.*;
 import com.swabunga.spell.event.*;
+import java.util.Arrays;
+import java.util.Collection;
 
 
 public class TeXWordFinderTester extends TestCase {
@@ -139,8 +141,28 @@ public class TeXWordFinderTester extends TestCase {
     assertAllWordsFound("This is a simple test string.", expected);
   }
   
+  public void testUserDefinedStringIgnores(){
+    String[] expected = {"is","right"};
+    assertAllWordsFound("\\cite{smith} is right", Arrays.asList(new String[] {"\\cite{smith}"}),
+        TeXWordFinder.STRING_EXPR, expected);
+  }
+  
+  public void testUserDefinedRegexIgnores(){
+    String[] expected = {"see","and","here"};
+    assertAllWordsFound("see \\ref{fig:one} and \\label{sec:two} here",
+        Arrays.asList(new String[] {"\\\\ref\\{[^}]*\\}", "\\\\label\\{[^}]*\\}"}),
+        TeXWordFinder.REG_EXPR, expected);
+  }
+  
   private void assertAllWordsFound(String text, String[] expected){
-    TeXWordFinder finder = new TeXWordFinder(text);
+    assertAllWordsFound(text, null, TeXWordFinder.STRING_EXPR, expected);
+  }
+  
+  private void assertAllWordsFound(String text, Collection ignores, int type, String[] expected){
+    TeXWordFinder finder = new TeXWordFinder();
+    if (ignores != null)
+      finder.addUserDefinedIgnores(ignores, type);
+    finder.setText(text);
     Word found;
     int wordCount = 0;
     try{
@@ -0,0 +1,109 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import com.swabunga.spell.event.*;
+import java.io.File;
+
+/**
+ * Times a grammar finder against the hand-written finder of the same
+ * markup, after checking that both find the same words. Run as
+ * <pre>
+ * java WordGrammarBenchmark [xml|tex|java|default] [file] [runs]
+ * </pre>
+ * Without a file the TeX test document, repeated 200 times, is used.
+ */
+public class WordGrammarBenchmark {
+
+  private static WordFinder handWritten(String markup, String text){
+    if (markup.equals("xml"))
+      return new XMLWordFinder(text);
+    if (markup.equals("tex"))
+      return new TeXWordFinder(text);
+    if (markup.equals("java"))
+      return new JavaWordFinder(text);
+    return new DefaultWordFinder(text);
+  }
+
+  private static WordGrammar grammar(String markup){
+    if (markup.equals("xml"))
+      return WordGrammar.XML;
+    if (markup.equals("tex"))
+      return WordGrammar.TEX;
+    if (markup.equals("java"))
+      return WordGrammar.JAVA;
+    return new WordGrammar();
+  }
+
+  /**
+   * Reads all the words of a finder, returning their number, or -1 if they
+   * differ from the words of an other finder when one is given.
+   */
+  private static int countWords(WordFinder finder, WordFinder same){
+    int count = 0;
+    while (finder.hasNext()){
+      Word word = finder.next();
+      if (same != null){
+        if (!same.hasNext())
+          return -1;
+        Word other = same.next();
+        if (word.getStart() != other.getStart() || !word.getText().equals(other.getText())){
+          System.out.println("first difference at " + word.getStart() + ": '" + word.getText()
+              + "' and '" + other.getText() + "' at " + other.getStart());
+          return -1;
+        }
+      }
+      count++;
+    }
+    return (same != null && same.hasNext()) ? -1 : count;
+  }
+
+  public static void main(String[] args){
+    String markup = args.length > 0 ? args[0] : "tex";
+    String text;
+    if (args.length > 1){
+      text = StringWordTokenizerTester.stringValue(new File(args[1]));
+    }else{
+      String document = StringWordTokenizerTester.stringValue(FileWordTokenizerTester.getTestFile());
+      StringBuffer buf = new StringBuffer();
+      for (int i = 0; i < 200; i++)
+        buf.append(document);
+      text = buf.toString();
+    }
+    int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    int words = countWords(handWritten(markup, text), new GrammarWordFinder(grammar(markup), text));
+    System.out.println(text.length() + " characters, "
+        + (words < 0 ? "the finders differ" : words + " words found by both finders"));
+    // the first runs warm up the compiler
+    for (int r = -2; r < runs; r++){
+      long start = System.nanoTime();
+      countWords(handWritten(markup, text), null);
+      long middle = System.nanoTime();
+      countWords(new GrammarWordFinder(grammar(markup), text), null);
+      long end = System.nanoTime();
+      if (r >= 0)
+        System.out.println("hand-written " + (middle - start) / 1000000 + " ms, grammar "
+            + (end - middle) / 1000000 + " ms");
+    }
+  }
+
+}
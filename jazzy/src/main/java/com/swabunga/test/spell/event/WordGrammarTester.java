@@ -0,0 +1,123 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+
+public class WordGrammarTester extends TestCase {
+
+  public WordGrammarTester(String name){
+    super(name);
+  }
+
+  public void testSharedGrammarsFrozen(){
+    WordGrammar[] grammars = {WordGrammar.XML, WordGrammar.JAVA, WordGrammar.TEX,
+      WordGrammar.PROPERTIES, WordGrammar.ASCIIDOC, WordGrammar.MARKDOWN};
+    for (int i = 0; i < grammars.length; i++){
+      try{
+        grammars[i].addSkip("[[[", "]]]");
+        fail("grammar " + i + " can still be changed");
+      }catch (IllegalStateException e){
+      }
+    }
+  }
+
+  public void testNestedSkip(){
+    WordGrammar grammar = new WordGrammar();
+    grammar.addSkip("{", "}", WordGrammar.NESTED);
+    grammar.addSkip("\n#", "\n");
+    assertWords(grammar, "#not\na {not {these} words} b\n#nor\n#this\nc",
+        new String[] {"a", "b", "c"});
+  }
+
+  public void testTeXFindsSameWords(){
+    String[] texts = {"\\begin{testing}\nthe text \n\\end{testing}", "%testing\na time",
+      "$$testing$$a time", "\\newcommand{not these}\\newcommand{not these}a time",
+      "\\This is a \\simple test \\string.", "See $x$ and the \\usepackage{it's} o'clock."};
+    for (int i = 0; i < texts.length; i++)
+      assertSameWords(new TeXWordFinder(texts[i]), new GrammarWordFinder(WordGrammar.TEX, texts[i]));
+  }
+
+  public void testXMLFindsSameWords(){
+    String[] texts = {"<p class=\"x\">Some <b>bold</b> text</p>", "a<br/>b <!-- c --> d",
+      "<unclosed tag and words"};
+    for (int i = 0; i < texts.length; i++)
+      assertSameWords(new XMLWordFinder(texts[i]), new GrammarWordFinder(WordGrammar.XML, texts[i]));
+  }
+
+  public void testJavaFindsSameWords(){
+    String[] texts = {"/**\n * Returns the {@link Foo} of <code>bar</code> the <b>word</b>.\n"
+      + " * @param x the value\n */\n", "int a = 1;\n * one <CODE>two</CODE> three.\n"};
+    for (int i = 0; i < texts.length; i++)
+      assertSameWords(new JavaWordFinder(texts[i]), new GrammarWordFinder(WordGrammar.JAVA, texts[i]));
+  }
+
+  public void testProperties(){
+    assertWords(WordGrammar.PROPERTIES,
+        "# a comment\nkey.one = Hello {0} world\n! other\nkey\\\n two: it's \\u00e9t caf\u00e9\n"
+        + "  spaced.key=more text {1,number} here\nalone\n",
+        new String[] {"Hello", "world", "it's", "caf\u00e9", "more", "text", "here"});
+  }
+
+  public void testAsciiDoc(){
+    assertWords(WordGrammar.ASCIIDOC,
+        "= Title\n:toc: left\n// comment line\nSome *bold* text with `code` and {attr}.\n"
+        + "----\nlisting block\n----\n[source,java]\nSee <<ref,the ref>> and [[anchor]] and "
+        + "link:http://x.org/a[the site] or https://y.com here.\n",
+        new String[] {"Title", "Some", "bold", "text", "with", "and", "See", "and", "and",
+          "the", "site", "or", "here"});
+  }
+
+  public void testMarkdown(){
+    assertWords(WordGrammar.MARKDOWN,
+        "# Title\nSome `code` and ``more code`` text.\n```\nfenced block\n```\n"
+        + "A [link](http://x.org/a b) and <b>html</b> &amp; <!-- hidden words --> end.\n"
+        + "bare https://w.org/q done\n~~~\ntilde block\n~~~\nlast",
+        new String[] {"Title", "Some", "and", "text", "A", "link", "and", "html", "end",
+          "bare", "done", "last"});
+  }
+
+  private void assertWords(WordGrammar grammar, String text, String[] expected){
+    WordFinder finder = new GrammarWordFinder(grammar, text);
+    for (int i = 0; i < expected.length; i++){
+      assertTrue("missing " + expected[i], finder.hasNext());
+      assertEquals(expected[i], finder.next().getText());
+    }
+    assertFalse(finder.hasNext());
+  }
+
+  private void assertSameWords(WordFinder expected, WordFinder found){
+    while (expected.hasNext()){
+      assertTrue(found.hasNext());
+      Word word = expected.next();
+      assertEquals(word.getStart(), found.next().getStart());
+      assertEquals(word.getText(), found.current().getText());
+    }
+    assertFalse(found.hasNext());
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(WordGrammarTester.class));
+  }
+
+}
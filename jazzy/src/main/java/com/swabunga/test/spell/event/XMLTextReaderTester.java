@@ -0,0 +1,124 @@
+/*
+Jazzy - a Java library for Spell Checking
+Copyright (C) 2001 Mindaugas Idzelis
+Full text of license can be found in LICENSE.txt
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 2.1 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library; if not, write to the Free Software
+Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+*/
+
+package com.swabunga.test.spell.event;
+
+import junit.framework.*;
+import junit.textui.*;
+import com.swabunga.spell.event.*;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+public class XMLTextReaderTester extends TestCase {
+
+  public XMLTextReaderTester(String name){
+    super(name);
+  }
+
+  public void testTags(){
+    assertText("<p class=\"x\">Some <b>bold</b> text</p><br/>",
+               "             Some    bold     text         ");
+  }
+
+  public void testLessThanText(){
+    assertText("a < b <2", "a   b  2");
+  }
+
+  public void testEntities(){
+    assertText("caf&eacute; &amp;&#160;&#x41; end", "caf                           end");
+  }
+
+  public void testStrayAmpersands(){
+    assertText("AT&T, a & b, R&amp;D &", "AT&T, a & b, R     D &");
+    assertText("&toolongtobeanentitynamebyanymeans;", "&toolongtobeanentitynamebyanymeans;");
+  }
+
+  public void testCDATA(){
+    // the "]]" of the end is only known to be markup at the '>'
+    assertText("a<![CDATA[b <i>c</i> & d]]>e", "a         b <i>c</i> & d]] e");
+  }
+
+  public void testComments(){
+    String xml = "a<!-- not <b>this</b> -->b";
+    assertText(xml, false, false, "a                        b");
+    assertText(xml, false, true, "a     not <b>this</b> -- b");
+  }
+
+  public void testInstructionsAndDeclarations(){
+    assertText("<?xml version=\"1.0\"?><!DOCTYPE x [<!ENTITY y \"z\">]>text",
+               "                                                   text");
+  }
+
+  public void testAttributes(){
+    String xml = "<a title=\"Hello &amp; AT&T\" href='x'>link</a>";
+    assertText(xml, false, false, "                                     link    ");
+    assertText(xml, true, false, "          Hello       AT&T        x  link    ");
+  }
+
+  public void testReadsAcrossBoundaries(){
+    String[] xml = {"AT&T &amp; <b>bold</b> <!-- c --> <![CDATA[d]]>", "x&#160;y&z", "&amp"};
+    for (int i = 0; i < xml.length; i++){
+      String expected = filter(new XMLTextReader(new StringReader(xml[i]), true, true), 4096);
+      assertEquals(expected, filter(new XMLTextReader(new OneCharReader(xml[i]), true, true), 4096));
+      assertEquals(expected, filter(new XMLTextReader(new StringReader(xml[i]), true, true), 1));
+    }
+  }
+
+  private void assertText(String xml, String expected){
+    assertText(xml, false, false, expected);
+  }
+
+  private void assertText(String xml, boolean checkAttributes, boolean checkComments, String expected){
+    assertEquals(xml.length(), expected.length());
+    assertEquals(expected, filter(new XMLTextReader(new StringReader(xml), checkAttributes, checkComments), 4096));
+  }
+
+  private static String filter(Reader reader, int size){
+    StringBuffer buf = new StringBuffer();
+    char[] chars = new char[size];
+    try{
+      int count;
+      while ((count = reader.read(chars, 0, size)) != -1)
+        buf.append(chars, 0, count);
+    }catch (IOException e){
+      fail(e.toString());
+    }
+    return buf.toString();
+  }
+
+  /** A reader returning one character at each read */
+  private static class OneCharReader extends FilterReader {
+
+    OneCharReader(String text){
+      super(new StringReader(text));
+    }
+
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      return super.read(cbuf, off, Math.min(len, 1));
+    }
+  }
+
+  public static void main(String[] args){
+    TestRunner.run(new TestSuite(XMLTextReaderTester.class));
+  }
+
+}
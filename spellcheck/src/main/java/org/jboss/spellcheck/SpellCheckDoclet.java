@@ -33,34 +33,59 @@ import com.sun.javadoc.SourcePosition;
 import com.swabunga.spell.engine.Configuration;
 import com.swabunga.spell.engine.SpellDictionary;
 import com.swabunga.spell.engine.SpellDictionaryHashMap;
-import com.swabunga.spell.event.SpellCheckEvent;
-import com.swabunga.spell.event.SpellCheckListener;
+import com.swabunga.spell.engine.Word;
+import com.swabunga.spell.event.DefaultWordFinder;
+import com.swabunga.spell.event.JavadocWordFinder;
+import com.swabunga.spell.event.SpellCheckEngine;
+import com.swabunga.spell.event.SpellCheckSession;
 import com.swabunga.spell.event.SpellChecker;
+import com.swabunga.spell.event.SpellingErrorSink;
 import com.swabunga.spell.event.StringWordTokenizer;
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.InputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
- * This is a clone of softframworks' spellCheck doclet with 2 additions to the
+ * This is a clone of softframworks' spellCheck doclet with additions to the
  * input options.
  *      -reportfile <filename>    Write the results to the specified file.  When no file
  *                                is specified results are written to standard out.
  *      -unknownwords <filename>  A file of words not found in the dictionaries specified.
+ *      -maxsuggestions <n>       The maximum number of suggestions listed for a word
+ *                                when -withsuggestions is set.
+ *      -deferredsuggestions      Same report as -withsuggestions, but the suggestions
+ *                                are computed once per distinct unknown word, in
+ *                                parallel, after all comments have been checked.
+ *      -suggestioncache <filename> A file in which computed suggestions are kept from one
+ *                                run to the next.  It is discarded when the dictionaries
+ *                                change.
+ *      -rawcomments              Check the comments as plain text.  By default the inline
+ *                                tags, code and pre elements, HTML tags and entities of the
+ *                                comments are not checked.
  *
  *
  * softframworks' SpellCheckDoclet code can be found here
@@ -87,7 +112,11 @@ public class SpellCheckDoclet {
         inputOptionList.put("-reportfile", "2");
         inputOptionList.put("-unknownwords", "2");
         inputOptionList.put("-withsuggestions", "1");
+        inputOptionList.put("-maxsuggestions", "2");
+        inputOptionList.put("-deferredsuggestions", "1");
+        inputOptionList.put("-suggestioncache", "2");
         inputOptionList.put("-checkhtmlfiles", "1");
+        inputOptionList.put("-rawcomments", "1");
     }
 
     // default behavior write to standard OUT.
@@ -97,6 +126,7 @@ public class SpellCheckDoclet {
     public static final String TITLE = "SpellCheck Results";
     private static final HtmlFileFilter HTML_FILE_FILTER = new HtmlFileFilter();
     private static final SpellChecker spellChecker = configureSpellChecker();
+    private static final SpellErrorHandler SPELL_ERROR_HANDLER = new SpellErrorHandler();
     private static final HashSet<String> ignoreContainingList = new HashSet<String>();
     private static final HashSet<String> unknownWords = new HashSet<String>();
 
@@ -134,11 +164,27 @@ public class SpellCheckDoclet {
     // Correct spelling suggestions can optionally be included.
     private static boolean withSuggestions = false;
 
+    // Suggestions can optionally be computed after the scan, once per distinct word.
+    private static boolean deferSuggestions = false;
+
+    // The report being recorded while suggestions are deferred.
+    private static DeferredReport deferredReport = null;
+
+    // The tokenizer of the comment currently being spell-checked.
+    private static StringWordTokenizer currentTokenizer = null;
+
+    // The tokenizer reused for every comment, skipping the Javadoc markup.
+    static StringWordTokenizer commentTokenizer =
+        new StringWordTokenizer(new JavadocWordFinder());
+
     // Documentation HTML files can optionally be checked.
     private static boolean checkHtmlFiles = false;
 
     private static String outputReportFile = "Unknow reportFile";
 
+    // The number of words whose suggestions are kept in the suggestion cache.
+    private static final int SUGGESTION_CACHE_SIZE = 10000;
+
     /**
      * Lookup the count input arguments for each input option
      * @param theOption option key word
@@ -178,12 +224,27 @@ public class SpellCheckDoclet {
         outputStream.println("**************************************************************************************");
 
         // Spell check the API.
+        if (deferSuggestions) {
+            deferredReport = new DeferredReport(outputStream);
+            outputStream = deferredReport.getRecordingStream();
+        }
         spellCheckApi(theRootDoc);
+        if (deferredReport != null) {
+            outputStream = deferredReport.complete();
+            deferredReport = null;
+        }
 
         outputStream.println("\n*********************************************\n   SpellCheck Results Complete \n*********************************************\n");
 
         writeUnknownWords();
 
+        try {
+            spellChecker.flushCache();
+        } catch (IOException e) {
+            System.out.println("*** ERROR: Could not write suggestion cache " +
+                spellChecker.getCacheFile() + ": " + e.getMessage());
+        }
+
         return true;
     }
 
@@ -259,6 +320,25 @@ public class SpellCheckDoclet {
                 }
                 ignoreContainingList.add(theOption[1]);
 
+            } else if (theOption[0].equals("-maxsuggestions")) {
+                try {
+                    spellChecker.setMaxSuggestions(Integer.parseInt(theOption[1]));
+                } catch (NumberFormatException e) {
+                    System.out.println("\n*** ERROR: Invalid MAXSUGGESTIONS value: " + theOption[1] +
+                        "\n           Must be a number.");
+                    return false;
+                }
+
+            } else if (theOption[0].equals("-suggestioncache")) {
+                if (theOption[1] == null) {
+                    System.out.println("*** ERROR: -suggestioncache filename is missing");
+                } else {
+                    if (spellChecker.getCache() == null) {
+                        spellChecker.setCache(SUGGESTION_CACHE_SIZE);
+                    }
+                    spellChecker.setCacheFile(new File(theOption[1]));
+                }
+
             } else if (theOption[0].equals("-echo")) {
 
                 if (theOption[1].equalsIgnoreCase("off")) {
@@ -274,8 +354,17 @@ public class SpellCheckDoclet {
 
             if (theOption[0].equals("-withsuggestions")) {
                 withSuggestions = true;
+            } else if (theOption[0].equals("-deferredsuggestions")) {
+                withSuggestions = true;
+                deferSuggestions = true;
+                // The capitalized and plain variants of a word share the dictionary work.
+                if (spellChecker.getCache() == null) {
+                    spellChecker.setCache(SUGGESTION_CACHE_SIZE);
+                }
             } else if (theOption[0].equals("-checkhtmlfiles")) {
                 checkHtmlFiles = true;
+            } else if (theOption[0].equals("-rawcomments")) {
+                commentTokenizer = new StringWordTokenizer(new DefaultWordFinder());
             }
         }
 
@@ -288,8 +377,9 @@ public class SpellCheckDoclet {
      */
     private static void spellCheckApi(RootDoc theRootDoc) {
         ClassDoc[] theClassList = theRootDoc.classes();
+        PrintStream theReportStream = (deferredReport != null) ? deferredReport.target : outputStream;
 
-        if (outputStream == System.out) {
+        if (theReportStream == System.out) {
             for (int ii = 0; ii < theClassList.length; ii++) {
                 spellCheckClass(theClassList[ii]);
             }
@@ -363,9 +453,14 @@ public class SpellCheckDoclet {
      */
     private static void spellCheckString(String theString) {
         try {
-            spellChecker.checkSpelling(new StringWordTokenizer(theString));
+            commentTokenizer.setText(theString);
+            currentTokenizer = commentTokenizer;
+            spellChecker.checkSpelling(currentTokenizer, SPELL_ERROR_HANDLER,
+                SpellChecker.REPORT_CAPITALIZATION);
         } catch (Exception theEx) {
             theEx.printStackTrace();
+        } finally {
+            currentTokenizer = null;
         }
     }
 
@@ -526,13 +621,13 @@ public class SpellCheckDoclet {
             theSpellChecker.getConfiguration().setBoolean(
                 Configuration.SPELL_IGNOREMIXEDCASE, true);
 
+            // No memo of the words checked: the dictionaries look the words up
+            // in place, where a memo would need a String for each of them.
+
             // Specify the words to be ignored.
             // NOTE: Ignore commonly abbreviations: e.g and i.e.
             theSpellChecker.ignoreAll("e.g");
             theSpellChecker.ignoreAll("i.e");
-
-            // Add the Spell Check Listener.
-            theSpellChecker.addSpellCheckListener(new SpellErrorHandler());
         } catch (Exception theEx) {
             theEx.printStackTrace();
             System.exit(-1);
@@ -592,18 +687,22 @@ public class SpellCheckDoclet {
             LineNumberReader theLineReader = new LineNumberReader(
                 new FileReader(theFileName));
             String theIgnoreWord = null;
+            List<String> theIgnoreWords = new ArrayList<String>();
 
-            // Read the file one line at a time.
+            // Read the file one line at a time, collecting the words it contains.
             while ((theIgnoreWord = theLineReader.readLine()) != null) {
-                // Add the word contained on this line to the ignored words.
                 theIgnoreWord = theIgnoreWord.trim();
                 if (theIgnoreWord.length() > 0) {
-                    if (echoInputs) {
-                        System.out.println("  >>> Ignore: " + theIgnoreWord);
-                    }
-                    spellChecker.ignoreAll(theIgnoreWord);
+                    theIgnoreWords.add(theIgnoreWord);
                 }
             }
+            theLineReader.close();
+
+            spellChecker.ignoreAll(theIgnoreWords);
+            if (echoInputs) {
+                System.out.println("  >>> Ignore File: " + theFileName + " ("
+                    + theIgnoreWords.size() + " words)");
+            }
         } catch (Exception e) {
             System.out.println("*** ERROR encountered processing Ignore File: " + theFileName);
             e.printStackTrace();
@@ -688,17 +787,16 @@ public class SpellCheckDoclet {
     /**
      * SpellErrorHandler.
      */
-    private static class SpellErrorHandler implements SpellCheckListener {
+    private static class SpellErrorHandler implements SpellingErrorSink {
         /**
-         * Handles spelling error events.
-         * SpellCheckListener interface implementation.
+         * Handles spelling errors, while the current tokenizer is still on the word.
+         * SpellingErrorSink interface implementation.
          */
-        public void spellingError(SpellCheckEvent theEvent) {
-            String theInvalidWord = theEvent.getInvalidWord();
+        public void spellingError(int theKind, int theOffset, int theLength, String theInvalidWord) {
 
             // Certain spelling errors are ignored.
             // NOTE: This does not pertain to Ignore Words, since Ignore Words do not raise a
-            //       Spell Check Evant.  Rather it pertains to Ignore Containing strings.
+            //       Spelling Error.  Rather it pertains to Ignore Containing strings.
             //if (isToIgnore(theInvalidWord)) return; // todo
             if (!ignoreContainingList.contains(theInvalidWord)) {
 
@@ -733,22 +831,182 @@ public class SpellCheckDoclet {
                 outputStream.println(theInvalidWord);
 
                 // Write the suggests.
-                if (withSuggestions) {
-                    outputStream.print(": ");
+                if (theKind == SpellingErrorSink.NOT_CAPITALIZED) {
+                    if (withSuggestions) {
+                        List<Word> theSuggestions = new ArrayList<Word>(1);
+                        theSuggestions.add(new Word(Character.toUpperCase(theInvalidWord.charAt(0))
+                            + theInvalidWord.substring(1), 0));
+                        writeSuggestions(outputStream, theSuggestions);
+                    }
+                } else if (deferredReport != null) {
+                    deferredReport.addSuggestions(theInvalidWord,
+                        spellChecker.capitalizeSuggestions(theInvalidWord, currentTokenizer));
+                } else if (withSuggestions) {
+                    writeSuggestions(outputStream, spellChecker.getSuggestions(theInvalidWord,
+                        spellChecker.getConfiguration().getSnapshot().getThreshold(),
+                        spellChecker.getMaxSuggestions(),
+                        spellChecker.capitalizeSuggestions(theInvalidWord, currentTokenizer)));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Writes the suggestions for an invalid word.
+     */
+    private static void writeSuggestions(PrintStream theStream, List theSuggestions) {
+        theStream.print(": ");
+
+        if (theSuggestions.size() > 0) {
+            for (Iterator theSuggestedWord = theSuggestions.iterator(); theSuggestedWord.hasNext(); ) {
+                theStream.print(theSuggestedWord.next() + " ");
+            }
+        } else {
+            theStream.print("<No suggestions>");
+        }
+        theStream.print("\n\t");
+    }
+
+    /**
+     * DeferredReport.
+     * Records the report while the API is checked, leaving a slot wherever the
+     * suggestions for an invalid word go.  Once the check is done the suggestions
+     * are computed once per distinct word on a worker pool, and the report is
+     * written out with the slots filled in, exactly as -withsuggestions writes it.
+     */
+    private static class DeferredReport {
+        private final PrintStream target;
+        private final List<Object> segments = new ArrayList<Object>();
+        private final Map<SuggestionKey, List> suggestions = new LinkedHashMap<SuggestionKey, List>();
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        private final PrintStream recordingStream = new PrintStream(new OutputStream() {
+            public void write(int b) {
+                chunk.write(b);
+            }
 
-                    List theSuggestions = theEvent.getSuggestions();
-                    if (theSuggestions.size() > 0) {
-                        for (Iterator theSuggestedWord = theSuggestions.iterator(); theSuggestedWord.hasNext(); ) {
-                            outputStream.print(theSuggestedWord.next() + " ");
+            public void write(byte[] b, int off, int len) {
+                chunk.write(b, off, len);
+            }
+        });
+
+        DeferredReport(PrintStream theTarget) {
+            target = theTarget;
+        }
+
+        PrintStream getRecordingStream() {
+            return recordingStream;
+        }
+
+        /**
+         * Leaves a slot for the suggestions of the given invalid word.
+         */
+        void addSuggestions(String theInvalidWord, boolean capitalize) {
+            SuggestionKey theKey = new SuggestionKey(theInvalidWord, capitalize);
+            endChunk();
+            segments.add(theKey);
+            if (!suggestions.containsKey(theKey)) {
+                suggestions.put(theKey, null);
+            }
+        }
+
+        /**
+         * Computes the suggestions and writes the report to the target stream.
+         *
+         * @return the target stream
+         */
+        PrintStream complete() {
+            endChunk();
+            computeSuggestions();
+
+            for (Object theSegment : segments) {
+                if (theSegment instanceof SuggestionKey) {
+                    writeSuggestions(target, suggestions.get(theSegment));
+                } else {
+                    byte[] theBytes = (byte[]) theSegment;
+                    target.write(theBytes, 0, theBytes.length);
+                }
+            }
+            target.flush();
+            return target;
+        }
+
+        private void endChunk() {
+            recordingStream.flush();
+            if (chunk.size() > 0) {
+                segments.add(chunk.toByteArray());
+                chunk.reset();
+            }
+        }
+
+        private void computeSuggestions() {
+            if (suggestions.isEmpty()) {
+                return;
+            }
+
+            // The spell checker is not thread safe, so each worker has its own session.
+            final SpellCheckEngine theEngine = spellChecker.getEngine();
+            final SpellDictionary theUserDictionary = spellChecker.getSession().getUserDictionary();
+            final ThreadLocal<SpellCheckSession> theSessions = new ThreadLocal<SpellCheckSession>() {
+                protected SpellCheckSession initialValue() {
+                    SpellCheckSession theSession = theEngine.newSession();
+                    theSession.setUserDictionary(theUserDictionary);
+                    return theSession;
+                }
+            };
+            final int theThreshold = spellChecker.getConfiguration().getSnapshot().getThreshold();
+            final int theMaxSuggestions = spellChecker.getMaxSuggestions();
+            int theThreadCount = Math.min(suggestions.size(), Runtime.getRuntime().availableProcessors());
+            ExecutorService thePool = Executors.newFixedThreadPool(theThreadCount);
+
+            try {
+                Map<SuggestionKey, Future<List>> theResults = new HashMap<SuggestionKey, Future<List>>();
+                for (final SuggestionKey theKey : suggestions.keySet()) {
+                    theResults.put(theKey, thePool.submit(new Callable<List>() {
+                        public List call() {
+                            return theSessions.get().getSuggestions(theKey.word, theThreshold,
+                                theMaxSuggestions, theKey.capitalize);
                         }
-                    } else {
-                        outputStream.print("<No suggestions>");
-                    }
-                    outputStream.print("\n\t");
+                    }));
+                }
+
+                for (Map.Entry<SuggestionKey, Future<List>> theResult : theResults.entrySet()) {
+                    suggestions.put(theResult.getKey(), theResult.getValue().get());
                 }
+            } catch (Exception theEx) {
+                System.out.println("*** ERROR computing suggestions.");
+                theEx.printStackTrace();
+                System.exit(-1);
+            } finally {
+                thePool.shutdown();
             }
         }
+    }
 
+    /**
+     * SuggestionKey.
+     * An invalid word and whether its suggestions are capitalized.
+     */
+    private static class SuggestionKey {
+        private final String word;
+        private final boolean capitalize;
+
+        SuggestionKey(String theWord, boolean theCapitalize) {
+            word = theWord;
+            capitalize = theCapitalize;
+        }
+
+        public boolean equals(Object theObject) {
+            if (!(theObject instanceof SuggestionKey)) {
+                return false;
+            }
+            SuggestionKey theKey = (SuggestionKey) theObject;
+            return capitalize == theKey.capitalize && word.equals(theKey.word);
+        }
+
+        public int hashCode() {
+            return word.hashCode() * 2 + (capitalize ? 1 : 0);
+        }
     }
 
     /**
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.spellcheck;
+
+import com.swabunga.spell.event.StringWordTokenizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+/**
+ * Checks which words of the comments the doclet spell-checks.
+ */
+public class SpellCheckDocletTester extends TestCase {
+
+    private static final String COMMENT = "Returns the {@code x} of <b>this</b> <pre>int y;</pre> value.";
+
+    public SpellCheckDocletTester(String name) {
+        super(name);
+    }
+
+    public void testCommentMarkup() {
+        // the option is kept once given, so both are checked in order
+        assertEquals(Arrays.asList("Returns", "the", "of", "this", "value"), commentWords());
+
+        assertTrue(SpellCheckDoclet.validOptions(new String[][] {{"-rawcomments"}}, null));
+        assertEquals(Arrays.asList("Returns", "the", "code", "x", "of", "b", "this", "b", "pre",
+            "int", "y", "pre", "value"), commentWords());
+    }
+
+    private static List<String> commentWords() {
+        StringWordTokenizer tokenizer = SpellCheckDoclet.commentTokenizer;
+        tokenizer.setText(COMMENT);
+        List<String> words = new ArrayList<String>();
+        while (tokenizer.hasMoreWords()) {
+            words.add(tokenizer.nextWord());
+        }
+        return words;
+    }
+
+    public static void main(String[] args) {
+        TestRunner.run(new TestSuite(SpellCheckDocletTester.class));
+    }
+}